@@ -1,24 +1,35 @@
 package FireFightingDroneSwarm.DroneSubsystem;
 import FireFightingDroneSwarm.Events.EventLogger;
 import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.Events.LogPriority;
 import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
 import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.Protocol.FailoverFrame;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
 import FireFightingDroneSwarm.Scheduler.Scheduler;
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
 import FireFightingDroneSwarm.UserInterface.ZoneMapController;
 import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
 import jdk.jfr.Event;
 
 import java.io.IOException;
-import java.net.*;
+import java.net.InetSocketAddress;
 
 
 public class Drone implements Runnable {
 
     private final int droneId;
+    // entity name in the log, built once instead of on every event
+    private final String logName;
     private volatile DroneStatus status;
     public FireEvent currentTask;
     private Scheduler scheduler = null;
     private static final double DRONE_SPEED = 80.0; // units per second (Iteration 0)
+    // how often an idle drone re-sends its status so the scheduler knows it is alive
+    private static final int HEARTBEAT_INTERVAL = 2000;
     private int waterTank;
     private static final int MAX_TANK = 15;
     private boolean hasFuel = true;
@@ -30,8 +41,20 @@ public class Drone implements Runnable {
     private double batteryLife = full;
 
     //UDP
-    DatagramPacket sendPacket, receivePacket;
-    DatagramSocket sendReceiveSocket;
+    private Transport transport;
+    private InetSocketAddress schedulerAddress;
+    private InetSocketAddress guiAddress;
+    private volatile boolean running = true;
+    private SimulationClock clock = SimulationClock.REAL_TIME;
+
+    // reused for every status frame sent to the scheduler
+    private final Telemetry telemetry = new Telemetry();
+    private final byte[] telemetryFrame = new byte[Telemetry.FRAME_LENGTH];
+    private int telemetrySequence;
+    // reused for every assignment received from the scheduler
+    private final FireEventFrame assignment = new FireEventFrame();
+    private boolean assignmentReceived;
+    private final FailoverFrame failover = new FailoverFrame();
 
     // Drone position (start at base)
     private double posX;
@@ -59,6 +82,7 @@ public class Drone implements Runnable {
      */
     public Drone(int droneId, Scheduler scheduler, ZoneMapController zoneMapController, LogManager logger) {
         this.droneId = droneId;
+        this.logName = "DRONE_" + droneId;
         this.scheduler = scheduler;
         this.status = DroneStatus.IDLE;
         this.zoneMapController = zoneMapController;
@@ -69,25 +93,54 @@ public class Drone implements Runnable {
         this.logger = logger;
         // this.batteryLife = full;
 
-        try {
-            sendReceiveSocket = new DatagramSocket();
-        } catch (SocketException e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
+        connectUdp();
     }
 
     public Drone(int droneId) {
         this.droneId = droneId;
+        this.logName = "DRONE_" + droneId;
+        this.status = DroneStatus.IDLE;
+        this.posX = BASE_X;
+        this.posY = BASE_Y;
+
+        this.waterTank = MAX_TANK;
+
+        connectUdp();
+    }
+
+    /**
+     * Constructor for a drone that talks to the scheduler and the GUI
+     * through the given transport, for example a LoopbackTransport to run
+     * the whole swarm in one process.
+     * @param droneId          ID to represent a drone object
+     * @param transport        Transport the drone sends and receives on
+     * @param schedulerAddress address of the scheduler on that transport
+     * @param guiAddress       address of the GUI on that transport, null to send no GUI updates
+     */
+    public Drone(int droneId, Transport transport, InetSocketAddress schedulerAddress, InetSocketAddress guiAddress) {
+        this.droneId = droneId;
+        this.logName = "DRONE_" + droneId;
         this.status = DroneStatus.IDLE;
         this.posX = BASE_X;
         this.posY = BASE_Y;
 
         this.waterTank = MAX_TANK;
 
+        this.transport = transport;
+        this.schedulerAddress = schedulerAddress;
+        this.guiAddress = guiAddress;
+    }
+
+    /**
+     * Opens a UDP transport on a free port, talking to the scheduler and
+     * the GUI on their usual ports on this host.
+     */
+    private void connectUdp() {
         try {
-            sendReceiveSocket = new DatagramSocket();
-        } catch (SocketException e) {
+            transport = new UdpTransport(0);
+            schedulerAddress = UdpTransport.localAddress(UdpTransport.SCHEDULER_PORT);
+            guiAddress = UdpTransport.localAddress(UdpTransport.GUI_PORT);
+        } catch (IOException e) {
             e.printStackTrace();
             System.exit(1);
         }
@@ -96,32 +149,19 @@ public class Drone implements Runnable {
     /**
      * The drone continuously sends its status to the
      * scheduler so that the scheduler can effectively schedule tasks for the drone.
+     * While idle the status doubles as a heartbeat, sent every time waiting
+     * for an assignment times out after HEARTBEAT_INTERVAL.
      */
     @Override
     public void run() {
-        LogManager.Log("DRONE_" + droneId, "SYSTEM_STARTUP", "Status: " + status, "Battery Life: " + (int) batteryLife);
-        while (status != DroneStatus.OUT_OF_SERVICE) {
+        LogManager.event(logName, "SYSTEM_STARTUP").add("Status", status).add("Battery Life", (int) batteryLife).log();
+        while (running && status != DroneStatus.OUT_OF_SERVICE) {
             try {
-                String statusMsg =
-                        droneId + "," +
-                                status + "," +
-                                posX + "," +
-                                posY + "," +
-                                waterTank;
-
-                if (currentTask != null) {
-                    statusMsg += "," + currentTask.getFireID();
-                } else {
-                    statusMsg += "," + 0;
-                }
-
                 sendGuiUpdate("DRONE_UPDATE", (currentTask != null) ? currentTask.getZoneID() : 0);
-                sendStatus(statusMsg);
+                sendStatus();
                 receiveFireEvent();
                 decBatteryLife();
 
-                Thread.sleep(5000);
-
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -134,7 +174,7 @@ public class Drone implements Runnable {
      * subject to change
      */
     void executeTask() {
-        LogManager.Log("DRONE_" + droneId, "TASK_START", "FireID: " + currentTask.getFireID(), "Zone: " + currentTask.getZoneID());
+        LogManager.Log(logName, "TASK_START", "FireID", currentTask.getFireID(), "Zone", currentTask.getZoneID());
         System.out.println("[Drone " + droneId + "] Dispatched to zone "
                 + currentTask.getZoneID());
 
@@ -161,7 +201,7 @@ public class Drone implements Runnable {
                 zoneMapController.droneReturning(currentTask.getZoneID());
             }
 
-            boolean returned = travelTo(BASE_X, BASE_Y);
+            boolean returned = returnToBase();
             if (!returned) {
                 return;
             }
@@ -173,13 +213,16 @@ public class Drone implements Runnable {
 
             return;
         }
+        // logged once per task, flights back to base are not arrivals at the fire
+        LogManager.Log(logName, "MOVEMENT_ARRIVED", "FireID", currentTask.getFireID());
         transition(DroneStatus.ARRIVED);
 
-        int amountNeeded = calculateWaterUsage(currentTask.getSeverity());
+        // the drone's share when the fire is split across drones
+        int amountNeeded = currentTask.getRequiredWater();
         if (waterTank < amountNeeded) {
             System.out.println("[Drone " + droneId + "] Not enough water for task. Returning.");
             transition(DroneStatus.RETURNING);
-            boolean returned = travelTo(BASE_X, BASE_Y);
+            boolean returned = returnToBase();
             if (returned) {
                 transition(DroneStatus.REFILLING);
                 refill();
@@ -196,7 +239,7 @@ public class Drone implements Runnable {
             return;
         }
 
-        int amountUsed = calculateWaterUsage(currentTask.getSeverity());
+        int amountUsed = currentTask.getRequiredWater();
         this.waterTank -= amountUsed;
         /**
          if(this.waterTank <= 0 || !remainingFlight()) {
@@ -221,7 +264,7 @@ public class Drone implements Runnable {
         if (zoneMapController != null) {
             zoneMapController.droneReturning(currentTask.getZoneID());
         }
-        boolean returned = travelTo(BASE_X, BASE_Y);
+        boolean returned = returnToBase();
         if (!returned) {
             return;
         }
@@ -231,8 +274,7 @@ public class Drone implements Runnable {
 
         transition(DroneStatus.IDLE);
         System.out.println("[Drone " + droneId + "] returned to base");
-        String completionMsg = droneId + ",IDLE," + posX + "," + posY + "," + waterTank + "," + currentTask.getFireID() + ",COMPLETE";
-        sendStatus(completionMsg);
+        sendStatus();
 
 
         // zone = currentTask.getZoneID(); for when we implement refilling, if the tank isn't full it will stay and go to idle
@@ -248,20 +290,15 @@ public class Drone implements Runnable {
         System.out.println("[Drone " + droneId + " " + status + "] Transitioning to " + newStatus);
 
         if (newStatus == DroneStatus.OUT_OF_SERVICE || newStatus == DroneStatus.FAULTED) {
-            LogManager.Log("DRONE_" + droneId, "FAULT", "FaultType: " + injectedFault);
+            LogManager.event(logName, "FAULT").add("FaultType", injectedFault).log();
             status = newStatus;
-            String statusMsg =
-                    droneId + "," +
-                            status + "," +
-                            posX + "," +
-                            posY + "," +
-                            waterTank + "," + currentTask.getFireID();
-            sendStatus(statusMsg);
+            sendStatus();
             sendGuiUpdate("DRONE_FAULTED", currentTask.getZoneID());
             return;
         }
         // we wanna check that the transition is valid, no illegal moves
         // IDLE - > EN_ROUTE -> ARRIVED -> DROPPING_AGENT -> EN_ROUTE or RETURNING -> REFILLING -> IDLE
+        // a RETURNING drone chained to another fire goes straight back to EN_ROUTE
         switch (status) {
             case IDLE:
                 if (newStatus != DroneStatus.EN_ROUTE && newStatus != DroneStatus.FAULTED) return;
@@ -278,7 +315,8 @@ public class Drone implements Runnable {
                         newStatus != DroneStatus.EN_ROUTE) return;
                 break;
             case RETURNING:
-                if (newStatus != DroneStatus.REFILLING && newStatus != DroneStatus.FAULTED) return;
+                if (newStatus != DroneStatus.REFILLING && newStatus != DroneStatus.EN_ROUTE
+                        && newStatus != DroneStatus.FAULTED) return;
                 break;
             case REFILLING:
                 if (newStatus != DroneStatus.IDLE) return;
@@ -292,24 +330,20 @@ public class Drone implements Runnable {
 
         status = newStatus;
 
-        LogManager.Log("DRONE_" + droneId, "STATE_TRANSITION",
-                "From: " + oldStatus,
-                "To: " + newStatus,
-                "Pos: (" + posX + "," + posY + ")",
-                "Water: " + waterTank,
-                "Battery Life: " + (int) batteryLife);
+        LogManager.event(logName, "STATE_TRANSITION")
+                .add("From", oldStatus)
+                .add("To", newStatus)
+                .addPoint("Pos", posX, posY)
+                .add("Water", waterTank)
+                .add("Battery Life", (int) batteryLife)
+                .log();
 
-        String statusMsg =
-                droneId + "," +
-                        status + "," +
-                        posX + "," +
-                        posY + "," +
-                        waterTank + "," + currentTask.getFireID();
-        sendStatus(statusMsg);
+        sendStatus();
     }
 
     /**
-     * Simulates fire extinguishing time based on fire severity.
+     * Simulates fire extinguishing time based on fire severity, scaled down
+     * when the drone only drops its share of the water for a split fire.
      * Now if there's a fault detected with the nozzle it'll put the drone out of service
      *
      * @param severity the severity level of the fire
@@ -317,7 +351,7 @@ public class Drone implements Runnable {
      */
     private boolean extinguish(Severity severity) {
         if (injectedFault == FaultType.NOZZLE_JAM && !faultTriggered) {
-            LogManager.Log("DRONE_" + droneId, "FAULT", "Type: NOZZLE_JAM");
+            LogManager.event(logName, "FAULT").add("Type", FaultType.NOZZLE_JAM).log();
             faultTriggered = true;
             System.out.println("[Drone " + droneId + "] Fault triggered Nozzle Jam.");
             transition(DroneStatus.OUT_OF_SERVICE);
@@ -325,9 +359,6 @@ public class Drone implements Runnable {
             return false;
         }
 
-        if (currentTask != null) {
-            LogManager.Log("DRONE_" + droneId, "MOVEMENT_ARRIVED", "FireID: " + currentTask.getFireID());        }
-
         int extinguishTime;
 
         switch (severity) {
@@ -336,10 +367,13 @@ public class Drone implements Runnable {
             case HIGH -> extinguishTime = 3500;
             default -> extinguishTime = 1500;
         }
+        if (currentTask != null) {
+            extinguishTime = extinguishTime * currentTask.getRequiredWater() / calculateWaterUsage(severity);
+        }
 
-        LogManager.Log("DRONE_" + droneId, "EXTINGUISHING_START", "Severity: " + severity);
+        LogManager.event(logName, "EXTINGUISHING_START").add("Severity", severity).log();
         sleep(extinguishTime);
-        LogManager.Log("DRONE_" + droneId, "EXTINGUISHING_END", "FireID: " + currentTask.getFireID());
+        LogManager.Log(logName, "EXTINGUISHING_END", "FireID", currentTask.getFireID());
 
 
         return true;
@@ -351,7 +385,29 @@ public class Drone implements Runnable {
      * easier to log now
      */
     private boolean travelTo(double x, double y) {
-        LogManager.Log("DRONE_" + droneId, "EN_ROUTE", "Target: (" + x + "," + y + ")", "BatteryLife: " + (int) batteryLife);
+        return travelTo(x, y, false);
+    }
+
+    /**
+     * Flies back to base, refilling is left to the caller. On the way the
+     * drone listens for a follow-on assignment, the scheduler may chain it
+     * to another fire its remaining water is enough for.
+     * @return true if the drone reached base, false if it faulted or was
+     * given another fire, in which case assignmentReceived is set
+     */
+    private boolean returnToBase() {
+        return travelTo(BASE_X, BASE_Y, true);
+    }
+
+    /**
+     * Moves the drone to x, y in steps, sending its status on every step
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param acceptAssignment true to stop as soon as a new assignment arrives
+     * @return true if the drone got there
+     */
+    private boolean travelTo(double x, double y, boolean acceptAssignment) {
+        LogManager.event(logName, "EN_ROUTE").addPoint("Target", x, y).add("BatteryLife", (int) batteryLife).log();
         double distance = calculateDistanceToZone(x, y);
 
         double dx = x - posX;
@@ -374,7 +430,15 @@ public class Drone implements Runnable {
                 sendFaultStatus("STUCK_MID_FLIGHT");
 
                 sleep(faultSleepTime);
-                LogManager.Log("DRONE_" + droneId, "STUCK_MID_FLIGHT", "Step: " + i);
+                LogManager.Log(logName, "STUCK_MID_FLIGHT", "Step", i);
+                return false;
+            }
+            // polled on every step so a standby scheduler taking over is
+            // heard from mid flight, an assignment is kept for later
+            if (pollAssignment() && acceptAssignment) {
+                LogManager.Log(logName, "TASK_CHAINED", "FireID", assignment.getFireID(), "Water", waterTank);
+                System.out.println("[Drone " + droneId + "] Chained to zone " + assignment.getZoneID()
+                        + " on the way back");
                 return false;
             }
             posX += stepX;
@@ -382,15 +446,12 @@ public class Drone implements Runnable {
             decBatteryLife();
 
             sendGuiUpdate("DRONE_UPDATE", currentTask.getZoneID());
-            sendStatus(droneId + "," + status + "," + posX + "," + posY + "," + waterTank + "," + currentTask.getFireID());
+            sendStatus();
             sleep((int) stepTime);
         }
 
         posX = x;
         posY = y;
-        if (currentTask != null) {
-            LogManager.Log("DRONE_" + droneId, "MOVEMENT_ARRIVED", "FireID: " + currentTask.getFireID());
-        }
         return true;
     }
 
@@ -448,7 +509,7 @@ public class Drone implements Runnable {
      */
     protected void sleep(int ms) {
         try {
-            Thread.sleep(ms);
+            clock.sleep(ms);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -486,37 +547,33 @@ public class Drone implements Runnable {
     } // optional
 
     /**
-     * Sends the status (as a string) of the drone to the Scheduler server
-     *
-     * @param statusMsg The status string being sent
+     * Sends the status of the drone to the Scheduler server as a binary
+     * telemetry frame, see Telemetry for the layout.
      */
-    public void sendStatus(String statusMsg) {
+    public void sendStatus() {
 
         if (injectedFault == FaultType.PACKET_LOSS) {
             if (!faultTriggered) {
                 faultTriggered = true;
-                LogManager.Log("DRONE_" + droneId, "FAULT", "Type: PACKET_LOSS", "FireID: " + currentTask.getFireID());
+                LogManager.event(logName, "FAULT")
+                        .add("Type", FaultType.PACKET_LOSS)
+                        .add("FireID", currentTask.getFireID())
+                        .log();
                 sendGuiUpdate("DRONE_FAULTED", currentTask.getZoneID());
                 System.out.println("[Drone " + droneId + "] Fault triggered: packet loss");
             }
             return;
         }
-        LogManager.Log("DRONE_" + droneId, "SEND_STATUS", statusMsg, "Battery Life: " + (int) batteryLife);
-        System.out.println("Sending drone status: " + statusMsg);
-        byte msg[] = statusMsg.getBytes();
-
-        try {
-            sendPacket = new DatagramPacket(msg, msg.length, InetAddress.getLocalHost(), 50000);
-        } catch (UnknownHostException e) {
-            LogManager.Log("DRONE_" + droneId, "NETWORK_ERROR", "Unknown Host");
-            e.printStackTrace();
-            System.exit(1);
-        }
+        LogManager.event(LogPriority.LOW, logName, "SEND_STATUS")
+                .add("Status", status)
+                .add("Battery Life", (int) batteryLife)
+                .log();
+        System.out.println("Sending drone status: " + status);
 
         try {
-            sendReceiveSocket.send(sendPacket);
+            sendTelemetry(Telemetry.STATUS);
         } catch (IOException e) {
-            LogManager.Log("DRONE_" + droneId, "NETWORK_ERROR", "IO Exception during send");
+            LogManager.Log(logName, "NETWORK_ERROR", "IO Exception during send");
             e.printStackTrace();
             System.exit(1);
         }
@@ -530,80 +587,85 @@ public class Drone implements Runnable {
 
     /**
      * Method to receive fire event on UDP socket from the scheduler and to begin
-     * state execution.
-     * <p>
-     * Expected packet format:
-     * byte[0] = message type (3 = ASSIGNMENT)
-     * byte[1] = zone ID
-     * byte[2] = severity level
-     * byte[3] = task type
-     * byte[4] = fault type
-     * byte[5..6] = zone start X coordinate
-     * byte[7..8] = zone start Y coordinate
-     * byte[9..10] = zone end X coordinate
-     * byte[11..12] = zone end Y coordinate
+     * state execution. The packet is an ASSIGNMENT FireEventFrame, see that
+     * class for the packet format. Waits at most HEARTBEAT_INTERVAL. Tasks
+     * chained onto the flight back are carried out before returning.
      */
     public void receiveFireEvent() {
 
         try {
 
+            long heartbeatDue = clock.currentTimeMillis() + HEARTBEAT_INTERVAL;
+            clock.wakeAt(heartbeatDue);
 
-            receivePacket = new DatagramPacket(new byte[15], 15);
-            sendReceiveSocket.receive(receivePacket);
-
-            byte[] data = receivePacket.getData();
-
-            int messageType = data[0];
-
-            if (messageType != 3) {
-                return; // not a fire event assignment
+            long timeout;
+            while (!assignmentReceived && (timeout = clock.realTimeout(heartbeatDue)) > 0) {
+                transport.receive(timeout, this::handleAssignment);
             }
 
-            // (optional safer parsing)
-            int zoneID = data[1] & 0xFF;
-            int severityNum = data[2] & 0xFF;
-            int taskNum = data[3] & 0xFF;
-            int faultNum = data[4] & 0xFF;
-
-            // FIX 2: shift all coordinate indices by +1
-            int startX = combineBytes(data[5], data[6]);
-            int startY = combineBytes(data[7], data[8]);
-            int endX = combineBytes(data[9], data[10]);
-            int endY = combineBytes(data[11], data[12]);
-            int fireID = combineBytes(data[13], data[14]);
-
-            zoneCenter = getZoneCenter(startX, startY, endX, endY);
-
-            Severity severity = Severity.values()[severityNum];
-            TaskType taskType = TaskType.values()[taskNum];
-            FaultType faultType = FaultType.values()[faultNum];
-
-            System.out.println("[Drone " + droneId + "] Received fire assignment for zone " + zoneID);
-            LogManager.Log("DRONE_" + droneId, "ASSIGNMENT_RECEIVED",
-                    "FireID: " + fireID,
-                    "Zone: " + zoneID,
-                    "Severity: " + severity);
-
-            currentTask = new FireEvent(zoneID, taskType, java.time.LocalTime.now(), severity, faultType, fireID);
-
-            this.faultTriggered = false;
-            executeTask();
+            // a task can be chained onto the flight back from the previous one
+            while (assignmentReceived) {
+                assignmentReceived = false;
+                startAssignment();
+                executeTask();
+            }
 
         } catch (Exception e) {
-            LogManager.Log("DRONE_" + droneId, "UDP_ERROR", e.getMessage());
+            LogManager.Log(logName, "UDP_ERROR", e.getMessage());
             e.printStackTrace();
         }
     }
 
     /**
-     * Helper function for UDP packet parsing.
-     *
-     * @param high upper byte to combine
-     * @param low  lower byte to combine
-     * @return integer represented by the combined bytes
+     * Checks without waiting whether an assignment has arrived, and
+     * switches to a standby scheduler that announced it took over
+     * @return true if one has, it is then held in the assignment frame
+     */
+    private boolean pollAssignment() {
+        try {
+            transport.receive(0, this::handleAssignment);
+        } catch (IOException e) {
+            LogManager.Log(logName, "UDP_ERROR", e.getMessage());
+            e.printStackTrace();
+        }
+        return assignmentReceived;
+    }
+
+    private void handleAssignment(byte[] data, int length, InetSocketAddress source) {
+        if (failover.decode(data, length)) {
+            if (failover.getDroneId() == droneId && !source.equals(schedulerAddress)) {
+                System.out.println("[Drone " + droneId + "] Scheduler failed over to " + source);
+                LogManager.event(logName, "SCHEDULER_FAILOVER").add("Scheduler", source).log();
+                schedulerAddress = source;
+            }
+            return;
+        }
+        if (assignment.decode(data, length) && assignment.getType() == FireEventFrame.ASSIGNMENT
+                && assignment.getDroneId() == droneId) {
+            assignmentReceived = true;
+        }
+    }
+
+    /**
+     * Makes the assignment last received the current task of the drone
      */
-    private int combineBytes(byte high, byte low) {
-        return ((high & 0xFF) << 8) | (low & 0xFF);
+    private void startAssignment() {
+        int zoneID = assignment.getZoneID();
+        int fireID = assignment.getFireID();
+        Severity severity = assignment.getSeverity();
+
+        zoneCenter = assignment.getZoneCenter(zoneCenter);
+
+        System.out.println("[Drone " + droneId + "] Received fire assignment for zone " + zoneID);
+        LogManager.event(logName, "ASSIGNMENT_RECEIVED")
+                .add("FireID", fireID)
+                .add("Zone", zoneID)
+                .add("Severity", severity)
+                .log();
+
+        currentTask = assignment.toFireEvent();
+
+        this.faultTriggered = false;
     }
 
     /**
@@ -613,6 +675,9 @@ public class Drone implements Runnable {
      * @param zoneId the zone in which the drone is situated
      */
     private void sendGuiUpdate(String type, int zoneId) {
+        if (guiAddress == null) {
+            return;
+        }
         try {
             String fault = (status == DroneStatus.FAULTED || status == DroneStatus.OUT_OF_SERVICE)
                     ? "FAULT"
@@ -630,10 +695,7 @@ public class Drone implements Runnable {
 
             byte[] data = msg.getBytes();
 
-            DatagramPacket packet =
-                    new DatagramPacket(data, data.length, InetAddress.getLocalHost(), 60000);
-
-            sendReceiveSocket.send(packet);
+            transport.send(data, data.length, guiAddress);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -641,26 +703,53 @@ public class Drone implements Runnable {
     }
 
     /**
-     * Sends a fault notification to the scheduler over UDP
-     * the message has the format:
-     * FAULT,droneId,faultType,posX,posY
+     * Sends a fault notification to the scheduler over UDP, a telemetry
+     * frame with the FAULT message type.
      *
      * @param fault, the fault encountered by the drone
      */
     private void sendFaultStatus(String fault) {
-        String msg = "FAULT," + droneId + "," + status + "," + posX + "," + posY + "," + waterTank + "," + currentTask.getFireID();
-        System.out.println("Sending fault: " + msg);
-
-        byte[] data = msg.getBytes();
+        System.out.println("Sending fault: " + fault);
 
         try {
-            DatagramPacket packet = new DatagramPacket(data, data.length, InetAddress.getLocalHost(), 50000);
-            sendReceiveSocket.send(packet);
+            sendTelemetry(Telemetry.FAULT);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Encodes the current state of the drone into the reused telemetry
+     * frame and sends it to the scheduler.
+     *
+     * @param type the telemetry message type, Telemetry.STATUS or Telemetry.FAULT
+     * @throws IOException if the frame cannot be sent
+     */
+    private void sendTelemetry(byte type) throws IOException {
+        int fireID = (currentTask != null) ? currentTask.getFireID() : 0;
+        int length = telemetry.set(type, droneId, status, posX, posY, waterTank, batteryLife,
+                fireID, ++telemetrySequence).encode(telemetryFrame);
+
+        transport.send(telemetryFrame, length, schedulerAddress);
+    }
+
+    /**
+     * Setter for the clock the drone flies, extinguishes and refills by,
+     * must be called before the drone is started
+     * @param clock SimulationClock shared with the rest of the scenario
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Stops the drone once it has finished what it is doing, at the latest
+     * after the next HEARTBEAT_INTERVAL. The transport is left open.
+     */
+    public void shutdown() {
+        running = false;
+    }
+
     /**
      * Decrement the life of the battery
      */
@@ -9,10 +9,14 @@ import FireFightingDroneSwarm.FireIncidentSubsystem.IncidentReporter;
 import FireFightingDroneSwarm.FireIncidentSubsystem.InputReader;
 import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
 import FireFightingDroneSwarm.Scheduler.Scheduler;
+import FireFightingDroneSwarm.Transport.LoopbackNetwork;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+import FireFightingDroneSwarm.UserInterface.UDPZoneMapController;
 import FireFightingDroneSwarm.UserInterface.ZoneMapController;
 import FireFightingDroneSwarm.UserInterface.ZoneMapView;
 
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,6 +24,8 @@ import java.util.Map;
 /**
  * Main system test class. Instantiate Scheduler, IncidentReporter,
  * Drone, and InputReader, hook up dependencies, and start threads.
+ * Every subsystem is bound to the same in-memory LoopbackNetwork, so the
+ * whole swarm runs in this process without going through real sockets.
  */
 public class DroneSystemTest {
     public static void main(String[] args) throws InterruptedException {
@@ -29,9 +35,15 @@ public class DroneSystemTest {
     public static void multipleIncidents() throws InterruptedException {
         System.out.println("\n=== Starting Iteration 1 System Test: Multiple Incidents ===");
 
+        LoopbackNetwork network = new LoopbackNetwork();
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        InetSocketAddress guiAddress = LoopbackNetwork.address(UdpTransport.GUI_PORT);
+
         ZoneMapView GUI = new ZoneMapView();
         ZoneMapController controller = new ZoneMapController(GUI);
-        Scheduler scheduler = new Scheduler(15);
+        UDPZoneMapController guiListener =
+                new UDPZoneMapController(controller, network.bind(UdpTransport.GUI_PORT));
+        Scheduler scheduler = new Scheduler(15, network.bind(UdpTransport.SCHEDULER_PORT));
 
         InputReader inputReader =
                 new InputReader("sample_event_multiple.csv",
@@ -40,17 +52,20 @@ public class DroneSystemTest {
         ArrayList<Zone> zones = inputReader.parseZoneFile();
         scheduler.setZoneIDs(buildZoneMap(zones));
 
-        IncidentReporter incidentReporter = new IncidentReporter(inputReader, scheduler, controller);
-        LogManager logger = new LogManager();
+        IncidentReporter incidentReporter =
+                new IncidentReporter(inputReader, network.bind(0), schedulerAddress, guiAddress);
 
-        Drone drone = new Drone(1, scheduler, controller, logger);
+        Drone drone = new Drone(1, network.bind(0), schedulerAddress, guiAddress);
 
         scheduler.setIncidentReporter(incidentReporter);
 
         Thread schedulerThread = new Thread(scheduler);
         Thread incidentThread = new Thread(incidentReporter);
         Thread droneThread = new Thread(drone);
+        Thread guiThread = new Thread(guiListener);
+        guiThread.setDaemon(true);
 
+        guiThread.start();
         schedulerThread.start();
         incidentThread.start();
         droneThread.start();
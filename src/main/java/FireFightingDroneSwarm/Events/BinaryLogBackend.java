@@ -0,0 +1,263 @@
+package FireFightingDroneSwarm.Events;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class writes events as fixed-schema binary records to memory-mapped
+ * segment files of a fixed size, base.0, base.1 and so on, so logging an
+ * event is a few memory writes instead of formatting a line of text.
+ * Entities, codes, data keys and text values are written once as DEFINE
+ * records and referred to by id afterwards, numbers are stored as numbers.
+ * BinaryLogReader reads the segments back and renders them as text.
+ *
+ * Segment layout (big endian):
+ * int magic, int version, long wall clock millis and long System.nanoTime()
+ * of the EventLogger anchor, then records, ended by a type of 0:
+ * DEFINE: byte 1, int id, unsigned short length, UTF-8 bytes
+ * EVENT: byte 2, long System.nanoTime() at Log(), int entity id, int code id,
+ *        byte field count, then per field int key id (-1 for a field not
+ *        of the form "Key: value"), byte kind and the value
+ * A LONG or DOUBLE value is the number as a long, a STRING or TEXT value
+ * the id of the string as a long. A FIXED value is a byte of decimals and
+ * the double, a POINT value the x and the y double. Typed fields of a
+ * LogRecord are stored by their kind, fields logged as text only hold a
+ * number if its text reads back the same, so rendering gives back the
+ * exact line.
+ */
+public class BinaryLogBackend implements LogBackend {
+
+    static final int MAGIC = 0x444C4F47;
+    static final int VERSION = 2;
+    static final int HEADER_LENGTH = 24;
+    static final byte END = 0;
+    static final byte DEFINE = 1;
+    static final byte EVENT = 2;
+    static final byte KIND_TEXT = 0;
+    static final byte KIND_LONG = 1;
+    static final byte KIND_DOUBLE = 2;
+    static final byte KIND_STRING = 3;
+    static final byte KIND_FIXED = 4;
+    static final byte KIND_POINT = 5;
+    // the longest field, a POINT
+    static final int MAX_FIELD_LENGTH = 4 + 1 + 8 + 8;
+    static final int EVENT_HEADER_LENGTH = 1 + 8 + 4 + 4 + 1;
+    public static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+    // room for the header, the longest DEFINE and the longest EVENT
+    public static final int MIN_SEGMENT_SIZE = 1 << 17;
+    // past this many distinct strings, new ones are defined again every
+    // time, under scratch ids from -2 down that only last for one event
+    private static final int MAX_DICTIONARY = 1 << 16;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final Path base;
+    private final int segmentSize;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int scratchIds;
+    private boolean closed;
+    // the fields of the event being written, reused for every event
+    private final int[] keys = new int[LogRecord.MAX_FIELDS];
+    private final byte[] kinds = new byte[LogRecord.MAX_FIELDS];
+    private final long[] values = new long[LogRecord.MAX_FIELDS];
+    private final long[] extras = new long[LogRecord.MAX_FIELDS];
+
+    /**
+     * Constructor for a backend with DEFAULT_SEGMENT_SIZE segments
+     * @param base Path the segment files are named after
+     * @throws IOException if the first segment cannot be created
+     */
+    public BinaryLogBackend(Path base) throws IOException {
+        this(base, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor for a backend, deletes the segments of an earlier log
+     * under the same name and creates the first segment
+     * @param base Path the segment files are named after
+     * @param segmentSize int size in bytes of every segment, at least MIN_SEGMENT_SIZE
+     * @throws IOException if the first segment cannot be created
+     */
+    public BinaryLogBackend(Path base, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Log segments must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.base = base;
+        this.segmentSize = segmentSize;
+        for (int i = 0; Files.deleteIfExists(segmentPath(base, i)); i++) {
+            // segments are numbered without gaps
+        }
+        nextSegment();
+    }
+
+    /**
+     * Getter for the path the segment files are named after
+     * @return Path given to the constructor
+     */
+    public Path getBase() {
+        return base;
+    }
+
+    static Path segmentPath(Path base, int index) {
+        return base.resolveSibling(base.getFileName() + "." + index);
+    }
+
+    @Override
+    public void append(LogRecord event) {
+        if (closed) return;
+        scratchIds = 0;
+        int fields = event.fieldCount();
+
+        int entityId = define(event.entity);
+        int codeId = define(event.code);
+        for (int i = 0; i < fields; i++) {
+            encodeField(event, i);
+        }
+
+        ensureRoom(EVENT_HEADER_LENGTH + fields * MAX_FIELD_LENGTH);
+        segment.put(EVENT).putLong(event.nanoTime).putInt(entityId).putInt(codeId).put((byte) fields);
+        for (int i = 0; i < fields; i++) {
+            segment.putInt(keys[i]).put(kinds[i]);
+            if (kinds[i] == KIND_FIXED) {
+                segment.put((byte) extras[i]);
+            }
+            segment.putLong(values[i]);
+            if (kinds[i] == KIND_POINT) {
+                segment.putLong(extras[i]);
+            }
+        }
+        segment.put(segment.position(), END);
+    }
+
+    private void encodeField(LogRecord event, int i) {
+        if (event.kind(i) == LogRecord.TEXT) {
+            encodeText(String.valueOf(event.object(i)), i);
+            return;
+        }
+        keys[i] = event.key(i) == null ? -1 : define(event.key(i));
+        values[i] = event.first(i);
+        extras[i] = event.second(i);
+        switch (event.kind(i)) {
+            case LogRecord.LONG -> kinds[i] = KIND_LONG;
+            case LogRecord.DOUBLE -> kinds[i] = event.second(i) < 0 ? KIND_DOUBLE : KIND_FIXED;
+            case LogRecord.POINT -> kinds[i] = KIND_POINT;
+            default -> {
+                kinds[i] = KIND_STRING;
+                values[i] = define(event.value(i));
+            }
+        }
+    }
+
+    /**
+     * Encodes a field logged as text, splitting "Key: value" so the key is
+     * defined once and a number stays a number
+     */
+    private void encodeText(String field, int i) {
+        int colon = field.indexOf(": ");
+        if (colon <= 0) {
+            keys[i] = -1;
+            kinds[i] = KIND_TEXT;
+            values[i] = define(field);
+            return;
+        }
+        String value = field.substring(colon + 2);
+        keys[i] = define(field.substring(0, colon));
+        try {
+            long number = Long.parseLong(value);
+            if (Long.toString(number).equals(value)) {
+                kinds[i] = KIND_LONG;
+                values[i] = number;
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // not a whole number
+        }
+        try {
+            double number = Double.parseDouble(value);
+            if (Double.toString(number).equals(value)) {
+                kinds[i] = KIND_DOUBLE;
+                values[i] = Double.doubleToRawLongBits(number);
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // not a number
+        }
+        kinds[i] = KIND_STRING;
+        values[i] = define(value);
+    }
+
+    /**
+     * Gives a string its id, writing a DEFINE record the first time
+     * @param text String to define
+     * @return int id of the string
+     */
+    private int define(String text) {
+        Integer id = dictionary.get(text);
+        if (id != null) return id;
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        boolean scratch = dictionary.size() >= MAX_DICTIONARY;
+        int newId = scratch ? -2 - scratchIds++ : dictionary.size();
+        ensureRoom(1 + 4 + 2 + length);
+        segment.put(DEFINE).putInt(newId).putShort((short) length).put(bytes, 0, length);
+        segment.put(segment.position(), END);
+        if (!scratch) {
+            dictionary.put(text, newId);
+        }
+        return newId;
+    }
+
+    /**
+     * Moves on to a new segment if a record and the end marker after it
+     * would not fit in the current one
+     * @param length int length of the record
+     */
+    private void ensureRoom(int length) {
+        if (segment.remaining() >= length + 1) return;
+        try {
+            nextSegment();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create log segment", e);
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        if (channel != null) {
+            segment.force();
+            channel.close();
+        }
+        segmentIndex++;
+        channel = FileChannel.open(segmentPath(base, segmentIndex), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(MAGIC).putInt(VERSION).putLong(EventLogger.ANCHOR_MILLIS).putLong(EventLogger.ANCHOR_NANOS);
+        segment.put(HEADER_LENGTH, END);
+    }
+
+    @Override
+    public void flush() {
+        // a mapped segment is visible to readers as soon as it is written
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package FireFightingDroneSwarm.Events;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class reads the segments a BinaryLogBackend wrote, in order, and
+ * hands every event to a visitor with its strings looked up again, or
+ * renders the whole log as the text a TextLogBackend would have written.
+ */
+public class BinaryLogReader {
+
+    /**
+     * Receives the events of a binary log
+     */
+    @FunctionalInterface
+    public interface EventVisitor {
+        /**
+         * Called for every event, in the order they were logged
+         * @param epochMillis long wall clock time of the event
+         * @param nanoTime long System.nanoTime() of the event
+         * @param entity Reporting component identifier
+         * @param code Unique identifier for the event type
+         * @param data Metadata associated with the event, as it was logged
+         */
+        void event(long epochMillis, long nanoTime, String entity, String code, String[] data);
+    }
+
+    private BinaryLogReader() {}
+
+    /**
+     * Reads every event of a binary log
+     * @param base Path the segment files are named after
+     * @param visitor EventVisitor given every event
+     * @return int number of events read
+     * @throws IOException if a segment cannot be read or is not a log segment
+     */
+    public static int read(Path base, EventVisitor visitor) throws IOException {
+        Map<Integer, String> strings = new HashMap<>();
+        int events = 0;
+        for (int index = 0; ; index++) {
+            Path path = BinaryLogBackend.segmentPath(base, index);
+            if (!Files.exists(path)) return events;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                events += readSegment(path, segment, strings, visitor);
+            }
+        }
+    }
+
+    private static int readSegment(Path path, ByteBuffer segment, Map<Integer, String> strings,
+                                   EventVisitor visitor) throws IOException {
+        if (segment.limit() < BinaryLogBackend.HEADER_LENGTH || segment.getInt() != BinaryLogBackend.MAGIC
+                || segment.getInt() != BinaryLogBackend.VERSION) {
+            throw new IOException("Not a log segment: " + path);
+        }
+        long anchorMillis = segment.getLong();
+        long anchorNanos = segment.getLong();
+
+        int events = 0;
+        while (segment.hasRemaining()) {
+            byte type = segment.get();
+            if (type == BinaryLogBackend.DEFINE) {
+                int id = segment.getInt();
+                byte[] bytes = new byte[segment.getShort() & 0xFFFF];
+                segment.get(bytes);
+                strings.put(id, new String(bytes, StandardCharsets.UTF_8));
+            } else if (type == BinaryLogBackend.EVENT) {
+                long nanoTime = segment.getLong();
+                String entity = strings.get(segment.getInt());
+                String code = strings.get(segment.getInt());
+                String[] data = new String[segment.get() & 0xFF];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = field(strings, segment);
+                }
+                long epochMillis = anchorMillis + Math.floorDiv(nanoTime - anchorNanos, 1_000_000L);
+                visitor.event(epochMillis, nanoTime, entity, code, data);
+                events++;
+            } else {
+                break;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Reads one field of an event and writes it as text
+     * @param strings Map of the strings defined so far
+     * @param segment ByteBuffer positioned at the field
+     * @return String of the field, "Key: value" for a field with a key
+     */
+    private static String field(Map<Integer, String> strings, ByteBuffer segment) {
+        int key = segment.getInt();
+        String text = switch (segment.get()) {
+            case BinaryLogBackend.KIND_LONG -> Long.toString(segment.getLong());
+            case BinaryLogBackend.KIND_DOUBLE -> Double.toString(Double.longBitsToDouble(segment.getLong()));
+            case BinaryLogBackend.KIND_FIXED -> {
+                int decimals = segment.get();
+                yield LogRecord.formatDouble(Double.longBitsToDouble(segment.getLong()), decimals);
+            }
+            case BinaryLogBackend.KIND_POINT -> LogRecord.formatPoint(Double.longBitsToDouble(segment.getLong()),
+                    Double.longBitsToDouble(segment.getLong()));
+            default -> strings.get((int) segment.getLong());
+        };
+        return key == -1 ? text : strings.get(key) + ": " + text;
+    }
+
+    /**
+     * Renders a binary log as text, in the format of a TextLogBackend
+     * @param base Path the segment files are named after
+     * @param textFile Path of the text file to write, replaced if it exists
+     * @return int number of events rendered
+     * @throws IOException if the log cannot be read or the text written
+     */
+    public static int render(Path base, Path textFile) throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        try (BufferedWriter out = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+            IOException[] failure = new IOException[1];
+            int events = read(base, (epochMillis, nanoTime, entity, code, data) -> {
+                if (failure[0] != null) return;
+                try {
+                    TextLogBackend.format(out, LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone),
+                            entity, code, data);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+            return events;
+        }
+    }
+}
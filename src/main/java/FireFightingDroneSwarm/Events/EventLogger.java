@@ -1,48 +1,75 @@
 package FireFightingDroneSwarm.Events;
 
-import java.io.*;
-import java.nio.file.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
 import java.util.concurrent.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class collects events from any thread and writes them to a
+ * LogBackend from one flusher thread. Events wait in a bounded ring of
+ * preallocated slots, so logging through event() or the typed Log()
+ * overloads allocates nothing and a slow backend cannot grow the heap.
+ * Once the ring is three quarters full the flusher is woken early and the
+ * LogOverflowPolicy decides which events are kept.
+ */
 public class EventLogger {
-    private class LogEvent {
-        final String entity;
-        final String code;
-        final String[] data;
-
-        LogEvent(String entity, String code, String... data) {
-            this.entity = entity;
-            this.code = code;
-            this.data = data;
-        }
 
-        String format() {
-            String timestamp = LocalDateTime.now().format(FORMATTER);
-            StringBuilder sb = new StringBuilder();
-            sb.append("[").append(timestamp).append("] [").append(entity).append("] [").append(code).append("]");
-            if (data != null && data.length > 0) {
-                for (String d : data) {
-                    sb.append(" [").append(d).append("]");
-                }
-            }
-            return sb.toString();
-        }
-    }
-
-    private final ConcurrentLinkedQueue<LogEvent> queue = new ConcurrentLinkedQueue<>();
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    public static final int DEFAULT_CAPACITY = 4096;
+    // how long a caller waits before trying a full ring again
+    private static final long FULL_WAIT_NANOS = 100_000;
+
+    // wall clock time and System.nanoTime() read once, together; an event's
+    // nanoTime, taken when Log() is called, is turned into wall clock time against them
+    static final long ANCHOR_MILLIS = System.currentTimeMillis();
+    static final long ANCHOR_NANOS = System.nanoTime();
+
+    private final LogRing ring;
+    private final int highWater;
+    private final ThreadLocal<LogRecord> staged = ThreadLocal.withInitial(() -> new LogRecord(this));
+    // the EVENTS_DROPPED report, only used by the flusher
+    private final LogRecord dropReport = new LogRecord(null);
+    private volatile LogOverflowPolicy overflowPolicy = LogOverflowPolicy.BLOCK;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sampled = new AtomicLong();
+    private long droppedReported;
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final Runnable drain = () -> {
+        drainRequested.set(false);
+        flush();
+    };
+    private volatile boolean stopped;
     private final ScheduledExecutorService scheduler;
-    private final String fileName = "drone_logs.txt";
-
-    private static final Pattern LOG_LINE_PATTERN = Pattern.compile("\\[(.*?)\\] \\[(.*?)\\] \\[(.*?)\\]");
+    private LogBackend backend;
+    private final MetricsEngine metrics = new MetricsEngine();
 
     public EventLogger(long periodMs) {
+        this(periodMs, new TextLogBackend("drone_logs.txt"));
+    }
+
+    /**
+     * Constructor for a logger writing to the given backend
+     * @param periodMs long milliseconds between flushes
+     * @param backend LogBackend the events are written to
+     */
+    public EventLogger(long periodMs, LogBackend backend) {
+        this(periodMs, backend, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for a logger writing to the given backend
+     * @param periodMs long milliseconds between flushes
+     * @param backend LogBackend the events are written to
+     * @param capacity int number of events the ring holds, rounded up to a power of two
+     */
+    public EventLogger(long periodMs, LogBackend backend, int capacity) {
+        this.backend = backend;
+        this.ring = new LogRing(capacity);
+        this.highWater = ring.capacity() - ring.capacity() / 4;
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "log-flusher-daemon");
             t.setDaemon(true);
@@ -53,97 +80,172 @@ public class EventLogger {
     }
 
     public void Log(String entity, String eventCode, String... data) {
-        queue.add(new LogEvent(entity, eventCode, data));
-    }
-
-    public synchronized void flush() {
-        if (queue.isEmpty()) return;
-        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName, true))) {
-            LogEvent e;
-            while ((e = queue.poll()) != null) {
-                writer.println(e.format());
+        LogRecord record = event(LogPriority.NORMAL, entity, eventCode);
+        if (data != null) {
+            for (String d : data) {
+                record.add(d);
             }
-        } catch (IOException exception) {
-            System.err.println("Logging error: " + exception.getMessage());
         }
+        record.log();
     }
 
-    public void shutdown() {
-        scheduler.shutdown();
-        flush();
+    /**
+     * Logs an event with one whole number field, without allocating
+     * @param entity Reporting component identifier
+     * @param eventCode Unique identifier for the event type
+     * @param key String key of the field
+     * @param value long value of the field
+     */
+    public void Log(String entity, String eventCode, String key, long value) {
+        event(LogPriority.NORMAL, entity, eventCode).add(key, value).log();
     }
 
-    public void performSystemAnalysis() {
-        flush();
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(fileName));
-            Map<String, Long> fireStartTimes = new HashMap<>();
-            Map<String, Long> droneMoveStart = new HashMap<>();
-
-            long totalFlightTime = 0;
-            long totalResponseTime = 0;
-            int extinguishedCount = 0;
-            long firstTimestamp = -1;
-            long lastTimestamp = -1;
-
-            for (String line : lines) {
-                Matcher m = LOG_LINE_PATTERN.matcher(line);
-                if (!m.find()) continue;
-
-                long time = LocalDateTime.parse(m.group(1), FORMATTER)
-                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-
-                String entity = m.group(2).trim();
-                String code = m.group(3).trim();
-
-                if (firstTimestamp == -1) firstTimestamp = time;
-                lastTimestamp = time;
-
-
-                if (code.equals("FIRE_SENT")) {
-                    String id = parseDataField(line, "FireID");
-                    if (id != null) fireStartTimes.put(id, time);
-                }
-                else if (code.equals("FIRE_CONFIRMED") || code.equals("FIRE_EXTINGUISHED")) {
-                    String id = parseDataField(line, "FireID");
-                    Long start = fireStartTimes.remove(id);
-                    if (start != null) {
-                        totalResponseTime += (time - start);
-                        extinguishedCount++;
-                    }
-                }
-
-                if (code.equals("MOVEMENT_START")) {
-                    droneMoveStart.put(entity, time);
-                }
-                else if (code.equals("MOVEMENT_ARRIVED") || code.equals("RETURN_BASE_ARRIVED")) {
-                    Long start = droneMoveStart.remove(entity);
-                    if (start != null) {
-                        totalFlightTime += (time - start);
-                    }
-                }
+    /**
+     * Logs an event with two whole number fields, without allocating
+     * @param entity Reporting component identifier
+     * @param eventCode Unique identifier for the event type
+     * @param key1 String key of the first field
+     * @param value1 long value of the first field
+     * @param key2 String key of the second field
+     * @param value2 long value of the second field
+     */
+    public void Log(String entity, String eventCode, String key1, long value1, String key2, long value2) {
+        event(LogPriority.NORMAL, entity, eventCode).add(key1, value1).add(key2, value2).log();
+    }
+
+    /**
+     * Starts an event in the calling thread's record, timed now. Add its
+     * fields and call log() on it.
+     * @param priority LogPriority of the event
+     * @param entity Reporting component identifier
+     * @param eventCode Unique identifier for the event type
+     * @return LogRecord of the calling thread
+     */
+    public LogRecord event(LogPriority priority, String entity, String eventCode) {
+        return staged.get().start(priority, entity, eventCode);
+    }
+
+    /**
+     * Copies a finished event into the ring, applying the overflow policy
+     * once the ring is three quarters full
+     * @param record LogRecord holding the event
+     */
+    void publish(LogRecord record) {
+        if (ring.size() >= highWater) {
+            requestDrain();
+            LogOverflowPolicy policy = overflowPolicy;
+            if ((policy == LogOverflowPolicy.DROP_LOW_PRIORITY && record.priority == LogPriority.LOW)
+                    || (policy == LogOverflowPolicy.SAMPLE
+                        && sampled.getAndIncrement() % LogOverflowPolicy.SAMPLE_RATE != 0)) {
+                dropped.increment();
+                return;
+            }
+        }
+        while (!ring.offer(record)) {
+            if (stopped) {
+                // nothing drains the ring any more
+                dropped.increment();
+                return;
             }
-            displayReport(firstTimestamp, lastTimestamp, totalResponseTime, extinguishedCount, totalFlightTime);
-        } catch (IOException e) {
-            System.err.println("Analysis failed: " + e.getMessage());
+            requestDrain();
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
         }
     }
 
-    private String parseDataField(String line, String key) {
-        Pattern p = Pattern.compile("\\[" + key + ":\\s*(.*?)\\]");
-        Matcher m = p.matcher(line);
-        return m.find() ? m.group(1).trim() : null;
+    /**
+     * Wakes the flusher thread ahead of its period, once per drain
+     */
+    private void requestDrain() {
+        if (stopped || !drainRequested.compareAndSet(false, true)) return;
+        try {
+            scheduler.execute(drain);
+        } catch (RejectedExecutionException e) {
+            drainRequested.set(false);
+        }
+    }
+
+    /**
+     * Setter for what happens to events when the backend cannot keep up
+     * @param overflowPolicy LogOverflowPolicy to apply
+     */
+    public void setOverflowPolicy(LogOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
     }
 
-    private void displayReport(long start, long end, long resp, int count, long flight) {
-        double totalSec = (end - start) / 1000.0;
-        System.out.println("\n========== SIMULATION METRICS ==========");
-        System.out.println("Total Simulation Time: " + String.format("%.2f", totalSec) + "s");
-        System.out.println("Fires Extinguished: " + count);
-        if (count > 0) {
-            System.out.println("Avg Response Time: " + String.format("%.2f", (resp / (double)count) / 1000.0) + "s");
+    /**
+     * Getter for the number of events dropped by the overflow policy or
+     * logged once the ring was full after shutdown()
+     * @return long number of events dropped
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public synchronized void flush() {
+        long lost = dropped.sum();
+        if (ring.peek() == null && lost == droppedReported) return;
+        LogRecord e;
+        while ((e = ring.peek()) != null) {
+            metrics.accept(e);
+            backend.append(e);
+            ring.release();
         }
-        System.out.println("Cumulative Drone Flight Time: " + (flight / 1000.0) + "s");
-        System.out.println("========================================\n");
+        if (lost > droppedReported) {
+            backend.append(dropReport.start(LogPriority.NORMAL, "LOGGER", "EVENTS_DROPPED")
+                    .add("Count", lost - droppedReported));
+            dropReport.clear();
+            droppedReported = lost;
+        }
+        backend.flush();
+    }
+
+    /**
+     * Switches to another backend, events queued so far still go to the old one
+     * @param backend LogBackend the events are written to from now on
+     */
+    public synchronized void setBackend(LogBackend backend) {
+        flush();
+        this.backend.close();
+        this.backend = backend;
+    }
+
+    /**
+     * Getter for the backend the events are written to
+     * @return LogBackend in use
+     */
+    public synchronized LogBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Converts the System.nanoTime() of an event to wall clock time
+     * @param nanoTime long System.nanoTime() taken when the event was logged
+     * @return LocalDateTime of the event in the system time zone
+     */
+    static LocalDateTime wallTime(long nanoTime) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(ANCHOR_MILLIS).plusNanos(nanoTime - ANCHOR_NANOS),
+                ZoneId.systemDefault());
+    }
+
+    /**
+     * Getter for the metrics of everything logged, up to the last flush
+     * @return MetricsEngine fed by this logger
+     */
+    public MetricsEngine getMetrics() {
+        return metrics;
+    }
+
+    public void shutdown() {
+        stopped = true;
+        scheduler.shutdown();
+        flush();
+    }
+
+    /**
+     * Prints the performance metrics of everything logged so far
+     */
+    public void performSystemAnalysis() {
+        flush();
+        System.out.print(metrics);
     }
-}
\ No newline at end of file
+}
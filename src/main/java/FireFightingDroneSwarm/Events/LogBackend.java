@@ -0,0 +1,26 @@
+package FireFightingDroneSwarm.Events;
+
+/**
+ * This interface is where the EventLogger writes its events to. The
+ * logger's flusher thread is the only caller, so a backend needs no
+ * locking of its own. Events are handed over as the typed LogRecord they
+ * were logged in, a backend that writes text renders them itself.
+ */
+public interface LogBackend {
+
+    /**
+     * Writes one event
+     * @param event LogRecord of the event, only valid until append returns
+     */
+    void append(LogRecord event);
+
+    /**
+     * Called after every batch of events, makes them visible to readers
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the backend, events appended after are dropped
+     */
+    void close();
+}
@@ -0,0 +1,18 @@
+package FireFightingDroneSwarm.Events;
+
+/**
+ * Enum for what the EventLogger does with an event once its ring is three
+ * quarters full, because the backend cannot keep up.
+ * BLOCK keeps every event, a caller waits while the ring is full.
+ * DROP_LOW_PRIORITY drops LOW events, NORMAL ones wait while the ring is full.
+ * SAMPLE keeps one event in SAMPLE_RATE whatever its priority and drops the
+ * rest, the kept ones wait while the ring is full.
+ * Dropped events are counted and reported in the log as EVENTS_DROPPED.
+ */
+public enum LogOverflowPolicy {
+    BLOCK,
+    DROP_LOW_PRIORITY,
+    SAMPLE;
+
+    public static final int SAMPLE_RATE = 10;
+}
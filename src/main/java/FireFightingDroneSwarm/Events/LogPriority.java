@@ -0,0 +1,11 @@
+package FireFightingDroneSwarm.Events;
+
+/**
+ * Enum for how much an event matters when the EventLogger is overloaded.
+ * LOW events are the frequent ones that can be lost without losing track
+ * of the run, such as a drone's periodic status. Everything else is NORMAL.
+ */
+public enum LogPriority {
+    LOW,
+    NORMAL
+}
@@ -0,0 +1,319 @@
+package FireFightingDroneSwarm.Events;
+
+import java.util.Arrays;
+
+/**
+ * This class is one event with typed fields. A caller gets the record of
+ * its own thread from EventLogger.event(), adds fields and calls log(),
+ * which copies it into a preallocated slot of the logger's ring, so
+ * logging allocates nothing: the flusher thread hands the slot itself to
+ * the LogBackend and the MetricsEngine, so numbers stay numbers and are
+ * only turned into "Key: value" text by a backend writing text. Object
+ * values are turned into text on the flusher as well, so they must not
+ * change once logged, a String or an enum constant for example.
+ *
+ * A record is used by one thread at a time and is reused by the next
+ * event() call on that thread, it must not be kept.
+ */
+public final class LogRecord {
+
+    static final int MAX_FIELDS = 12;
+    static final byte TEXT = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte OBJECT = 3;
+    static final byte POINT = 4;
+
+    // the logger a staged record is logged to, null for a slot of the ring
+    private final EventLogger logger;
+
+    LogPriority priority;
+    long nanoTime;
+    String entity;
+    String code;
+    private int fields;
+    private final String[] keys = new String[MAX_FIELDS];
+    private final byte[] kinds = new byte[MAX_FIELDS];
+    private final long[] first = new long[MAX_FIELDS];
+    private final long[] second = new long[MAX_FIELDS];
+    private final Object[] objects = new Object[MAX_FIELDS];
+
+    LogRecord(EventLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Starts a new event in this record, the time of the event is now
+     * @param priority LogPriority of the event
+     * @param entity Reporting component identifier
+     * @param code Unique identifier for the event type
+     * @return this record
+     */
+    LogRecord start(LogPriority priority, String entity, String code) {
+        clear();
+        this.priority = priority;
+        this.nanoTime = System.nanoTime();
+        this.entity = entity;
+        this.code = code;
+        return this;
+    }
+
+    /**
+     * Adds a field written as it is, without a key
+     * @param text String of the field
+     * @return this record
+     */
+    public LogRecord add(String text) {
+        return field(null, TEXT, 0, 0, text);
+    }
+
+    /**
+     * Adds a whole number field, written "key: value"
+     * @param key String key of the field
+     * @param value long value
+     * @return this record
+     */
+    public LogRecord add(String key, long value) {
+        return field(key, LONG, value, 0, null);
+    }
+
+    /**
+     * Adds a decimal field, written "key: value" as Double.toString does
+     * @param key String key of the field
+     * @param value double value
+     * @return this record
+     */
+    public LogRecord add(String key, double value) {
+        return field(key, DOUBLE, Double.doubleToRawLongBits(value), -1, null);
+    }
+
+    /**
+     * Adds a decimal field written with a fixed number of decimals
+     * @param key String key of the field
+     * @param value double value
+     * @param decimals int number of digits after the point
+     * @return this record
+     */
+    public LogRecord add(String key, double value, int decimals) {
+        return field(key, DOUBLE, Double.doubleToRawLongBits(value), decimals, null);
+    }
+
+    /**
+     * Adds a field whose value is written with toString()
+     * @param key String key of the field
+     * @param value immutable Object value, such as a String or an enum constant
+     * @return this record
+     */
+    public LogRecord add(String key, Object value) {
+        return field(key, OBJECT, 0, 0, value);
+    }
+
+    /**
+     * Adds a coordinate field, written "key: (x,y)"
+     * @param key String key of the field
+     * @param x double x coordinate
+     * @param y double y coordinate
+     * @return this record
+     */
+    public LogRecord addPoint(String key, double x, double y) {
+        return field(key, POINT, Double.doubleToRawLongBits(x), Double.doubleToRawLongBits(y), null);
+    }
+
+    private LogRecord field(String key, byte kind, long firstValue, long secondValue, Object object) {
+        // fields past MAX_FIELDS are left out
+        if (fields < MAX_FIELDS) {
+            keys[fields] = key;
+            kinds[fields] = kind;
+            first[fields] = firstValue;
+            second[fields] = secondValue;
+            objects[fields] = object;
+            fields++;
+        }
+        return this;
+    }
+
+    /**
+     * Hands the event to the logger, the record can be reused after
+     */
+    public void log() {
+        logger.publish(this);
+    }
+
+    /**
+     * Copies an event into this record
+     * @param other LogRecord holding the event
+     */
+    void copyFrom(LogRecord other) {
+        priority = other.priority;
+        nanoTime = other.nanoTime;
+        entity = other.entity;
+        code = other.code;
+        fields = other.fields;
+        System.arraycopy(other.keys, 0, keys, 0, fields);
+        System.arraycopy(other.kinds, 0, kinds, 0, fields);
+        System.arraycopy(other.first, 0, first, 0, fields);
+        System.arraycopy(other.second, 0, second, 0, fields);
+        System.arraycopy(other.objects, 0, objects, 0, fields);
+    }
+
+    /**
+     * Drops the references of the event held, so they can be collected
+     */
+    void clear() {
+        entity = null;
+        code = null;
+        Arrays.fill(keys, 0, fields, null);
+        Arrays.fill(objects, 0, fields, null);
+        fields = 0;
+    }
+
+    /**
+     * Getter for the number of fields
+     * @return int number of fields added
+     */
+    int fieldCount() {
+        return fields;
+    }
+
+    /**
+     * Getter for the key of a field
+     * @param i int index of the field
+     * @return String key, or null for a field written as it is
+     */
+    String key(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Getter for what a field holds, TEXT, LONG, DOUBLE, OBJECT or POINT
+     * @param i int index of the field
+     * @return byte kind of the field
+     */
+    byte kind(int i) {
+        return kinds[i];
+    }
+
+    /**
+     * Getter for the first value of a field: the number of a LONG, the raw
+     * bits of a DOUBLE or the raw bits of the x coordinate of a POINT
+     * @param i int index of the field
+     * @return long first value
+     */
+    long first(int i) {
+        return first[i];
+    }
+
+    /**
+     * Getter for the second value of a field: the decimals of a DOUBLE,
+     * -1 for as many as Double.toString gives, or the raw bits of the y
+     * coordinate of a POINT
+     * @param i int index of the field
+     * @return long second value
+     */
+    long second(int i) {
+        return second[i];
+    }
+
+    /**
+     * Getter for the text of a TEXT field or the value of an OBJECT field
+     * @param i int index of the field
+     * @return Object of the field
+     */
+    Object object(int i) {
+        return objects[i];
+    }
+
+    /**
+     * Finds the value of a field by its key, a TEXT field of the form
+     * "Key: value" counts as well
+     * @param key String key of the field
+     * @return String value as text, or null if no field has the key
+     */
+    String text(String key) {
+        for (int i = 0; i < fields; i++) {
+            if (key.equals(keys[i])) return value(i);
+        }
+        for (int i = 0; i < fields; i++) {
+            if (kinds[i] == TEXT && objects[i] instanceof String text && text.length() > key.length() + 1
+                    && text.startsWith(key) && text.charAt(key.length()) == ':') {
+                return text.substring(key.length() + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the value of a whole number field by its key, a TEXT field of
+     * the form "Key: value" counts as well
+     * @param key String key of the field
+     * @param missing long returned if no field has the key or it is not a whole number
+     * @return long value of the field
+     */
+    long number(String key, long missing) {
+        for (int i = 0; i < fields; i++) {
+            if (key.equals(keys[i]) && kinds[i] == LONG) return first[i];
+        }
+        String text = text(key);
+        if (text == null) return missing;
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return missing;
+        }
+    }
+
+    /**
+     * Writes the value of a field as text
+     * @param i int index of the field
+     * @return String value, the whole field for one without a key
+     */
+    String value(int i) {
+        return switch (kinds[i]) {
+            case LONG -> Long.toString(first[i]);
+            case DOUBLE -> formatDouble(Double.longBitsToDouble(first[i]), second[i]);
+            case POINT -> formatPoint(Double.longBitsToDouble(first[i]), Double.longBitsToDouble(second[i]));
+            default -> String.valueOf(objects[i]);
+        };
+    }
+
+    /**
+     * Writes a decimal value as a DOUBLE field does
+     * @param value double value
+     * @param decimals long number of digits after the point, -1 for Double.toString
+     * @return String of the value
+     */
+    static String formatDouble(double value, long decimals) {
+        return decimals < 0 ? Double.toString(value) : String.format("%." + decimals + "f", value);
+    }
+
+    /**
+     * Writes a coordinate as a POINT field does, "(x,y)"
+     * @param x double x coordinate
+     * @param y double y coordinate
+     * @return String of the coordinate
+     */
+    static String formatPoint(double x, double y) {
+        return "(" + x + "," + y + ")";
+    }
+
+    /**
+     * Writes a field as text, "Key: value" for a field with a key
+     * @param i int index of the field
+     * @return String of the field
+     */
+    String field(int i) {
+        return keys[i] == null ? value(i) : keys[i] + ": " + value(i);
+    }
+
+    /**
+     * Writes every field as text, "Key: value" for a field with a key
+     * @return String[] of the fields
+     */
+    String[] render() {
+        String[] data = new String[fields];
+        for (int i = 0; i < fields; i++) {
+            data[i] = field(i);
+        }
+        return data;
+    }
+}
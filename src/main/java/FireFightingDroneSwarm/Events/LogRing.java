@@ -0,0 +1,107 @@
+package FireFightingDroneSwarm.Events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a bounded, lock-free, multi-producer single-consumer ring
+ * of preallocated LogRecord slots. It works like the Scheduler's
+ * IngressRing, except that an event is copied into the slot instead of
+ * the slot holding a reference to it, so a full ring never grows and an
+ * offer allocates nothing.
+ *
+ * Each slot carries a sequence number that says whether it is free for
+ * the producer claiming position p (sequence == p) or holds an event
+ * ready for the consumer at position p (sequence == p + 1).
+ */
+class LogRing {
+
+    private final LogRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Constructor for a ring
+     * @param capacity int minimum number of events, rounded up to a power of two
+     */
+    LogRing(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        this.slots = new LogRecord[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new LogRecord(null);
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Copies an event into a free slot without blocking, safe to call from any thread
+     * @param record LogRecord holding the event
+     * @return true if added, false if the ring is full
+     */
+    boolean offer(LogRecord record) {
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the consumer has not freed this slot yet
+            } else {
+                pos = tail.get(); // another producer took this position
+            }
+        }
+
+        slots[index].copyFrom(record);
+        sequences.set(index, pos + 1); // publish to the consumer
+        return true;
+    }
+
+    /**
+     * Looks at the oldest event, must only be called by the consumer
+     * @return the LogRecord slot of the oldest event, or null if the ring is empty
+     */
+    LogRecord peek() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        return sequences.get(index) == pos + 1 ? slots[index] : null;
+    }
+
+    /**
+     * Frees the slot of the oldest event, must only be called by the
+     * consumer after peek() returned it
+     */
+    void release() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        slots[index].clear();
+        sequences.set(index, pos + mask + 1); // free the slot for the next lap
+        head = pos + 1;
+    }
+
+    /**
+     * Getter for the capacity of the ring
+     * @return int number of slots
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate number of events in the ring, exact when no offer is in progress
+     * @return int number of events
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
@@ -0,0 +1,336 @@
+package FireFightingDroneSwarm.Events;
+
+import FireFightingDroneSwarm.Metrics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class keeps the performance metrics of a run up to date as events
+ * are logged, instead of parsing the log file once the run is over:
+ * response time, from a fire being sent or assigned to the first drone
+ * arriving at it, completion time, from the same start to the fire being
+ * put out, by the last drone on it for a fire split across drones, or to
+ * the fire it was merged into being put out,
+ * and how long every drone was active. Every figure can be read at any
+ * time during the run.
+ *
+ * Besides averages and maxima it keeps latency histograms, see
+ * getLatencies(), for the tail: "dispatch" from a fire being sent to its
+ * first assignment, "arrival" and "extinguish" from the same start as
+ * response and completion time, each also by ".severity.X" and ".zone.N",
+ * and "droneIdle" for how long drones waited between tasks.
+ *
+ * A fire is followed until it is put out or the scheduler drops it. At
+ * most MAX_OPEN_FIRES are followed at once, past that the oldest is given
+ * up on, so fires that are never put out cannot grow the engine.
+ */
+public class MetricsEngine {
+
+    private static final String DRONE_PREFIX = "DRONE_";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    static final int MAX_OPEN_FIRES = 1 << 16;
+
+    /**
+     * What is known of a fire that is not put out yet
+     */
+    private static class Fire {
+        final long start;
+        long sent = -1;
+        boolean dispatched;
+        boolean arrived;
+        boolean split;
+        String severity = UNKNOWN;
+        Integer zone;
+
+        Fire(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Picks up the severity and zone of the fire from an event about it
+         * @param event LogRecord of the event
+         */
+        void describe(LogRecord event) {
+            String severity = event.text("Severity");
+            if (severity != null) this.severity = severity;
+            long zone = event.number("Zone", -1);
+            if (zone != -1) this.zone = (int) zone;
+        }
+    }
+
+    /**
+     * Histograms of one latency by severity and by zone, the overall
+     * histogram is the merge of the severities
+     */
+    private static class Breakdown {
+        final Map<String, LatencyHistogram> bySeverity = new TreeMap<>();
+        final Map<Integer, LatencyHistogram> byZone = new TreeMap<>();
+
+        void record(long nanos, Fire fire) {
+            bySeverity.computeIfAbsent(fire.severity, key -> new LatencyHistogram()).record(nanos);
+            if (fire.zone != null) {
+                byZone.computeIfAbsent(fire.zone, key -> new LatencyHistogram()).record(nanos);
+            }
+        }
+
+        void snapshot(String name, Map<String, LatencyHistogram.Snapshot> into) {
+            LatencyHistogram.Snapshot all = new LatencyHistogram().snapshot();
+            for (Map.Entry<String, LatencyHistogram> entry : bySeverity.entrySet()) {
+                LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+                into.put(name + ".severity." + entry.getKey(), snapshot);
+                all = all.merge(snapshot);
+            }
+            into.put(name, all);
+            byZone.forEach((zone, histogram) -> into.put(name + ".zone." + zone, histogram.snapshot()));
+        }
+    }
+
+    // in the order the fires were first logged, the eldest is the first given up on
+    private final Map<Integer, Fire> fires = new LinkedHashMap<>();
+    private final Map<String, Long> droneWorkStart = new HashMap<>();
+    private final Map<String, Long> droneIdleSince = new HashMap<>();
+    private final Map<String, Long> droneActiveNanos = new HashMap<>();
+    private final Breakdown dispatchTimes = new Breakdown();
+    private final Breakdown arrivalTimes = new Breakdown();
+    private final Breakdown extinguishTimes = new Breakdown();
+    private final LatencyHistogram droneIdleTimes = new LatencyHistogram();
+
+    private long responseCount;
+    private long responseTotal;
+    private long responseMax;
+    private long completionCount;
+    private long completionTotal;
+    private long completionMax;
+    private long abandoned;
+    private long firstEvent = -1;
+    private long lastEvent = -1;
+
+    /**
+     * Updates the metrics with one event, reading its typed fields
+     * @param event LogRecord of the event, timed when it was logged
+     */
+    synchronized void accept(LogRecord event) {
+        long nanoTime = event.nanoTime;
+        if (firstEvent == -1) firstEvent = nanoTime;
+        lastEvent = Math.max(lastEvent, nanoTime);
+
+        long fireId = event.number("FireID", -1);
+        if (fireId != -1) {
+            trackFire((int) fireId, nanoTime, event.code, event);
+        }
+
+        if (event.entity != null && event.entity.startsWith(DRONE_PREFIX)) {
+            trackUtilization(event.entity, nanoTime, event.code, event);
+        }
+    }
+
+    /**
+     * Follows a fire from being sent or assigned, whichever is logged
+     * first, to the first drone arriving at it and to it being put out
+     */
+    private void trackFire(int fireId, long nanoTime, String code, LogRecord event) {
+        switch (code) {
+            case "FIRE_SENT", "ASSIGN_TASK" -> {
+                Fire fire = open(fireId, nanoTime);
+                fire.describe(event);
+                if (code.equals("FIRE_SENT")) {
+                    if (fire.sent == -1) fire.sent = nanoTime;
+                } else if (!fire.dispatched) {
+                    fire.dispatched = true;
+                    // without the report the assignment is the start, there is nothing to measure
+                    if (fire.sent != -1) dispatchTimes.record(nanoTime - fire.sent, fire);
+                }
+            }
+            case "TASK_START" -> {
+                Fire fire = fires.get(fireId);
+                if (fire != null) fire.describe(event);
+            }
+            case "FIRE_SPLIT" -> open(fireId, nanoTime).split = true;
+            case "FIRE_DROPPED" -> {
+                // shed or rejected, nothing will put it out
+                if (fires.remove(fireId) != null) abandoned++;
+            }
+            case "MOVEMENT_ARRIVED" -> {
+                Fire fire = fires.get(fireId);
+                // the first drone there is the response, later shares of a split fire are not
+                if (fire != null && !fire.arrived) {
+                    fire.arrived = true;
+                    long response = nanoTime - fire.start;
+                    responseCount++;
+                    responseTotal += response;
+                    responseMax = Math.max(responseMax, response);
+                    arrivalTimes.record(response, fire);
+                }
+            }
+            case "EXTINGUISHING_END", "SPLIT_FIRE_DONE", "COALESCED_FIRE_DONE" -> {
+                Fire fire = fires.get(fireId);
+                // a split fire is out once the scheduler has its last share back, not at the first one
+                if (fire == null || (fire.split && code.equals("EXTINGUISHING_END"))) return;
+                fires.remove(fireId);
+                long completion = nanoTime - fire.start;
+                completionCount++;
+                completionTotal += completion;
+                completionMax = Math.max(completionMax, completion);
+                extinguishTimes.record(completion, fire);
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Helper method to get a fire, starting to follow it if it is new
+     * and giving up on the oldest fire once MAX_OPEN_FIRES are followed
+     * @param fireId int fire ID
+     * @param nanoTime long time of the event about the fire
+     * @return Fire followed under the id
+     */
+    private Fire open(int fireId, long nanoTime) {
+        Fire fire = fires.get(fireId);
+        if (fire != null) return fire;
+        if (fires.size() >= MAX_OPEN_FIRES) {
+            Iterator<Fire> eldest = fires.values().iterator();
+            eldest.next();
+            eldest.remove();
+            abandoned++;
+        }
+        fire = new Fire(nanoTime);
+        fires.put(fireId, fire);
+        return fire;
+    }
+
+    /**
+     * Opens a drone's active period when it sets off on a task and closes
+     * it once the drone is back at base or idle, the time in between is
+     * idle time
+     */
+    private void trackUtilization(String droneId, long nanoTime, String code, LogRecord event) {
+        if (code.equals("TASK_START") || code.equals("EN_ROUTE") || code.equals("MOVEMENT_START")
+                || "EN_ROUTE".equals(event.text("To"))) {
+            if (droneWorkStart.putIfAbsent(droneId, nanoTime) == null) {
+                Long idleSince = droneIdleSince.remove(droneId);
+                if (idleSince != null) droneIdleTimes.record(nanoTime - idleSince);
+            }
+        } else if (code.equals("BASE_REACHED") || "IDLE".equals(event.text("To"))
+                || "IDLE".equals(event.text("Status"))) {
+            droneIdleSince.putIfAbsent(droneId, nanoTime);
+            Long start = droneWorkStart.remove(droneId);
+            if (start != null) {
+                droneActiveNanos.merge(droneId, nanoTime - start, Long::sum);
+            }
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    public synchronized long getResponseCount() {
+        return responseCount;
+    }
+
+    public synchronized double getAverageResponseTime() {
+        return responseCount == 0 ? 0 : seconds(responseTotal) / responseCount;
+    }
+
+    public synchronized double getMaxResponseTime() {
+        return seconds(responseMax);
+    }
+
+    public synchronized long getCompletionCount() {
+        return completionCount;
+    }
+
+    public synchronized double getAverageCompletionTime() {
+        return completionCount == 0 ? 0 : seconds(completionTotal) / completionCount;
+    }
+
+    public synchronized double getMaxCompletionTime() {
+        return seconds(completionMax);
+    }
+
+    /**
+     * Getter for the number of fires no longer followed without being put
+     * out, dropped by the scheduler or given up on past MAX_OPEN_FIRES
+     * @return long number of fires
+     */
+    public synchronized long getAbandonedCount() {
+        return abandoned;
+    }
+
+    /**
+     * Getter for the number of fires followed that are not put out yet
+     * @return int number of fires
+     */
+    synchronized int getOpenFireCount() {
+        return fires.size();
+    }
+
+    /**
+     * Getter for the time between the first and the last event
+     * @return double duration in seconds
+     */
+    public synchronized double getDuration() {
+        return firstEvent == -1 ? 0 : seconds(lastEvent - firstEvent);
+    }
+
+    /**
+     * Getter for the time every drone spent on completed active periods
+     * @return Map of drone entity to active seconds, sorted by entity
+     */
+    public synchronized Map<String, Double> getDroneActiveTimes() {
+        Map<String, Double> active = new TreeMap<>();
+        droneActiveNanos.forEach((droneId, nanos) -> active.put(droneId, seconds(nanos)));
+        return Collections.unmodifiableMap(active);
+    }
+
+    /**
+     * Getter for the latency histograms, "dispatch", "arrival",
+     * "extinguish" and "droneIdle", the fire latencies also by
+     * ".severity.X" and ".zone.N"
+     * @return Map of name to histogram snapshot, sorted by name
+     */
+    public synchronized Map<String, LatencyHistogram.Snapshot> getLatencies() {
+        Map<String, LatencyHistogram.Snapshot> latencies = new TreeMap<>();
+        dispatchTimes.snapshot("dispatch", latencies);
+        arrivalTimes.snapshot("arrival", latencies);
+        extinguishTimes.snapshot("extinguish", latencies);
+        latencies.put("droneIdle", droneIdleTimes.snapshot());
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    /**
+     * Returns the metrics as the report printed after a run
+     * @return String with response, completion and utilization figures
+     */
+    @Override
+    public synchronized String toString() {
+        double duration = getDuration();
+        StringBuilder report = new StringBuilder("\n========== PERFORMANCE METRICS ==========\n");
+        report.append(String.format("Average Event Response Time: %.2f sec\n", getAverageResponseTime()));
+        report.append(String.format("Maximum Event Response Time: %.2f sec\n", getMaxResponseTime()));
+        report.append(String.format("Average Event Completion Time: %.2f sec\n", getAverageCompletionTime()));
+        report.append(String.format("Maximum Event Completion Time: %.2f sec\n", getMaxCompletionTime()));
+        report.append("Drone Utilization (Active / Total Simulation Time):\n");
+        getDroneActiveTimes().forEach((id, active) -> {
+            double utilization = duration > 0 ? (active / duration) * 100 : 0;
+            report.append(String.format(" - %s: %.2f%% (%.2f sec active)\n", id, utilization, active));
+        });
+        report.append("Latency Percentiles (sec):          count     p50     p90     p99   p99.9     max\n");
+        getLatencies().forEach((name, latency) -> {
+            report.append(String.format(" - %-30s %7d", name, latency.getCount()));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %7.3f", seconds(latency.percentile(percentile))));
+            }
+            report.append(String.format(" %7.3f\n", seconds(latency.getMax())));
+        });
+        report.append(String.format("\nTotal Simulation Duration: %.2f sec\n", duration));
+        report.append("====================================================\n");
+        return report.toString();
+    }
+}
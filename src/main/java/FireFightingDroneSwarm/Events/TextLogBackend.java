@@ -0,0 +1,99 @@
+package FireFightingDroneSwarm.Events;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * This class writes events as lines of text, the format LogManager
+ * analyses:
+ * [yyyy-MM-dd HH:mm:ss.SSS] [entity] [code] [data]...
+ * The file is opened on the first flush and kept open.
+ */
+public class TextLogBackend implements LogBackend {
+
+    static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final String fileName;
+    private Writer writer;
+    private boolean closed;
+
+    /**
+     * Constructor for a backend appending to a file
+     * @param fileName String path of the log file
+     */
+    public TextLogBackend(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void append(LogRecord event) {
+        if (closed) return;
+        try {
+            if (writer == null) {
+                writer = new BufferedWriter(new FileWriter(fileName, true));
+            }
+            header(writer, EventLogger.wallTime(event.nanoTime), event.entity, event.code);
+            for (int i = 0; i < event.fieldCount(); i++) {
+                writer.append(" [");
+                if (event.key(i) != null) {
+                    writer.append(event.key(i)).append(": ");
+                }
+                writer.append(event.value(i)).append(']');
+            }
+            writer.append(System.lineSeparator());
+        } catch (IOException exception) {
+            System.err.println("Logging error: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException exception) {
+            System.err.println("Logging error: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException exception) {
+            System.err.println("Logging error: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Writes one event as a line of text
+     * @param out Appendable to write to
+     * @param time LocalDateTime of the event
+     * @param entity Reporting component identifier
+     * @param code Unique identifier for the event type
+     * @param data Metadata associated with the event
+     * @throws IOException if the line cannot be written
+     */
+    static void format(Appendable out, LocalDateTime time, String entity, String code, String[] data)
+            throws IOException {
+        header(out, time, entity, code);
+        if (data != null) {
+            for (String d : data) {
+                out.append(" [").append(d).append(']');
+            }
+        }
+        out.append(System.lineSeparator());
+    }
+
+    private static void header(Appendable out, LocalDateTime time, String entity, String code) throws IOException {
+        out.append('[').append(time.format(FORMATTER)).append("] [").append(entity).append("] [")
+                .append(code).append(']');
+    }
+}
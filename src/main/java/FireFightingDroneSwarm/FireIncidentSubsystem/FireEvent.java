@@ -1,4 +1,5 @@
 package FireFightingDroneSwarm.FireIncidentSubsystem;
+import FireFightingDroneSwarm.DroneSubsystem.Drone;
 import FireFightingDroneSwarm.DroneSubsystem.FaultType;
 import FireFightingDroneSwarm.Scheduler.Scheduler;
 import java.time.LocalTime;
@@ -17,6 +18,8 @@ public class FireEvent {
     private FaultType fault;
     private int fireID;
     private boolean preServiced = false;
+    private int requiredWater;
+    private long enqueuedAt = -1;
 
     /**
      * Constructor for a FireEvent object, to represent incoming fire events.
@@ -32,6 +35,7 @@ public class FireEvent {
         this.severity = severity;
         this.fault = fault;
         this.fireID = fireID;
+        this.requiredWater = Drone.calculateWaterUsage(severity);
     }
 
     /**
@@ -91,6 +95,64 @@ public class FireEvent {
         this.preServiced = preServiced;
     }
 
+    /**
+     * Getter for how much water is needed to put this fire out, the full
+     * amount for its severity unless the fire is split across drones
+     * @return int water units needed
+     */
+    public int getRequiredWater() {
+        return requiredWater;
+    }
+
+    /**
+     * Setter for how much water is needed, for a drone's share of a fire
+     * @param requiredWater int water units needed
+     */
+    public void setRequiredWater(int requiredWater) {
+        this.requiredWater = requiredWater;
+    }
+
+    /**
+     * Getter for when the scheduler first queued this fire, kept when the
+     * fire goes back to the queue so it keeps its place in time
+     * @return long clock time in milliseconds, or -1 if never queued
+     */
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    /**
+     * Setter for when the scheduler first queued this fire
+     * @param enqueuedAt long clock time in milliseconds, -1 if never queued
+     */
+    public void setEnqueuedAt(long enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    /**
+     * Merges another report of the same incident into this one. The merged
+     * event keeps this event's fire ID and task type, the earlier of the two
+     * timestamps, the higher severity and the larger water requirement, as
+     * both report the same fire, and this event's enqueue time. An
+     * injected fault is kept from this event, or taken from the other one
+     * if this one has none.
+     * @param duplicate FireEvent reporting the same incident
+     * @return a new FireEvent for the incident, neither event is changed
+     */
+    public FireEvent coalesce(FireEvent duplicate) {
+        LocalTime earliest = timestamp;
+        if (earliest == null || (duplicate.timestamp != null && duplicate.timestamp.isBefore(earliest))) {
+            earliest = duplicate.timestamp;
+        }
+        Severity highest = duplicate.severity.compareTo(severity) > 0 ? duplicate.severity : severity;
+        FaultType kept = fault == FaultType.NONE ? duplicate.fault : fault;
+
+        FireEvent merged = new FireEvent(zoneID, taskType, earliest, highest, kept, fireID);
+        merged.setRequiredWater(Math.max(requiredWater, duplicate.requiredWater));
+        merged.setEnqueuedAt(enqueuedAt);
+        return merged;
+    }
+
     /**
      * Override toString() method to return a representation of this event and its fields
      * @return String representation of this event
@@ -2,15 +2,20 @@ package FireFightingDroneSwarm.FireIncidentSubsystem;
 
 import FireFightingDroneSwarm.Events.EventLogger;
 import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.Protocol.FailoverFrame;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
 import FireFightingDroneSwarm.Scheduler.Scheduler;
 import FireFightingDroneSwarm.UserInterface.ZoneMapController;
 import FireFightingDroneSwarm.UserInterface.ZoneMapView;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 /**
  * This class represents the Fire Incident reporting thread.
@@ -25,11 +30,18 @@ public class IncidentReporter implements Runnable {
     private ArrayList<Long> timeBetweenEvents;
     private int nextEvent;
     private final double TIME_SCALE = 0.05;
+    private SimulationClock clock = SimulationClock.REAL_TIME;
     private ZoneMapController zoneMapController = null;
 
-    private DatagramSocket socket;
-    private InetAddress schedulerIP;
-    private int schedulerPort = 50000;
+    private Transport transport;
+    private InetSocketAddress schedulerAddress;
+    private InetSocketAddress guiAddress;
+    // reused for every event sent to the scheduler
+    private final FireEventFrame frame = new FireEventFrame();
+    private final byte[] frameData = new byte[FireEventFrame.MAX_LENGTH];
+    private final FailoverFrame failover = new FailoverFrame();
+    private int eventsSent;
+    private boolean allSent;
 
     /**
      * Constructor for this object, takes in an instantiated InputReader
@@ -53,8 +65,9 @@ public class IncidentReporter implements Runnable {
         this.inputReader = inputReader;
 
         try {
-            socket = new DatagramSocket();
-            schedulerIP = InetAddress.getByName("localhost");
+            transport = new UdpTransport(0);
+            schedulerAddress = new InetSocketAddress(InetAddress.getByName("localhost"), UdpTransport.SCHEDULER_PORT);
+            guiAddress = UdpTransport.localAddress(UdpTransport.GUI_PORT);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -62,6 +75,25 @@ public class IncidentReporter implements Runnable {
         this.initializeSystem();
     }
 
+    /**
+     * Constructor for an IncidentReporter that sends its events through the
+     * given transport, for example a LoopbackTransport to run the whole
+     * swarm in one process.
+     * @param inputReader InputReader with file fields instantiated
+     * @param transport Transport to send events on
+     * @param schedulerAddress address of the scheduler on that transport
+     * @param guiAddress address of the GUI on that transport, null to send no GUI updates
+     */
+    public IncidentReporter(InputReader inputReader, Transport transport,
+                            InetSocketAddress schedulerAddress, InetSocketAddress guiAddress) {
+        this.inputReader = inputReader;
+        this.transport = transport;
+        this.schedulerAddress = schedulerAddress;
+        this.guiAddress = guiAddress;
+        nextEvent = 0;
+        this.initializeSystem();
+    }
+
     /**
      * This function initializes the zones, and
      * events specific to this incident subsystem.
@@ -111,10 +143,11 @@ public class IncidentReporter implements Runnable {
             FireEvent event = events.get(nextEvent);
             try {
                 sendEvent(event);
+                eventsSent++;
                 if (zoneMapController != null) {
                     zoneMapController.fireDetected(event.getZoneID());
                 }
-                Thread.sleep((long) (timeBetweenEvents.get(nextEvent) * TIME_SCALE));
+                waitForNextEvent((long) (timeBetweenEvents.get(nextEvent) * TIME_SCALE));
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -123,6 +156,71 @@ public class IncidentReporter implements Runnable {
         allEventsSent();
     }
 
+    /**
+     * Waits until the next event is due. With a transport the reporter
+     * listens meanwhile for a standby scheduler announcing it took over.
+     * @param millis long time to wait in milliseconds
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void waitForNextEvent(long millis) throws InterruptedException {
+        if (transport == null) {
+            clock.sleep(millis);
+            return;
+        }
+        long due = clock.currentTimeMillis() + millis;
+        clock.wakeAt(due);
+        long timeout;
+        try {
+            while ((timeout = clock.realTimeout(due)) > 0) {
+                transport.receive(timeout, this::handleFailover);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Switches to a standby scheduler that announced it took over, and
+     * sends it again the events the primary may have lost with it: every
+     * event after the last one the standby knows of.
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @param source the address of the sender
+     */
+    private void handleFailover(byte[] data, int length, InetSocketAddress source) {
+        if (!failover.decode(data, length) || failover.getDroneId() != 0 || source.equals(schedulerAddress)) {
+            return;
+        }
+        schedulerAddress = source;
+        int lastFireID = failover.getLastFireID();
+        System.out.println("[Incident Subsystem] Scheduler failed over to " + source);
+        LogManager.event("INCIDENT_REPORTER", "SCHEDULER_FAILOVER")
+                .add("Scheduler", source)
+                .add("LastFireID", lastFireID)
+                .log();
+
+        for (int i = 0; i < eventsSent; i++) {
+            if (events.get(i).getFireID() > lastFireID) {
+                sendEvent(events.get(i));
+            }
+        }
+        if (allSent) {
+            allEventsSent();
+        }
+    }
+
+    /**
+     * Setter for the clock the time between events is measured by, must be
+     * called before the reporter is started
+     * @param clock SimulationClock shared with the rest of the scenario
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
     /**
      * Function to be called by scheduler when an event is passed back by
      * a drone
@@ -149,16 +247,8 @@ public class IncidentReporter implements Runnable {
 
     /**
      * Sends a fire event to the Scheduler subsystem using a UDP packet.
-     * The packet format is a simple byte array where:
-     * byte[0] = message type (1 = FIRE_EVENT)
-     * byte[1] = zone ID
-     * byte[2] = severity level
-     * byte[3] = task type
-     * byte[4] = fault type
-     * byte[5..6] = zone start X coordinate
-     * byte[7..8] = zone start Y coordinate
-     * byte[9..10] = zone end X coordinate
-     * byte[11..12] = zone end Y coordinate
+     * The event and the bounds of its zone are encoded as a FIRE_EVENT
+     * FireEventFrame, see that class for the packet format.
      *
      * This method replaces the direct Scheduler method calls used in
      * previous iterations. Instead of calling scheduler.put(event),
@@ -176,55 +266,21 @@ public class IncidentReporter implements Runnable {
                 return;
             }
 
-            // get the x,y coordinates for start and end positions to send over udp
-            int startX = zone.getStartCoordinates()[0];
-            int startY = zone.getStartCoordinates()[1];
-            int endX   = zone.getEndCoordinates()[0];
-            int endY   = zone.getEndCoordinates()[1];
-
-            // increased size from 12 -> 13 due to added fault type byte
-            byte[] data = new byte[15];
-
-            // data[0] = message type
-            data[0] = 1;
-
-            // data[1] = zone id
-            data[1] = (byte) event.getZoneID();
-
-            // data[2] = severity, data[3] = task type
-            data[2] = (byte) event.getSeverity().ordinal();
-            data[3] = (byte) event.getTaskType().ordinal();
-
-            // data[4] = fault type
-            data[4] = (byte) event.getFault().ordinal();
-
-            // data[5..6] = startX coordinate
-            separateBytes(data, 5, startX);
-
-            // data[7..8] = startY coordinate
-            separateBytes(data, 7, startY);
-
-            // data[9..10] = endX coordinate
-            separateBytes(data, 9, endX);
-
-            // data[11..12] = endY coordinate
-            separateBytes(data, 11, endY);
-
-            separateBytes(data, 13, event.getFireID());
-
-            DatagramPacket packet = new DatagramPacket(data, data.length, schedulerIP, schedulerPort);
+            int length = frame.set(FireEventFrame.FIRE_EVENT, event, zone).encode(frameData);
 
             String guiMessage = "FIRE_EVENT," + event.getZoneID();
             byte[] guiBytes = guiMessage.getBytes();
-            DatagramPacket guiPacket = new DatagramPacket(guiBytes, guiBytes.length, InetAddress.getLocalHost(), 60000);
 
-            socket.send(packet);
-            socket.send(guiPacket);
+            transport.send(frameData, length, schedulerAddress);
+            if (guiAddress != null) {
+                transport.send(guiBytes, guiBytes.length, guiAddress);
+            }
 
-            LogManager.Log("INCIDENT_REPORTER", "FIRE_SENT",
-                    "FireID: " + event.getFireID(),
-                    "Zone: " + event.getZoneID(),
-                    "Severity: " + event.getSeverity());
+            LogManager.event("INCIDENT_REPORTER", "FIRE_SENT")
+                    .add("FireID", event.getFireID())
+                    .add("Zone", event.getZoneID())
+                    .add("Severity", event.getSeverity())
+                    .log();
             System.out.println("[Incident Subsystem] Sent event " + event.getZoneID() + " " + event.getSeverity());
         } catch (Exception e) {
             e.printStackTrace();
@@ -240,11 +296,11 @@ public class IncidentReporter implements Runnable {
     private void allEventsSent(){
         try{
             byte[] data = new byte[1];
-            data[0] = 2;
+            data[0] = FireEventFrame.ALL_EVENTS_SENT;
 
-            DatagramPacket packet = new DatagramPacket(data, data.length, schedulerIP, schedulerPort);
-            socket.send(packet);
-            LogManager.Log("INCIDENT_REPORTER", "WORKLOAD_COMPLETE", "TotalEvents: " + events.size());
+            transport.send(data, data.length, schedulerAddress);
+            allSent = true;
+            LogManager.Log("INCIDENT_REPORTER", "WORKLOAD_COMPLETE", "TotalEvents", events.size());
             System.out.println("[Incident Subsystem] Sent all events " + events.size());
         } catch (Exception e){
             e.printStackTrace();
@@ -252,23 +308,14 @@ public class IncidentReporter implements Runnable {
 
     }
 
-    /**
-     * the coordinates are too large to be in a single byte if
-     * coordinate is > 255, need to send coordinates split up
-     * @param data the byte array to separate
-     * @param offset the offset in the array to use as index
-     * @param value the integer value to parse
-     */
-    private void separateBytes(byte[] data, int offset, int value){
-        data[offset] = (byte) (value >> 8);
-        data[offset + 1] = (byte) value;
-    }
-
     /**
      * Helper method to help initialize zones on the GUI by sending as UDP datagram
      * @param zone the zone to send to the GUI
      */
     private void sendZoneToGUI(Zone zone) {
+        if (guiAddress == null) {
+            return;
+        }
         try {
             String msg = "ZONE_INIT," +
                     zone.getID() + "," +
@@ -279,10 +326,7 @@ public class IncidentReporter implements Runnable {
 
             byte[] data = msg.getBytes();
 
-            DatagramPacket packet =
-                    new DatagramPacket(data, data.length, InetAddress.getLocalHost(), 60000);
-
-            socket.send(packet);
+            transport.send(data, data.length, guiAddress);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,35 @@
+package FireFightingDroneSwarm.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a count that any number of threads can add to without
+ * contending, backed by a LongAdder.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Adds one to the count
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds to the count
+     * @param amount long amount to add
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Getter for the count, exact when no thread is adding to it
+     * @return long current count
+     */
+    public long get() {
+        return count.sum();
+    }
+}
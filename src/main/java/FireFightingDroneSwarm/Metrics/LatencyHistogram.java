@@ -0,0 +1,153 @@
+package FireFightingDroneSwarm.Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a histogram of latencies in nanoseconds that any number of
+ * threads can record into without locking. Buckets are log-linear: every
+ * power of two is split into SUB_BUCKETS equal buckets, so a percentile is
+ * off by at most 1/SUB_BUCKETS of its value over the whole range of a long
+ * in a fixed 960 buckets. Recording is one atomic increment, plus a
+ * compare and set when a new maximum is seen.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // values below SUB_BUCKETS get a bucket each, then SUB_BUCKETS per power of two
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency
+     * @param nanos long latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised the maximum, compare again
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start time
+     * @param startNanos long System.nanoTime() at the start
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Copies the current counts. Latencies recorded while copying may be
+     * partly left out, the copy is consistent with itself.
+     * @return Snapshot of the histogram
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * This class is a copy of a LatencyHistogram at one point in time
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Getter for the mean latency
+         * @return double mean in nanoseconds, 0 if nothing was recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Getter for a percentile, the upper end of the bucket it falls in
+         * @param percentile double between 0 and 100
+         * @return long latency in nanoseconds at or below which that share
+         *         of the latencies fall, 0 if nothing was recorded
+         */
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long upper = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Combines two snapshots, as if every latency of both had been
+         * recorded into one histogram
+         * @param other Snapshot to add to this one
+         * @return Snapshot of both
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", count,
+                    getMean() / 1000.0, percentile(50) / 1000.0, percentile(99) / 1000.0, max / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package FireFightingDroneSwarm.Metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class shows a MetricsRegistry over JMX. Every counter and gauge is
+ * a Long attribute of its own name, every histogram gives name.count,
+ * name.meanMicros, name.p50Micros, name.p99Micros and name.maxMicros. All
+ * attributes are read only and read from a fresh snapshot.
+ */
+class MetricsMBean implements DynamicMBean {
+
+    private final MetricsRegistry registry;
+
+    MetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = valueOf(registry.snapshot(), attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        MetricsSnapshot snapshot = registry.snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = valueOf(snapshot, attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    private static Object valueOf(MetricsSnapshot snapshot, String attribute) {
+        Long value = snapshot.getCounters().get(attribute);
+        if (value == null) value = snapshot.getGauges().get(attribute);
+        if (value != null) return value;
+
+        int dot = attribute.lastIndexOf('.');
+        if (dot < 0) return null;
+        LatencyHistogram.Snapshot histogram = snapshot.getHistograms().get(attribute.substring(0, dot));
+        if (histogram == null) return null;
+        return switch (attribute.substring(dot + 1)) {
+            case "count" -> histogram.getCount();
+            case "meanMicros" -> histogram.getMean() / 1000.0;
+            case "p50Micros" -> histogram.percentile(50) / 1000.0;
+            case "p99Micros" -> histogram.percentile(99) / 1000.0;
+            case "maxMicros" -> histogram.getMax() / 1000.0;
+            default -> null;
+        };
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MetricsSnapshot snapshot = registry.snapshot();
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : snapshot.getCounters().keySet()) {
+            attributes.add(attribute(name, Long.class, "Counter"));
+        }
+        for (String name : snapshot.getGauges().keySet()) {
+            attributes.add(attribute(name, Long.class, "Gauge"));
+        }
+        for (String name : snapshot.getHistograms().keySet()) {
+            attributes.add(attribute(name + ".count", Long.class, "Latencies recorded"));
+            for (String statistic : new String[]{"meanMicros", "p50Micros", "p99Micros", "maxMicros"}) {
+                attributes.add(attribute(name + "." + statistic, Double.class, "Latency in microseconds"));
+            }
+        }
+        return new MBeanInfo(MetricsMBean.class.getName(), "Metrics registry",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0],
+                new MBeanNotificationInfo[0]);
+    }
+
+    private static MBeanAttributeInfo attribute(String name, Class<?> type, String description) {
+        return new MBeanAttributeInfo(name, type.getName(), description, true, false, false);
+    }
+}
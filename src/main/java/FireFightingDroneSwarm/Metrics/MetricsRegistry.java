@@ -0,0 +1,108 @@
+package FireFightingDroneSwarm.Metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * This class holds the named metrics of one component: counters, gauges
+ * read when a snapshot is taken and latency histograms. Metrics are
+ * created on first use and looked up once, the hot path only touches the
+ * Counter or LatencyHistogram it holds on to. The registry can be
+ * watched live through JMX, see register(), or by taking snapshots
+ * periodically, see startSnapshots().
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Getter for a counter, created if it does not exist yet
+     * @param name String name of the counter
+     * @return the Counter of that name
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Getter for a latency histogram, created if it does not exist yet
+     * @param name String name of the histogram
+     * @return the LatencyHistogram of that name
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Adds a gauge, replacing any gauge of the same name. The supplier is
+     * called from the thread taking the snapshot, so it must be safe to
+     * call from any thread.
+     * @param name String name of the gauge
+     * @param value LongSupplier for the current value
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Takes a snapshot of every metric
+     * @return MetricsSnapshot of the current values
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new HashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Long> gaugeValues = new HashMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+        Map<String, LatencyHistogram.Snapshot> histogramValues = new HashMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+
+    /**
+     * Takes a snapshot every period on a daemon thread and hands it to the
+     * consumer, until the returned handle is closed
+     * @param periodMillis long milliseconds between snapshots
+     * @param consumer Consumer of every snapshot
+     * @return AutoCloseable that stops the snapshots
+     */
+    public AutoCloseable startSnapshots(long periodMillis, Consumer<MetricsSnapshot> consumer) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> consumer.accept(snapshot()), periodMillis, periodMillis,
+                TimeUnit.MILLISECONDS);
+        return executor::shutdownNow;
+    }
+
+    /**
+     * Exposes every metric as an attribute of an MBean on the platform
+     * MBean server, for JConsole or any other JMX client
+     * @param objectName String JMX name, e.g. "FireFightingDroneSwarm:type=Scheduler"
+     * @throws JMException if the name is malformed or already registered
+     */
+    public void register(String objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(this), new ObjectName(objectName));
+    }
+
+    /**
+     * Removes the MBean added by register()
+     * @param objectName String JMX name it was registered under
+     * @throws JMException if the name is malformed or not registered
+     */
+    public void unregister(String objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(objectName));
+    }
+}
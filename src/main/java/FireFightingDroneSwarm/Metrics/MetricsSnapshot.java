@@ -0,0 +1,58 @@
+package FireFightingDroneSwarm.Metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is the value of every metric of a MetricsRegistry at one
+ * point in time, sorted by name.
+ */
+public class MetricsSnapshot {
+
+    private final long timestamp;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, LatencyHistogram.Snapshot> histograms;
+
+    MetricsSnapshot(long timestamp, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, LatencyHistogram.Snapshot> histograms) {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.gauges = Collections.unmodifiableMap(new TreeMap<>(gauges));
+        this.histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * Getter for when the snapshot was taken
+     * @return long wall clock time in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Returns the snapshot with one metric per line
+     * @return String representation of every metric
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        counters.forEach((name, value) -> text.append(name).append(" = ").append(value).append('\n'));
+        gauges.forEach((name, value) -> text.append(name).append(" = ").append(value).append('\n'));
+        histograms.forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        return text.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package FireFightingDroneSwarm.Protocol;
+
+/**
+ * This class is the frame a standby Scheduler sends when it takes over
+ * from a primary that stopped, telling every drone and the incident
+ * reporter to send to it from now on. The new scheduler is the sender of
+ * the frame, so it carries no address of its own. A Scheduler shard sends
+ * the same frame to a drone handed to it by another shard or by the
+ * ShardCoordinator.
+ *
+ * Frame layout (big endian):
+ * byte[0] = message type (6 = FAILOVER)
+ * byte[1..4] = drone id the frame is for, 0 for the incident reporter
+ * byte[5..8] = highest fire ID the new scheduler knows of, events after
+ *              it may have been lost with the primary and are sent again
+ */
+public class FailoverFrame {
+
+    public static final byte FAILOVER = 6;
+    public static final int FRAME_LENGTH = 9;
+
+    private int droneId;
+    private int lastFireID;
+
+    /**
+     * Fills in every field of the frame
+     * @param droneId int id of the drone the frame is for, 0 for the incident reporter
+     * @param lastFireID int highest fire ID the new scheduler knows of
+     * @return this frame
+     */
+    public FailoverFrame set(int droneId, int lastFireID) {
+        this.droneId = droneId;
+        this.lastFireID = lastFireID;
+        return this;
+    }
+
+    /**
+     * Writes the frame into a byte array
+     * @param data the byte array to write into, at least FRAME_LENGTH long
+     * @return int number of bytes written
+     */
+    public int encode(byte[] data) {
+        data[0] = FAILOVER;
+        putInt(data, 1, droneId);
+        putInt(data, 5, lastFireID);
+        return FRAME_LENGTH;
+    }
+
+    /**
+     * Reads a frame from a byte array, overwriting the fields of this one.
+     * Nothing is changed if the data is not a valid frame.
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @return true if the data held a valid frame
+     */
+    public boolean decode(byte[] data, int length) {
+        if (length < FRAME_LENGTH || data[0] != FAILOVER) {
+            return false;
+        }
+        droneId = getInt(data, 1);
+        lastFireID = getInt(data, 5);
+        return true;
+    }
+
+    public int getDroneId() {
+        return droneId;
+    }
+
+    public int getLastFireID() {
+        return lastFireID;
+    }
+
+    private static void putInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >> 24);
+        data[offset + 1] = (byte) (value >> 16);
+        data[offset + 2] = (byte) (value >> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,271 @@
+package FireFightingDroneSwarm.Protocol;
+
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+
+import java.time.LocalTime;
+
+/**
+ * This class is the wire format of a fire event together with the bounds
+ * of its zone. The IncidentReporter sends it to the Scheduler as a
+ * FIRE_EVENT and the Scheduler forwards it to a drone as an ASSIGNMENT.
+ * Like Telemetry, one frame object is meant to be reused for every
+ * message so that encoding and decoding do not allocate.
+ *
+ * Frame layout:
+ * byte[0] = message type (1 = FIRE_EVENT, 3 = ASSIGNMENT)
+ * byte[1] = protocol version
+ * then, as variable length integers of 7 bits per byte:
+ * drone ID, zone ID, severity, task type, fault type, fire ID,
+ * required water, zone start X, zone start Y, zone end X, zone end Y
+ * The IncidentReporter ends its events with ALL_EVENTS_SENT, a message
+ * of that one type byte and nothing else.
+ * The coordinates are zigzag encoded so that negative values stay short.
+ * The drone ID is the drone an ASSIGNMENT is for, so that drones sharing
+ * one socket can be told apart, and 0 in a FIRE_EVENT. The required water
+ * of an ASSIGNMENT is the drone's share when a fire is split across drones.
+ */
+public class FireEventFrame {
+
+    public static final byte FIRE_EVENT = 1;
+    public static final byte ALL_EVENTS_SENT = 2;
+    public static final byte ASSIGNMENT = 3;
+    public static final byte VERSION = 3;
+    // two header bytes plus eleven varints of at most five bytes
+    public static final int MAX_LENGTH = 2 + 11 * 5;
+
+    // values() copies the array on every call
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final FaultType[] FAULT_TYPES = FaultType.values();
+
+    private byte type = FIRE_EVENT;
+    private int droneId;
+    private int zoneID;
+    private Severity severity = Severity.LOW;
+    private TaskType taskType = TaskType.FIRE_DETECTED;
+    private FaultType fault = FaultType.NONE;
+    private int fireID;
+    private int requiredWater;
+    private int startX;
+    private int startY;
+    private int endX;
+    private int endY;
+
+    // read position while decoding
+    private int position;
+
+    /**
+     * Fills in the frame from a fire event and the zone it is in
+     * @param type byte message type, FIRE_EVENT or ASSIGNMENT
+     * @param event the FireEvent to send
+     * @param zone the Zone of the event
+     * @return this frame
+     */
+    public FireEventFrame set(byte type, FireEvent event, Zone zone) {
+        return set(type, event, zone, 0);
+    }
+
+    /**
+     * Fills in the frame from a fire event, the zone it is in and the
+     * drone it is assigned to
+     * @param type byte message type, FIRE_EVENT or ASSIGNMENT
+     * @param event the FireEvent to send
+     * @param zone the Zone of the event
+     * @param droneId int id of the drone the event is assigned to, 0 if none
+     * @return this frame
+     */
+    public FireEventFrame set(byte type, FireEvent event, Zone zone, int droneId) {
+        this.type = type;
+        this.droneId = droneId;
+        this.zoneID = event.getZoneID();
+        this.severity = event.getSeverity();
+        this.taskType = event.getTaskType();
+        this.fault = event.getFault();
+        this.fireID = event.getFireID();
+        this.requiredWater = event.getRequiredWater();
+        this.startX = zone.getStartCoordinates()[0];
+        this.startY = zone.getStartCoordinates()[1];
+        this.endX = zone.getEndCoordinates()[0];
+        this.endY = zone.getEndCoordinates()[1];
+        return this;
+    }
+
+    /**
+     * Writes the frame into a byte array
+     * @param data the byte array to write into, at least MAX_LENGTH long
+     * @return int number of bytes written
+     */
+    public int encode(byte[] data) {
+        data[0] = type;
+        data[1] = VERSION;
+        int offset = 2;
+        offset = putVarint(data, offset, droneId);
+        offset = putVarint(data, offset, zoneID);
+        offset = putVarint(data, offset, severity.ordinal());
+        offset = putVarint(data, offset, taskType.ordinal());
+        offset = putVarint(data, offset, fault.ordinal());
+        offset = putVarint(data, offset, fireID);
+        offset = putVarint(data, offset, requiredWater);
+        offset = putVarint(data, offset, zigzag(startX));
+        offset = putVarint(data, offset, zigzag(startY));
+        offset = putVarint(data, offset, zigzag(endX));
+        offset = putVarint(data, offset, zigzag(endY));
+        return offset;
+    }
+
+    /**
+     * Reads a frame from a byte array, overwriting the fields of this one.
+     * Frames with another message type or protocol version, or that are
+     * cut short, are rejected.
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @return true if the data held a valid frame
+     */
+    public boolean decode(byte[] data, int length) {
+        if (length < 2 || (data[0] != FIRE_EVENT && data[0] != ASSIGNMENT) || data[1] != VERSION) {
+            return false;
+        }
+        position = 2;
+        int drone = getVarint(data, length);
+        int zone = getVarint(data, length);
+        int severityNum = getVarint(data, length);
+        int taskNum = getVarint(data, length);
+        int faultNum = getVarint(data, length);
+        int fire = getVarint(data, length);
+        int water = getVarint(data, length);
+        int sx = getVarint(data, length);
+        int sy = getVarint(data, length);
+        int ex = getVarint(data, length);
+        int ey = getVarint(data, length);
+
+        // position is past the end if any varint was cut short
+        if (position > length
+                || severityNum < 0 || severityNum >= SEVERITIES.length
+                || taskNum < 0 || taskNum >= TASK_TYPES.length
+                || faultNum < 0 || faultNum >= FAULT_TYPES.length) {
+            return false;
+        }
+
+        type = data[0];
+        droneId = drone;
+        zoneID = zone;
+        severity = SEVERITIES[severityNum];
+        taskType = TASK_TYPES[taskNum];
+        fault = FAULT_TYPES[faultNum];
+        fireID = fire;
+        requiredWater = water;
+        startX = unzigzag(sx);
+        startY = unzigzag(sy);
+        endX = unzigzag(ex);
+        endY = unzigzag(ey);
+        return true;
+    }
+
+    /**
+     * Creates the fire event held by this frame
+     * @return a new FireEvent timestamped now
+     */
+    public FireEvent toFireEvent() {
+        FireEvent event = new FireEvent(zoneID, taskType, LocalTime.now(), severity, fault, fireID);
+        event.setRequiredWater(requiredWater);
+        return event;
+    }
+
+    /**
+     * Getter for the center of the zone in this frame
+     * @param center double array of size 2 to write the [x,y] center into
+     * @return the same array
+     */
+    public double[] getZoneCenter(double[] center) {
+        center[0] = (startX + endX) / 2.0;
+        center[1] = (startY + endY) / 2.0;
+        return center;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public int getDroneId() {
+        return droneId;
+    }
+
+    public int getZoneID() {
+        return zoneID;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public FaultType getFault() {
+        return fault;
+    }
+
+    public int getFireID() {
+        return fireID;
+    }
+
+    public int getRequiredWater() {
+        return requiredWater;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public int getEndX() {
+        return endX;
+    }
+
+    public int getEndY() {
+        return endY;
+    }
+
+    private static int putVarint(byte[] data, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            data[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[offset++] = (byte) value;
+        return offset;
+    }
+
+    private int getVarint(byte[] data, int length) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position >= length) {
+                position = length + 1;
+                return 0;
+            }
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        // more than five bytes is not a valid int
+        position = length + 1;
+        return 0;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,186 @@
+package FireFightingDroneSwarm.Protocol;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+
+/**
+ * This class is a drone telemetry frame, the status update every drone
+ * sends to the Scheduler while idle, on every state transition and on
+ * every step of a flight. A frame has a fixed binary layout so that both
+ * sides can encode and decode it in place without building strings, and
+ * one Telemetry object is meant to be reused for every frame.
+ *
+ * Frame layout (big endian):
+ * byte[0] = message type (4 = STATUS, 5 = FAULT)
+ * byte[1..2] = drone id
+ * byte[3] = DroneStatus ordinal
+ * byte[4..7] = x position in hundredths of a unit
+ * byte[8..11] = y position in hundredths of a unit
+ * byte[12..13] = water left in the tank
+ * byte[14..15] = battery life in tenths of a percent
+ * byte[16..19] = fire ID of the current task, 0 if none
+ * byte[20..23] = sequence number, increasing per drone
+ */
+public class Telemetry {
+
+    public static final byte STATUS = 4;
+    public static final byte FAULT = 5;
+    public static final int FRAME_LENGTH = 24;
+
+    private static final double POSITION_SCALE = 100.0;
+    private static final double BATTERY_SCALE = 10.0;
+    // values() copies the array on every call
+    private static final DroneStatus[] STATUSES = DroneStatus.values();
+
+    private byte type = STATUS;
+    private int droneId;
+    private DroneStatus status = DroneStatus.IDLE;
+    private double posX;
+    private double posY;
+    private int water;
+    private double battery;
+    private int fireID;
+    private int sequence;
+
+    /**
+     * Fills in every field of the frame
+     * @param type byte message type, STATUS or FAULT
+     * @param droneId int corresponding to the drone id
+     * @param status DroneStatus of the drone
+     * @param posX double x position of the drone
+     * @param posY double y position of the drone
+     * @param water int water left in the tank
+     * @param battery double battery life in percent
+     * @param fireID int fire ID of the current task, 0 if none
+     * @param sequence int sequence number of the frame
+     * @return this frame
+     */
+    public Telemetry set(byte type, int droneId, DroneStatus status, double posX, double posY,
+                         int water, double battery, int fireID, int sequence) {
+        this.type = type;
+        this.droneId = droneId;
+        this.status = status;
+        this.posX = posX;
+        this.posY = posY;
+        this.water = water;
+        this.battery = battery;
+        this.fireID = fireID;
+        this.sequence = sequence;
+        return this;
+    }
+
+    /**
+     * Writes the frame into a byte array
+     * @param data the byte array to write into, at least FRAME_LENGTH long
+     * @return int number of bytes written
+     */
+    public int encode(byte[] data) {
+        data[0] = type;
+        putShort(data, 1, droneId);
+        data[3] = (byte) status.ordinal();
+        putInt(data, 4, (int) Math.round(posX * POSITION_SCALE));
+        putInt(data, 8, (int) Math.round(posY * POSITION_SCALE));
+        putShort(data, 12, water);
+        putShort(data, 14, (int) Math.round(Math.max(0, battery) * BATTERY_SCALE));
+        putInt(data, 16, fireID);
+        putInt(data, 20, sequence);
+        return FRAME_LENGTH;
+    }
+
+    /**
+     * Reads a frame from a byte array, overwriting the fields of this one.
+     * Nothing is changed if the data is not a valid frame.
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @return true if the data held a valid frame
+     */
+    public boolean decode(byte[] data, int length) {
+        if (length < FRAME_LENGTH || !isTelemetry(data[0])) {
+            return false;
+        }
+        int statusNum = data[3] & 0xFF;
+        if (statusNum >= STATUSES.length) {
+            return false;
+        }
+
+        type = data[0];
+        droneId = getShort(data, 1);
+        status = STATUSES[statusNum];
+        posX = getInt(data, 4) / POSITION_SCALE;
+        posY = getInt(data, 8) / POSITION_SCALE;
+        water = getShort(data, 12);
+        battery = getShort(data, 14) / BATTERY_SCALE;
+        fireID = getInt(data, 16);
+        sequence = getInt(data, 20);
+        return true;
+    }
+
+    /**
+     * Checks whether a message type is one of the telemetry types
+     * @param messageType byte first byte of a datagram
+     * @return true for STATUS and FAULT frames
+     */
+    public static boolean isTelemetry(byte messageType) {
+        return messageType == STATUS || messageType == FAULT;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public boolean isFault() {
+        return type == FAULT;
+    }
+
+    public int getDroneId() {
+        return droneId;
+    }
+
+    public DroneStatus getStatus() {
+        return status;
+    }
+
+    public double getPosX() {
+        return posX;
+    }
+
+    public double getPosY() {
+        return posY;
+    }
+
+    public int getWater() {
+        return water;
+    }
+
+    public double getBattery() {
+        return battery;
+    }
+
+    public int getFireID() {
+        return fireID;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    private static void putShort(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >> 8);
+        data[offset + 1] = (byte) value;
+    }
+
+    private static void putInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >> 24);
+        data[offset + 1] = (byte) (value >> 16);
+        data[offset + 2] = (byte) (value >> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    private static int getShort(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,115 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.util.Arrays;
+
+/**
+ * This class solves the rectangular assignment problem with the Hungarian
+ * algorithm (Kuhn-Munkres, shortest augmenting path form). It is used by the
+ * Scheduler's batch mode to match every buffered fire event to a distinct
+ * idle drone so that the total cost of the whole batch is minimal.
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {}
+
+    /**
+     * Finds a minimum cost matching between rows and columns of a cost
+     * matrix. Every row is matched when there are at least as many columns
+     * as rows, otherwise every column is matched and the leftover rows are
+     * left unassigned.
+     * @param cost double[rows][cols] matrix, cost[i][j] being the cost of pairing row i with column j
+     * @return int[] of length rows holding the matched column for each row, or -1 if unmatched
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) return new int[0];
+        int cols = cost[0].length;
+
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        if (cols == 0) return result;
+
+        if (rows <= cols) {
+            int[] colForRow = hungarian(cost, rows, cols, false);
+            System.arraycopy(colForRow, 0, result, 0, rows);
+        } else {
+            // solve the transposed problem so that rows <= columns holds
+            int[] rowForCol = hungarian(cost, cols, rows, true);
+            for (int j = 0; j < cols; j++) {
+                result[rowForCol[j]] = j;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hungarian algorithm for n <= m, O(n^2 * m).
+     * @param cost the cost matrix
+     * @param n number of rows of the (possibly transposed) problem
+     * @param m number of columns of the (possibly transposed) problem
+     * @param transposed true to read cost[j][i] instead of cost[i][j]
+     * @return int[] of length n mapping each row to its column
+     */
+    private static int[] hungarian(double[][] cost, int n, int m, boolean transposed) {
+        // 1-indexed potentials and matching as in the textbook formulation
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) continue;
+                    double c = transposed ? cost[j - 1][i0 - 1] : cost[i0 - 1][j - 1];
+                    double cur = c - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+
+            // walk the augmenting path back to the root
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) {
+                assignment[p[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
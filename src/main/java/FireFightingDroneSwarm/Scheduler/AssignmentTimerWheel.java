@@ -0,0 +1,152 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * This class is a hashed timer wheel holding one deadline per drone with
+ * an active assignment. Deadlines are dropped into the wheel slot of the
+ * tick they expire in, so scheduling, rescheduling and cancelling are
+ * O(1), and advancing the wheel only looks at the slots of the ticks that
+ * have passed instead of every active assignment.
+ *
+ * Deadlines further away than one turn of the wheel are kept in their slot
+ * with a count of remaining turns. The wheel should be sized so that one
+ * turn covers the usual timeouts, in which case every entry looked at
+ * while advancing is an expired one.
+ */
+public class AssignmentTimerWheel {
+
+    private static class Timeout {
+        final int droneId;
+        final long deadline;
+        long remainingRounds;
+        int slot;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(int droneId, long deadline) {
+            this.droneId = droneId;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMs;
+    private final int mask;
+    private final Timeout[] slots;
+    private final long startTime;
+    private final Map<Integer, Timeout> byDrone = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * Constructor for a timer wheel
+     * @param tickMs long duration of one tick in milliseconds
+     * @param wheelSize int number of slots, rounded up to a power of two
+     * @param startTime long time in milliseconds the wheel's first tick starts at
+     */
+    public AssignmentTimerWheel(long tickMs, int wheelSize, long startTime) {
+        if (tickMs <= 0) throw new IllegalArgumentException("tickMs must be positive");
+        if (wheelSize <= 0) throw new IllegalArgumentException("wheelSize must be positive");
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) size <<= 1;
+
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.slots = new Timeout[size];
+        this.startTime = startTime;
+    }
+
+    /**
+     * Sets the deadline for a drone's assignment, replacing any deadline
+     * the drone already had.
+     * @param droneId int corresponding to the drone id
+     * @param deadline long time in milliseconds the assignment expires at
+     */
+    public void schedule(int droneId, long deadline) {
+        cancel(droneId);
+
+        Timeout timeout = new Timeout(droneId, deadline);
+        // the tick whose end is the first one at or after the deadline
+        long tick = Math.max(currentTick, Math.floorDiv(deadline - startTime + tickMs - 1, tickMs) - 1);
+        timeout.remainingRounds = (tick - currentTick) / slots.length;
+        timeout.slot = (int) (tick & mask);
+
+        Timeout head = slots[timeout.slot];
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        slots[timeout.slot] = timeout;
+        byDrone.put(droneId, timeout);
+    }
+
+    /**
+     * Removes the deadline for a drone's assignment, if it has one
+     * @param droneId int corresponding to the drone id
+     * @return true if a deadline was cancelled
+     */
+    public boolean cancel(int droneId) {
+        Timeout timeout = byDrone.remove(droneId);
+        if (timeout == null) return false;
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Checks whether a drone currently has a deadline
+     * @param droneId int corresponding to the drone id
+     * @return true if a deadline is scheduled
+     */
+    public boolean isScheduled(int droneId) {
+        return byDrone.containsKey(droneId);
+    }
+
+    /**
+     * Getter for the number of scheduled deadlines
+     * @return int number of deadlines in the wheel
+     */
+    public int size() {
+        return byDrone.size();
+    }
+
+    /**
+     * Advances the wheel to the given time, removing every deadline that
+     * has passed and handing its drone id to the callback.
+     * @param now long current time in milliseconds
+     * @param onExpired IntConsumer called with the drone id of each expired deadline
+     * @return int number of expired deadlines
+     */
+    public int advance(long now, IntConsumer onExpired) {
+        int expired = 0;
+        // a tick can be processed once its end time has been reached
+        while (startTime + (currentTick + 1) * tickMs <= now) {
+            Timeout timeout = slots[(int) (currentTick & mask)];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    unlink(timeout);
+                    byDrone.remove(timeout.droneId);
+                    onExpired.accept(timeout.droneId);
+                    expired++;
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+}
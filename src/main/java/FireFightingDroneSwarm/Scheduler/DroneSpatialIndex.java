@@ -0,0 +1,278 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class is a uniform grid index over the positions of drones that
+ * the Scheduler could dispatch. Drones are bucketed by the grid cell they
+ * are currently in, so a nearest-drone query only has to look at the cells
+ * in expanding rings around the query point instead of every known drone.
+ */
+public class DroneSpatialIndex {
+
+    private static final double DEFAULT_CELL_SIZE = 200.0;
+
+    private final double cellSize;
+    private final Map<Long, List<DroneState>> cells = new HashMap<>();
+    private final Map<Integer, Long> cellOfDrone = new HashMap<>();
+
+    // bounding box of the occupied cells, used to clip and stop ring searches
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    /**
+     * Constructor for an index using the default cell size.
+     */
+    public DroneSpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructor for an index with a custom cell size
+     * @param cellSize double representing the side length of a grid cell
+     */
+    public DroneSpatialIndex(double cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Inserts a drone into the index, or moves it to the cell matching
+     * its current position if it is already indexed.
+     * @param drone the DroneState to index
+     */
+    public void update(DroneState drone) {
+        int cx = cell(drone.getPosX());
+        int cy = cell(drone.getPosY());
+        long key = key(cx, cy);
+
+        Long oldKey = cellOfDrone.get(drone.getDroneId());
+        if (oldKey != null) {
+            if (oldKey == key) {
+                replace(cells.get(key), drone);
+                return;
+            }
+            removeFromCell(oldKey, drone.getDroneId());
+        }
+
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(drone);
+        cellOfDrone.put(drone.getDroneId(), key);
+
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    /**
+     * Removes a drone from the index, does nothing if it is not indexed
+     * @param droneId int corresponding to the drone id
+     */
+    public void remove(int droneId) {
+        Long key = cellOfDrone.remove(droneId);
+        if (key != null) {
+            removeFromCell(key, droneId);
+        }
+    }
+
+    /**
+     * Checks whether a drone is currently indexed
+     * @param droneId int corresponding to the drone id
+     * @return true if the drone is in the index
+     */
+    public boolean contains(int droneId) {
+        return cellOfDrone.containsKey(droneId);
+    }
+
+    /**
+     * Getter for the number of indexed drones
+     * @return int number of drones in the index
+     */
+    public int size() {
+        return cellOfDrone.size();
+    }
+
+    /**
+     * Checks if the index is empty
+     * @return true if no drones are indexed
+     */
+    public boolean isEmpty() {
+        return cellOfDrone.isEmpty();
+    }
+
+    /**
+     * Finds the indexed drone closest to the given point.
+     * @param x double representing the x coordinate of the point
+     * @param y double representing the y coordinate of the point
+     * @return the closest DroneState, or null if the index is empty
+     */
+    public DroneState nearest(double x, double y) {
+        List<DroneState> result = nearest(x, y, 1);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Finds up to k indexed drones closest to the given point. Cells are
+     * scanned in rings of increasing distance from the point's cell, only
+     * visiting the edge of each ring, and the search stops as soon as no
+     * unscanned ring can hold a closer drone than the k best found so far.
+     * @param x double representing the x coordinate of the point
+     * @param y double representing the y coordinate of the point
+     * @param k int maximum number of drones to return
+     * @return List of DroneStates ordered from closest to furthest
+     */
+    public List<DroneState> nearest(double x, double y, int k) {
+        if (isEmpty() || k <= 0) return Collections.emptyList();
+
+        int cx = cell(x);
+        int cy = cell(y);
+        int maxRing = Math.max(
+                Math.max(Math.abs(cx - minCellX), Math.abs(cx - maxCellX)),
+                Math.max(Math.abs(cy - minCellY), Math.abs(cy - maxCellY)));
+
+        // max-heap on distance so the worst of the k candidates is on top
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(
+                (a, b) -> Double.compare(b.distSq, a.distSq));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int left = cx - ring;
+            int right = cx + ring;
+            int bottom = cy - ring;
+            int top = cy + ring;
+
+            // rows along the bottom and top edge, clipped to the occupied columns
+            int fromX = Math.max(left, minCellX);
+            int toX = Math.min(right, maxCellX);
+            for (int i = fromX; i <= toX; i++) {
+                scanCell(i, bottom, x, y, k, heap);
+                if (top != bottom) scanCell(i, top, x, y, k, heap);
+            }
+
+            // columns along the left and right edge, corners were covered by the rows
+            int fromY = Math.max(bottom + 1, minCellY);
+            int toY = Math.min(top - 1, maxCellY);
+            for (int j = fromY; j <= toY; j++) {
+                scanCell(left, j, x, y, k, heap);
+                scanCell(right, j, x, y, k, heap);
+            }
+
+            // every drone in a further ring is at least ring * cellSize away
+            double reach = ring * cellSize;
+            if (heap.size() == k && heap.peek().distSq <= reach * reach) {
+                break;
+            }
+        }
+
+        List<DroneState> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().drone);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Helper method to offer every drone in one cell to the k best candidates
+     * @param i int cell index along x
+     * @param j int cell index along y
+     * @param x double representing the x coordinate of the query point
+     * @param y double representing the y coordinate of the query point
+     * @param k int number of candidates to keep
+     * @param heap PriorityQueue of the current candidates, worst on top
+     */
+    private void scanCell(int i, int j, double x, double y, int k, PriorityQueue<Candidate> heap) {
+        if (j < minCellY || j > maxCellY || i < minCellX || i > maxCellX) return;
+        List<DroneState> bucket = cells.get(key(i, j));
+        if (bucket == null) return;
+
+        for (DroneState drone : bucket) {
+            double dx = drone.getPosX() - x;
+            double dy = drone.getPosY() - y;
+            double distSq = dx * dx + dy * dy;
+            if (heap.size() < k) {
+                heap.add(new Candidate(drone, distSq));
+            } else if (distSq < heap.peek().distSq) {
+                heap.poll();
+                heap.add(new Candidate(drone, distSq));
+            }
+        }
+    }
+
+    /**
+     * Helper method to map a coordinate onto its grid cell
+     * @param coordinate double representing an x or y coordinate
+     * @return int index of the cell along that axis
+     */
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Helper method to pack a cell's x and y index into a single map key
+     * @param cx int cell index along x
+     * @param cy int cell index along y
+     * @return long key for the cell
+     */
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private void removeFromCell(long key, int droneId) {
+        List<DroneState> bucket = cells.get(key);
+        if (bucket == null) return;
+        bucket.removeIf(d -> d.getDroneId() == droneId);
+        if (bucket.isEmpty()) {
+            cells.remove(key);
+            int cx = (int) (key >> 32);
+            int cy = (int) key;
+            if (cx == minCellX || cx == maxCellX || cy == minCellY || cy == maxCellY) {
+                recomputeBounds();
+            }
+        }
+    }
+
+    /**
+     * Helper method to shrink the bounding box back to the occupied cells
+     * after a cell on its edge empties.
+     */
+    private void recomputeBounds() {
+        minCellX = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+        for (long key : cells.keySet()) {
+            int cx = (int) (key >> 32);
+            int cy = (int) key;
+            minCellX = Math.min(minCellX, cx);
+            maxCellX = Math.max(maxCellX, cx);
+            minCellY = Math.min(minCellY, cy);
+            maxCellY = Math.max(maxCellY, cy);
+        }
+    }
+
+    private void replace(List<DroneState> bucket, DroneState drone) {
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i).getDroneId() == drone.getDroneId()) {
+                bucket.set(i, drone);
+                return;
+            }
+        }
+    }
+
+    private static final class Candidate {
+        final DroneState drone;
+        final double distSq;
+
+        Candidate(DroneState drone, double distSq) {
+            this.drone = drone;
+            this.distSq = distSq;
+        }
+    }
+}
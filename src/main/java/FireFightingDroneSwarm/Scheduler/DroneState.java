@@ -1,6 +1,7 @@
 package FireFightingDroneSwarm.Scheduler;
 import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 /**
  * This class is a helper class for the Scheduler to keep
@@ -17,6 +18,7 @@ public class DroneState {
 
     private InetAddress address;
     private int port;
+    private InetSocketAddress socketAddress;
 
     /**
      * Constructor for DroneState to instantiate a status for the drone
@@ -54,6 +56,18 @@ public class DroneState {
      */
     public int getPort() { return port; }
 
+    /**
+     * Getter for the address and port of this drone as one socket address,
+     * created once so that sending to the drone does not allocate
+     * @return InetSocketAddress of the drone
+     */
+    public InetSocketAddress getSocketAddress() {
+        if (socketAddress == null) {
+            socketAddress = new InetSocketAddress(address, port);
+        }
+        return socketAddress;
+    }
+
     /**
      * Getter for the current status of the drone
      * @return DroneStatus enum value
@@ -0,0 +1,390 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * This class is the Scheduler's queue of pending fire events. It is an
+ * indexed binary heap ordered by severity and waiting time, with an index
+ * by fire ID so that any event can be found or removed in O(log n).
+ *
+ * Each event gets a priority key of (enqueue time - severity head start).
+ * A HIGH fire therefore jumps ahead of LOW fires that arrived up to
+ * HIGH's head start earlier, but a LOW fire that has waited longer than
+ * that is served before newly arriving HIGH fires, which bounds how long
+ * a LOW fire can be starved. Ties are broken by zone and then by arrival.
+ * The scheduler does not always serve the head, it weighs distance too,
+ * so peekOverdue() tells it when the head has waited past that bound and
+ * must be served first.
+ * Events are also indexed by zone, so a new report can be matched against
+ * a fire already waiting in the same zone.
+ *
+ * Enqueue times are taken from the scheduler's SimulationClock, so a
+ * fire ages in clock time when a scenario is replayed faster than real
+ * time, and are stored in the FireEvent, so a fire that comes back to
+ * the queue after a fault keeps its age.
+ */
+public class FireEventQueue extends AbstractQueue<FireEvent> {
+
+    // how far ahead of a LOW fire each severity is placed, in milliseconds
+    private static final long MODERATE_HEAD_START_MS = 15_000;
+    private static final long HIGH_HEAD_START_MS = 30_000;
+
+    private static class Entry {
+        FireEvent event;
+        long key;
+        long seq;
+        int index;
+        long enqueuedNanos;
+    }
+
+    private Entry[] heap = new Entry[16];
+    private int size;
+    private long nextSeq;
+    private int modCount;
+    private final SimulationClock clock;
+    private final Map<Integer, Entry> byFireId = new HashMap<>();
+    // queued events of each zone in arrival order, rarely more than one
+    private final Map<Integer, List<Entry>> byZone = new HashMap<>();
+    // LOW events by arrival, so the newest one can be shed when the scheduler is overloaded
+    private final TreeMap<Long, Entry> lowBySeq = new TreeMap<>();
+
+    /**
+     * Constructor for a queue that ages events in real time
+     */
+    public FireEventQueue() {
+        this(SimulationClock.REAL_TIME);
+    }
+
+    /**
+     * Constructor for a queue that ages events in the time of the given clock
+     * @param clock SimulationClock enqueue times are taken from
+     */
+    public FireEventQueue(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Adds an event to the queue. If an event with the same fire ID is
+     * already queued it is replaced, keeping its original position in time.
+     * An event that was queued before keeps the enqueue time it carries,
+     * any other is stamped with the current clock time.
+     * @param event the FireEvent to add
+     * @return true always, the queue itself is unbounded
+     */
+    @Override
+    public boolean offer(FireEvent event) {
+        if (event == null) throw new NullPointerException("event");
+
+        Entry existing = byFireId.get(event.getFireID());
+        if (existing != null) {
+            long enqueuedAt = existing.event.getEnqueuedAt();
+            lowBySeq.remove(existing.seq);
+            if (event.getSeverity() == Severity.LOW) lowBySeq.put(existing.seq, existing);
+            if (existing.event.getZoneID() != event.getZoneID()) {
+                unindexZone(existing);
+                byZone.computeIfAbsent(event.getZoneID(), zone -> new ArrayList<>(1)).add(existing);
+            }
+            event.setEnqueuedAt(enqueuedAt);
+            existing.event = event;
+            existing.key = enqueuedAt - headStart(event.getSeverity());
+            siftUp(existing.index);
+            siftDown(existing.index);
+            modCount++;
+            return true;
+        }
+
+        if (event.getEnqueuedAt() < 0) {
+            event.setEnqueuedAt(clock.currentTimeMillis());
+        }
+        Entry entry = new Entry();
+        entry.event = event;
+        entry.key = event.getEnqueuedAt() - headStart(event.getSeverity());
+        entry.seq = nextSeq++;
+        entry.enqueuedNanos = System.nanoTime();
+
+        if (size == heap.length) {
+            Entry[] grown = new Entry[heap.length * 2];
+            System.arraycopy(heap, 0, grown, 0, size);
+            heap = grown;
+        }
+        entry.index = size;
+        heap[size++] = entry;
+        byFireId.put(event.getFireID(), entry);
+        byZone.computeIfAbsent(event.getZoneID(), zone -> new ArrayList<>(1)).add(entry);
+        if (event.getSeverity() == Severity.LOW) lowBySeq.put(entry.seq, entry);
+        siftUp(entry.index);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes and returns the highest priority event
+     * @return the FireEvent at the head of the queue, or null if empty
+     */
+    @Override
+    public FireEvent poll() {
+        if (size == 0) return null;
+        FireEvent head = heap[0].event;
+        removeAt(0);
+        return head;
+    }
+
+    /**
+     * Returns the highest priority event without removing it
+     * @return the FireEvent at the head of the queue, or null if empty
+     */
+    @Override
+    public FireEvent peek() {
+        return size == 0 ? null : heap[0].event;
+    }
+
+    /**
+     * Returns the highest priority event if it has waited at least HIGH's
+     * head start, from then on no newly arriving fire can be placed ahead
+     * of it, so it must be served before any fire chosen by score
+     * @param now long current clock time in milliseconds
+     * @return the FireEvent at the head of the queue, or null if empty or not overdue
+     */
+    public FireEvent peekOverdue(long now) {
+        if (size == 0) return null;
+        FireEvent head = heap[0].event;
+        return now - head.getEnqueuedAt() >= HIGH_HEAD_START_MS ? head : null;
+    }
+
+    /**
+     * Returns the highest priority events in priority order without
+     * removing them, in O(k log k) however long the queue is
+     * @param k int maximum number of events to return
+     * @return List of up to k FireEvents, the head of the queue first
+     */
+    public List<FireEvent> peekFirst(int k) {
+        List<FireEvent> first = new ArrayList<>(Math.max(0, Math.min(k, size)));
+        if (size == 0 || k <= 0) return first;
+
+        // the next event in order is always a child of one already taken
+        PriorityQueue<Entry> frontier = new PriorityQueue<>((a, b) -> a == b ? 0 : less(a, b) ? -1 : 1);
+        frontier.add(heap[0]);
+        while (first.size() < k && !frontier.isEmpty()) {
+            Entry entry = frontier.poll();
+            first.add(entry.event);
+            int child = 2 * entry.index + 1;
+            if (child < size) frontier.add(heap[child]);
+            if (child + 1 < size) frontier.add(heap[child + 1]);
+        }
+        return first;
+    }
+
+    /**
+     * Looks up a queued event by its fire ID
+     * @param fireID int fire ID of the event
+     * @return the queued FireEvent, or null if none is queued
+     */
+    public FireEvent get(int fireID) {
+        Entry entry = byFireId.get(fireID);
+        return entry == null ? null : entry.event;
+    }
+
+    /**
+     * Getter for when an event was first queued, kept when it is replaced
+     * @param fireID int fire ID of the event
+     * @return long System.nanoTime() when it was queued, or -1 if none is queued
+     */
+    public long enqueuedAt(int fireID) {
+        Entry entry = byFireId.get(fireID);
+        return entry == null ? -1 : entry.enqueuedNanos;
+    }
+
+    /**
+     * Looks up the longest queued event of a zone that matches
+     * @param zoneID int zone ID
+     * @param match Predicate an event must satisfy
+     * @return the matching FireEvent queued first among those of the zone, or null if none
+     */
+    public FireEvent getByZone(int zoneID, Predicate<FireEvent> match) {
+        List<Entry> entries = byZone.get(zoneID);
+        if (entries == null) return null;
+        for (Entry entry : entries) {
+            if (match.test(entry.event)) return entry.event;
+        }
+        return null;
+    }
+
+    /**
+     * Removes a queued event by its fire ID in O(log n)
+     * @param fireID int fire ID of the event
+     * @return the removed FireEvent, or null if none was queued
+     */
+    public FireEvent removeByFireId(int fireID) {
+        Entry entry = byFireId.get(fireID);
+        if (entry == null) return null;
+        removeAt(entry.index);
+        return entry.event;
+    }
+
+    /**
+     * Removes the given event if it is queued, in O(log n)
+     * @param o the FireEvent to remove
+     * @return true if the event was queued and has been removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof FireEvent event)) return false;
+        Entry entry = byFireId.get(event.getFireID());
+        if (entry == null || entry.event != event) return false;
+        removeAt(entry.index);
+        return true;
+    }
+
+    /**
+     * Removes the most recently queued LOW severity event, used to make room
+     * for more severe fires when the scheduler is overloaded
+     * @return the removed FireEvent, or null if no LOW event is queued
+     */
+    public FireEvent shedNewestLow() {
+        Map.Entry<Long, Entry> newest = lowBySeq.lastEntry();
+        if (newest == null) return null;
+        removeAt(newest.getValue().index);
+        return newest.getValue().event;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof FireEvent event)) return false;
+        Entry entry = byFireId.get(event.getFireID());
+        return entry != null && entry.event == event;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+        byFireId.clear();
+        byZone.clear();
+        lowBySeq.clear();
+        modCount++;
+    }
+
+    /**
+     * Iterates the queued events in heap order, which visits higher
+     * priority events roughly first but is not fully sorted. The queue
+     * must not be modified while iterating.
+     * @return Iterator over the queued events
+     */
+    @Override
+    public Iterator<FireEvent> iterator() {
+        return new Iterator<>() {
+            private int cursor;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public FireEvent next() {
+                if (expectedModCount != modCount) throw new ConcurrentModificationException();
+                if (cursor >= size) throw new NoSuchElementException();
+                return heap[cursor++].event;
+            }
+        };
+    }
+
+    /**
+     * Helper method for the head start an event of a severity gets
+     * @param severity Severity of the event
+     * @return long head start in milliseconds
+     */
+    private static long headStart(Severity severity) {
+        return switch (severity) {
+            case LOW -> 0;
+            case MODERATE -> MODERATE_HEAD_START_MS;
+            case HIGH -> HIGH_HEAD_START_MS;
+        };
+    }
+
+    private void removeAt(int i) {
+        Entry removed = heap[i];
+        byFireId.remove(removed.event.getFireID());
+        unindexZone(removed);
+        lowBySeq.remove(removed.seq);
+        size--;
+        if (i != size) {
+            Entry moved = heap[size];
+            heap[i] = moved;
+            moved.index = i;
+            heap[size] = null;
+            siftDown(i);
+            if (heap[i] == moved) {
+                siftUp(i);
+            }
+        } else {
+            heap[size] = null;
+        }
+        modCount++;
+    }
+
+    private void unindexZone(Entry entry) {
+        List<Entry> entries = byZone.get(entry.event.getZoneID());
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+            byZone.remove(entry.event.getZoneID());
+        }
+    }
+
+    private boolean less(Entry a, Entry b) {
+        if (a.key != b.key) return a.key < b.key;
+        if (a.event.getZoneID() != b.event.getZoneID()) return a.event.getZoneID() < b.event.getZoneID();
+        return a.seq < b.seq;
+    }
+
+    private void siftUp(int i) {
+        Entry entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(entry, heap[parent])) break;
+            heap[i] = heap[parent];
+            heap[i].index = i;
+            i = parent;
+        }
+        heap[i] = entry;
+        entry.index = i;
+    }
+
+    private void siftDown(int i) {
+        Entry entry = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], entry)) break;
+            heap[i] = heap[child];
+            heap[i].index = i;
+            i = child;
+        }
+        heap[i] = entry;
+        entry.index = i;
+    }
+}
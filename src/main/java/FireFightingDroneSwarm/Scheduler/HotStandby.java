@@ -0,0 +1,212 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is the standby Scheduler's side of a hot standby. It applies
+ * the records a StandbyReplicator sends to a SchedulerState, the copy of
+ * the primary's state the standby takes over with, and decides when the
+ * primary has stopped: once nothing has come from it for the failover
+ * timeout. Records are applied in sequence order, after a gap the copy is
+ * out of date until the primary has answered a sync request.
+ */
+public class HotStandby {
+
+    // a lost sync request or sync is asked for again after this long
+    private static final long SYNC_RETRY_INTERVAL = 500;
+
+    private final InetSocketAddress primary;
+    private final long failoverTimeout;
+    private SchedulerState state = new SchedulerState();
+    private final FireIDTracker fireIDs = new FireIDTracker();
+    private boolean synced = false;
+    private long nextSequence;
+    private long lastHeard;
+    private long lastSyncRequest = Long.MIN_VALUE / 2;
+    private InetSocketAddress reporter;
+
+    /**
+     * Constructor for the standby of a primary scheduler
+     * @param primary InetSocketAddress of the primary scheduler
+     * @param failoverTimeout long milliseconds without hearing from the primary before taking over
+     * @param now long current time, the primary gets the failover timeout from now to be heard
+     */
+    public HotStandby(InetSocketAddress primary, long failoverTimeout, long now) {
+        this.primary = primary;
+        this.failoverTimeout = failoverTimeout;
+        this.lastHeard = now;
+    }
+
+    /**
+     * Handles a datagram from the primary
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @param now long current time
+     * @return true if the datagram was a replication message
+     */
+    public boolean handle(byte[] data, int length, long now) {
+        if (length < 9) return false;
+        long sequence = StandbyReplicator.getLong(data, 1);
+        switch (data[0]) {
+            case StandbyReplicator.REPLICATE -> {
+                if (synced && sequence == nextSequence) {
+                    if (StateRecordCodec.read(ByteBuffer.wrap(data, 9, length - 9), fireIDs)) {
+                        nextSequence++;
+                    } else {
+                        synced = false;
+                    }
+                } else if (sequence > nextSequence) {
+                    synced = false;
+                }
+            }
+            case StandbyReplicator.SYNC_START -> {
+                state = new SchedulerState();
+                nextSequence = sequence;
+                synced = true;
+            }
+            case StandbyReplicator.HEARTBEAT -> {
+                // a record lost after the last one that arrived
+                if (sequence >= nextSequence) synced = false;
+                readHeartbeat(data, length);
+            }
+            default -> {
+                return false;
+            }
+        }
+        lastHeard = now;
+        return true;
+    }
+
+    /**
+     * Checks whether the copy of the state is out of date and a sync
+     * should be asked for now
+     * @param now long current time
+     * @return true if the caller should send a SYNC_REQUEST to the primary
+     */
+    public boolean needsSync(long now) {
+        if (synced || now - lastSyncRequest < SYNC_RETRY_INTERVAL) return false;
+        lastSyncRequest = now;
+        return true;
+    }
+
+    /**
+     * Checks whether the primary has been silent for the failover timeout
+     * @param now long current time
+     * @return true if the standby should take over
+     */
+    public boolean primaryDown(long now) {
+        return now - lastHeard > failoverTimeout;
+    }
+
+    /**
+     * Getter for the deadline by which the primary must be heard from
+     * @return long time the standby takes over at if nothing arrives
+     */
+    public long getFailoverDeadline() {
+        return lastHeard + failoverTimeout + 1;
+    }
+
+    public InetSocketAddress getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Getter for the copy of the primary's state
+     * @return SchedulerState as of the last record applied
+     */
+    public SchedulerState getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether the copy of the state is complete up to the last
+     * record the primary sent, as far as the standby can tell
+     * @return true if no record is known to be missing
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Getter for the incident reporter's address, carried by heartbeats
+     * @return InetSocketAddress of the incident reporter, null if not known
+     */
+    public InetSocketAddress getReporter() {
+        return reporter;
+    }
+
+    /**
+     * Getter for the highest fire ID the primary told the standby about,
+     * in a heartbeat or a record. Events the incident reporter sent after
+     * it may have been lost.
+     * @return int highest fire ID, 0 if none
+     */
+    public int getLastFireID() {
+        return fireIDs.lastFireID;
+    }
+
+    private void readHeartbeat(byte[] data, int length) {
+        if (length < 18) return;
+        fireIDs.lastFireID = Math.max(fireIDs.lastFireID, StandbyReplicator.getInt(data, 9));
+        int port = StandbyReplicator.getInt(data, 13);
+        int addressLength = data[17];
+        if (addressLength == 0 || length < 18 + addressLength) return;
+        byte[] address = new byte[addressLength];
+        System.arraycopy(data, 18, address, 0, addressLength);
+        try {
+            reporter = new InetSocketAddress(InetAddress.getByAddress(address), port);
+        } catch (UnknownHostException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies records to the current copy of the state and remembers the
+     * highest fire ID among them
+     */
+    private class FireIDTracker implements SchedulerStateListener {
+        private int lastFireID;
+
+        @Override
+        public void fireBuffered(FireEvent event) {
+            lastFireID = Math.max(lastFireID, event.getFireID());
+            state.fireBuffered(event);
+        }
+
+        @Override
+        public void fireRemoved(int fireID) {
+            state.fireRemoved(fireID);
+        }
+
+        @Override
+        public void fireAssigned(int droneId, FireEvent event) {
+            lastFireID = Math.max(lastFireID, event.getFireID());
+            state.fireAssigned(droneId, event);
+        }
+
+        @Override
+        public void assignmentCleared(int droneId) {
+            state.assignmentCleared(droneId);
+        }
+
+        @Override
+        public void droneUpdated(DroneState drone) {
+            state.droneUpdated(drone);
+        }
+
+        @Override
+        public void droneRemoved(int droneId) {
+            state.droneRemoved(droneId);
+        }
+
+        @Override
+        public void allTasksSent() {
+            state.allTasksSent();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class is a bounded, lock-free, multi-producer single-consumer ring
+ * buffer used to hand fire events to the Scheduler thread. Any number of
+ * threads may offer at the same time without taking a lock, and offer
+ * never blocks: it fails straight away when the ring is full so the caller
+ * can apply its overflow policy. Only one thread may poll.
+ *
+ * Each slot carries a sequence number that says whether it is free for
+ * the producer claiming position p (sequence == p) or holds an element
+ * ready for the consumer at position p (sequence == p + 1).
+ * @param <E> type of the elements
+ */
+public class IngressRing<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Constructor for a ring
+     * @param capacity int minimum number of elements, rounded up to a power of two
+     */
+    public IngressRing(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element without blocking, safe to call from any thread
+     * @param element the element to add
+     * @return true if added, false if the ring is full
+     */
+    public boolean offer(E element) {
+        if (element == null) throw new NullPointerException("element");
+
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the consumer has not freed this slot yet
+            } else {
+                pos = tail.get(); // another producer took this position
+            }
+        }
+
+        slots.set(index, element);
+        sequences.set(index, pos + 1); // publish to the consumer
+        return true;
+    }
+
+    /**
+     * Removes the oldest element, must only be called by the consumer thread
+     * @return the oldest element, or null if the ring is empty
+     */
+    public E poll() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, pos + mask + 1); // free the slot for the next lap
+        head = pos + 1;
+        return element;
+    }
+
+    /**
+     * Getter for the capacity of the ring
+     * @return int number of slots
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate number of elements in the ring, exact when no offer is in progress
+     * @return int number of elements
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Checks if the ring is empty
+     * @return true if no element is waiting
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,11 @@
+package FireFightingDroneSwarm.Scheduler;
+
+/**
+ * Enum representing how sure the Scheduler is that a drone is still
+ * reachable, as judged by the LivenessMonitor from its status updates.
+ */
+public enum Liveness {
+    ALIVE,
+    SUSPECT,
+    DEAD
+}
@@ -0,0 +1,131 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * This class is an adaptive heartbeat failure detector for the drones the
+ * Scheduler knows about. Every status update from a drone counts as a
+ * heartbeat. For each drone the monitor keeps a running mean and variance
+ * of the time between heartbeats, and a drone becomes SUSPECT once it has
+ * been silent for longer than mean + SUSPECT_DEVIATIONS standard deviations
+ * (never less than MIN_SUSPECT_TIMEOUT), and DEAD after DEAD_FACTOR times
+ * that. A drone that is heard from again goes straight back to ALIVE.
+ */
+public class LivenessMonitor {
+
+    private static final long MIN_SUSPECT_TIMEOUT = 8000;
+    private static final double SUSPECT_DEVIATIONS = 4.0;
+    private static final double DEAD_FACTOR = 3.0;
+    // weight of the newest interval in the running mean and variance
+    private static final double SMOOTHING = 0.1;
+
+    private static class Record {
+        long lastHeartbeat;
+        double meanInterval;
+        double varInterval;
+        Liveness liveness = Liveness.ALIVE;
+    }
+
+    private final double expectedInterval;
+    private final Map<Integer, Record> records = new HashMap<>();
+
+    /**
+     * Constructor for a liveness monitor
+     * @param expectedInterval long interval in milliseconds drones are expected
+     *                         to send heartbeats at, used until real intervals are seen
+     */
+    public LivenessMonitor(long expectedInterval) {
+        this.expectedInterval = expectedInterval;
+    }
+
+    /**
+     * Records a heartbeat from a drone
+     * @param droneId int corresponding to the drone id
+     * @param now long current time in milliseconds
+     * @return the Liveness the drone had before this heartbeat, ALIVE for a new drone
+     */
+    public Liveness heartbeat(int droneId, long now) {
+        Record record = records.get(droneId);
+        if (record == null) {
+            record = new Record();
+            record.meanInterval = expectedInterval;
+            record.lastHeartbeat = now;
+            records.put(droneId, record);
+            return Liveness.ALIVE;
+        }
+
+        double interval = now - record.lastHeartbeat;
+        double diff = interval - record.meanInterval;
+        record.meanInterval += SMOOTHING * diff;
+        record.varInterval = (1 - SMOOTHING) * (record.varInterval + SMOOTHING * diff * diff);
+        record.lastHeartbeat = now;
+
+        Liveness previous = record.liveness;
+        record.liveness = Liveness.ALIVE;
+        return previous;
+    }
+
+    /**
+     * Stops watching a drone, for a drone handed over to another scheduler
+     * @param droneId int corresponding to the drone id
+     */
+    public void remove(int droneId) {
+        records.remove(droneId);
+    }
+
+    /**
+     * Getter for the current liveness of a drone
+     * @param droneId int corresponding to the drone id
+     * @return Liveness of the drone, ALIVE if it has never been seen
+     */
+    public Liveness getLiveness(int droneId) {
+        Record record = records.get(droneId);
+        return record == null ? Liveness.ALIVE : record.liveness;
+    }
+
+    /**
+     * Getter for how long a drone may stay silent before it is suspected
+     * @param droneId int corresponding to the drone id
+     * @return long timeout in milliseconds
+     */
+    public long getSuspectTimeout(int droneId) {
+        Record record = records.get(droneId);
+        if (record == null) return MIN_SUSPECT_TIMEOUT;
+        return suspectTimeout(record);
+    }
+
+    /**
+     * Re-evaluates every drone against the current time and reports each
+     * drone whose liveness changed.
+     * @param now long current time in milliseconds
+     * @param onChange BiConsumer called with the drone id and its new Liveness
+     */
+    public void check(long now, BiConsumer<Integer, Liveness> onChange) {
+        for (Map.Entry<Integer, Record> entry : records.entrySet()) {
+            Record record = entry.getValue();
+            long silence = now - record.lastHeartbeat;
+            long suspectAfter = suspectTimeout(record);
+
+            Liveness next;
+            if (silence > suspectAfter * DEAD_FACTOR) {
+                next = Liveness.DEAD;
+            } else if (silence > suspectAfter) {
+                next = Liveness.SUSPECT;
+            } else {
+                next = Liveness.ALIVE;
+            }
+
+            if (next != record.liveness) {
+                record.liveness = next;
+                onChange.accept(entry.getKey(), next);
+            }
+        }
+    }
+
+    private long suspectTimeout(Record record) {
+        double timeout = record.meanInterval + SUSPECT_DEVIATIONS * Math.sqrt(record.varInterval);
+        return Math.max(MIN_SUSPECT_TIMEOUT, (long) timeout);
+    }
+}
@@ -0,0 +1,18 @@
+package FireFightingDroneSwarm.Scheduler;
+
+/**
+ * Enum for what the Scheduler does with a fire event that arrives while
+ * its pending buffer is already at capacity.
+ * REJECT drops the new event.
+ * SHED_LOW drops a buffered LOW severity event to make room for a more
+ * severe one, and drops the new event if it is LOW itself.
+ * SPILL keeps the new event in an unbounded overflow list that is moved
+ * into the buffer as room frees up.
+ * A fire that goes back to the buffer after a drone fault or timeout is
+ * never subject to the policy, it may take the buffer past capacity.
+ */
+public enum OverflowPolicy {
+    REJECT,
+    SHED_LOW,
+    SPILL
+}
@@ -5,11 +5,26 @@ import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
 import FireFightingDroneSwarm.DroneSubsystem.FaultType;
 import FireFightingDroneSwarm.Events.EventLogger;
 import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.Metrics.Counter;
+import FireFightingDroneSwarm.Metrics.LatencyHistogram;
+import FireFightingDroneSwarm.Metrics.MetricsRegistry;
 import FireFightingDroneSwarm.FireIncidentSubsystem.*;
-
+import FireFightingDroneSwarm.Protocol.FailoverFrame;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+
+import javax.management.JMException;
+import java.io.IOException;
 import java.net.*;
-import java.time.LocalTime;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class implements the Scheduler responsible for dispatching
@@ -18,20 +33,105 @@ import java.util.*;
  */
 public class Scheduler implements Runnable {
 
-    private final Queue<FireEvent> buffer = new ArrayDeque<>();
+    // pending events, only touched by the scheduler (consumer) thread
+    private final FireEventQueue buffer;
     private final int capacity;
+    // lock-free hand-off from producer threads to the scheduler thread
+    private final IngressRing<FireEvent> ingress;
+    // events put() while the ring was full, unbounded under SPILL, capped at capacity under SHED_LOW
+    private final Queue<FireEvent> ringSpill = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger ringSpillSize = new AtomicInteger();
+    // the thread blocked in get(), woken by producers instead of polling
+    private volatile Thread waitingConsumer;
+    private final Deque<FireEvent> overflow = new ArrayDeque<>();
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.SHED_LOW;
     private IncidentReporter incidentReporter;
-    private boolean allTasksSent;
-    private boolean allTasksProcessed;
-    private Map<Integer, Zone> zoneIDs;
+    private volatile boolean allTasksSent;
+    private volatile boolean allTasksProcessed;
+    private volatile Map<Integer, Zone> zoneIDs;
+    // built from zoneIDs, read on every scoring pass
+    private volatile ZoneGeometry zones;
     private Map<Integer, DroneState> droneStates = new HashMap<>();
+    private final DroneSpatialIndex idleDrones = new DroneSpatialIndex();
+    // returning drones by the severity of fire the water they have left can put out
+    private final Map<Severity, DroneSpatialIndex> chainableDrones = new EnumMap<>(Severity.class);
+    // each drone's assignment, its share of the water when a fire is split
     private final Map<Integer, FireEvent> activeAssignments = new HashMap<>();
-    private final Map<Integer, Long> assignmentStartTimes = new HashMap<>();
+    // fire ID of each split fire to the number of its shares not done yet
+    private final Map<Integer, Integer> openShares = new HashMap<>();
+    // fire ID of each fire to the fire IDs of the reports merged into it, see coalesce()
+    private final Map<Integer, List<Integer>> absorbedFires = new HashMap<>();
     //private FireEvent currentEvent;
-    private DatagramSocket socket;
-    private DatagramPacket receivePacket;
-    private Random rand = new Random();
+    private Transport transport;
+    // reused for every assignment so sending does not allocate
+    private final byte[] sendData = new byte[FireEventFrame.MAX_LENGTH];
+    // every drone status is decoded into this one frame
+    private final Telemetry telemetry = new Telemetry();
+    // incoming fire events and outgoing assignments share this frame
+    private final FireEventFrame fireEventFrame = new FireEventFrame();
+    private boolean dispatchPending = false;
+    // published by the scheduler thread for callers watching a running scenario
+    private volatile boolean idle = true;
     private static final long PACKET_LOSS_TIMEOUT = 5000;
+    private static final long ASSIGNMENT_TIMEOUT = 30000;
+    private static final long TIMEOUT_CHECK_INTERVAL = 100;
+    private final SimulationClock clock;
+    private final AssignmentTimerWheel assignmentTimeouts;
+    private static final long HEARTBEAT_INTERVAL = 2000;
+    private static final long LIVENESS_CHECK_INTERVAL = 500;
+    private final LivenessMonitor liveness = new LivenessMonitor(HEARTBEAT_INTERVAL);
+    private static final int BATCH_CANDIDATES_PER_EVENT = 8;
+    // how many events at the head of the buffer one batch matches at most
+    private static final int BATCH_WINDOW = 32;
+    private boolean batchAssignment = false;
+    private boolean taskChaining = false;
+    private boolean cooperativeDispatch = false;
+    private boolean coalescing = false;
+    // how far apart two reports of a zone may be to count as the same fire
+    private static final Duration COALESCE_WINDOW = Duration.ofSeconds(10);
+    private static final int CREW_CANDIDATES = 8;
+    // told about every change to the state a restarted scheduler would need
+    private final StateListenerList stateListeners = new StateListenerList();
+    // live instrumentation of the scheduling loop, see getMetrics()
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final Counter packetsReceived = metrics.counter("scheduler.packets.received");
+    private final Counter firesReceived = metrics.counter("scheduler.fires.received");
+    private final Counter firesDropped = metrics.counter("scheduler.fires.dropped");
+    private final Counter firesCoalesced = metrics.counter("scheduler.fires.coalesced");
+    private final Counter assignmentsSent = metrics.counter("scheduler.assignments.sent");
+    private final Counter assignmentsTimedOut = metrics.counter("scheduler.assignments.timedOut");
+    private final LatencyHistogram receiveLatency = metrics.histogram("scheduler.latency.receive");
+    private final LatencyHistogram parseLatency = metrics.histogram("scheduler.latency.parse");
+    private final LatencyHistogram queueWait = metrics.histogram("scheduler.latency.queueWait");
+    private final LatencyHistogram scoringLatency = metrics.histogram("scheduler.latency.scoring");
+    private final LatencyHistogram dispatchLatency = metrics.histogram("scheduler.latency.dispatch");
+    private final LatencyHistogram timeoutLatency = metrics.histogram("scheduler.latency.timeouts");
+    private SchedulerJournal journal;
+    // hot standby, replicator is set on a primary and standby on a standby until it takes over
+    private StandbyReplicator replicator;
+    private HotStandby standby;
+    private InetSocketAddress reporterAddress;
+    private int lastFireID;
+    private final FailoverFrame failoverFrame = new FailoverFrame();
+    private final byte[] controlData = new byte[FailoverFrame.FRAME_LENGTH];
+    // drones told about a failover that have not been heard from since
+    private final Set<Integer> failoverPending = new HashSet<>();
+    private long failoverAnnounceUntil;
+    private boolean announceToReporter = false;
+    // sharded mode, see ShardCoordinator
+    private InetSocketAddress coordinator;
+    // drones the coordinator handed to this shard so far, reported back so it knows which arrived
+    private int coordinatorHandoffs;
+    private int shardId;
+    private final Set<Integer> lentDrones = new HashSet<>();
+    private final byte[] shardMessage = new byte[ShardCoordinator.MAX_MESSAGE];
+    // a shard leaves finalizing the shared log to its cluster
+    private boolean finalizeLog = true;
+    private static final long FAILOVER_ANNOUNCE_PERIOD = 5000;
+    // five missed replication heartbeats
+    public static final long FAILOVER_TIMEOUT = 1000;
+    // cost of a batch pairing the drone does not have the water for
+    private static final double INFEASIBLE = 1e12;
 
     /**
      * Constructor for the scheduler, default drones and incident
@@ -39,22 +139,66 @@ public class Scheduler implements Runnable {
      * @param capacity int for capacity of the task queue.
      */
     public Scheduler(int capacity) {
-        this.capacity = capacity;
-        this.incidentReporter = null;
+        this(capacity, null);
 
         try {
-            this.socket = new DatagramSocket(null);
-            socket.setReuseAddress(true);
-            socket.bind(new InetSocketAddress(50000));
-            socket.setSoTimeout(1000);
-            System.out.println("Bound to socket 50000");
-        } catch (SocketException e) {
+            this.transport = new UdpTransport(UdpTransport.SCHEDULER_PORT);
+            System.out.println("Bound to socket " + UdpTransport.SCHEDULER_PORT);
+        } catch (IOException e) {
             e.printStackTrace();
             System.out.println("Socket binding error for Scheduler");
         }
 
     }
 
+    /**
+     * Constructor for a scheduler that talks to the other subsystems
+     * through the given transport, for example a LoopbackTransport to run
+     * the whole swarm in one process.
+     * @param capacity int for capacity of the task queue.
+     * @param transport Transport the scheduler receives events and status on
+     */
+    public Scheduler(int capacity, Transport transport) {
+        this(capacity, transport, SimulationClock.REAL_TIME);
+    }
+
+    /**
+     * Constructor for a scheduler that takes its time from the given clock,
+     * for example a DiscreteEventClock to replay a scenario faster than
+     * real time. Every participant of the scenario must use the same clock.
+     * @param capacity int for capacity of the task queue.
+     * @param transport Transport the scheduler receives events and status on
+     * @param clock SimulationClock for assignment timeouts and drone liveness
+     */
+    public Scheduler(int capacity, Transport transport, SimulationClock clock) {
+        this.capacity = capacity;
+        this.clock = clock;
+        this.buffer = new FireEventQueue(clock);
+        this.assignmentTimeouts = new AssignmentTimerWheel(TIMEOUT_CHECK_INTERVAL, 512, clock.currentTimeMillis());
+        this.ingress = new IngressRing<>(capacity);
+        this.incidentReporter = null;
+        this.transport = transport;
+        for (Severity severity : Severity.values()) {
+            chainableDrones.put(severity, new DroneSpatialIndex());
+        }
+        // read from other threads without locking, a gauge may be a moment stale
+        metrics.gauge("scheduler.buffer.depth", () -> buffer.size() + overflow.size());
+        metrics.gauge("scheduler.drones.known", droneStates::size);
+        metrics.gauge("scheduler.drones.idle", idleDrones::size);
+        metrics.gauge("scheduler.assignments.active", activeAssignments::size);
+    }
+
+    /**
+     * Getter for the scheduler's metrics: packet, fire and assignment
+     * counts, buffer depth and idle drones, and how long receiving,
+     * parsing, waiting in the buffer, scoring, dispatching and handling
+     * timeouts take. Safe to read from any thread.
+     * @return MetricsRegistry of this scheduler
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     /**
      * Setter to set IncidentReporterfor this scheduler after construction.
      * @param incidentReporter IncidentReporter already initialized with this
@@ -65,49 +209,313 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Synchronized confirmation from any drone to then alert incident subsystem
+     * Setter for what to do with fire events that arrive while the buffer
+     * is at capacity, see OverflowPolicy.
+     * @param overflowPolicy OverflowPolicy to apply from now on
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Confirmation from any drone to then alert incident subsystem
      * @param fireEvent FireEvent that has been completed by a drone
      * @return true if successful
      */
-    public synchronized boolean confirmation(FireEvent fireEvent) {
+    public boolean confirmation(FireEvent fireEvent) {
         System.out.println("[SCHEDULER] Received confirmation of drone task: " + fireEvent);
         incidentReporter.getEventConfirmation(fireEvent);
-        notifyAll();
         return true;
     }
 
     /**
-     * Helper method for tests to add a drone state to the list of possible drones
+     * Helper method for tests to add a drone state to the list of possible drones.
+     * Drone states belong to the scheduler thread, so this must be called
+     * before that thread is started or from it.
      * @param key key index into droneStates map
      * @param droneState droneState value to map to key
      */
-    public synchronized void addDroneState(int key, DroneState droneState) {
+    public void addDroneState(int key, DroneState droneState) {
         droneStates.put(key, droneState);
+        reindex(droneState);
+        stateListeners.droneUpdated(droneState);
     }
 
     /**
-     * Synchronized put method to be invoked by incident subsystem to effectively add
-     * events to the queue
+     * Helper method to keep the idle drone index in sync with a drone's
+     * latest state. A drone is only indexed while it is IDLE, has no
+     * active assignment and is not suspected to be down, which are the
+     * drones assignDroneEvent may pick. With task chaining a RETURNING
+     * drone in the same position is also indexed under every severity its
+     * remaining water is enough for.
+     * @param drone the DroneState that was just created or updated
+     */
+    private void reindex(DroneState drone) {
+        int droneId = drone.getDroneId();
+        boolean available = activeAssignments.get(droneId) == null
+                && liveness.getLiveness(droneId) == Liveness.ALIVE;
+
+        if (available && drone.getStatus() == DroneStatus.IDLE) {
+            idleDrones.update(drone);
+        } else {
+            idleDrones.remove(droneId);
+        }
+
+        boolean returning = available && taskChaining && drone.getStatus() == DroneStatus.RETURNING;
+        for (Map.Entry<Severity, DroneSpatialIndex> entry : chainableDrones.entrySet()) {
+            if (returning && drone.getWaterTank() >= Drone.calculateWaterUsage(entry.getKey())) {
+                entry.getValue().update(drone);
+            } else {
+                entry.getValue().remove(droneId);
+            }
+        }
+    }
+
+    /**
+     * Helper method to check whether any drone could be dispatched right now
+     * @return true if no drone is idle, or returning with water to spare
+     */
+    private boolean noDronesAvailable() {
+        if (!idleDrones.isEmpty()) return false;
+        // a drone with enough water for any fire has enough for a LOW one
+        return chainableDrones.get(Severity.LOW).isEmpty();
+    }
+
+    /**
+     * Finds the best drone to send to an event, the nearest idle drone or,
+     * with task chaining, a nearer returning drone with enough water left.
+     * With cooperative dispatch as well, a returning drone short of water
+     * will do if a crew around it can cover the fire.
+     * @param event the FireEvent to be serviced
+     * @param zone int index of the event's zone in the zone geometry
+     * @return the closest available DroneState, or null if there is none
+     */
+    private DroneState nearestAvailable(FireEvent event, int zone) {
+        double x = zones.centerX(zone);
+        double y = zones.centerY(zone);
+        DroneState idle = idleDrones.nearest(x, y);
+        if (!taskChaining) return idle;
+
+        DroneState returning = chainableDrones.get(event.getSeverity()).nearest(x, y);
+        if (cooperativeDispatch) {
+            DroneState nearest = chainableDrones.get(Severity.LOW).nearest(x, y);
+            if (nearest != null && nearest != returning && crewFor(nearest, event, zone) != null) {
+                returning = nearest;
+            }
+        }
+        if (idle == null) return returning;
+        if (returning == null) return idle;
+        return score(event, returning, zone) > score(event, idle, zone) ? returning : idle;
+    }
+
+    /**
+     * Put method to be invoked by any thread to effectively add events to
+     * the queue. It never blocks and takes no lock, the event is handed to
+     * the scheduler thread through a lock-free ring and moved into the
+     * buffer by drainIngress(). If the ring itself is full the overflow
+     * policy decides what happens to the event. Under SHED_LOW at most
+     * capacity severe events are held for the scheduler thread, as no
+     * more could shed a LOW one from the buffer, further ones are dropped.
      * @param fireEvent FireEvent to be added to the queue of events
-     * @throws InterruptedException in cases of unexpected termination
+     * @return true if the event was accepted, false if it was dropped
+     */
+    public boolean put(FireEvent fireEvent) {
+        if (ingress.offer(fireEvent)) {
+            wakeConsumer();
+            return true;
+        }
+
+        OverflowPolicy policy = overflowPolicy;
+        // racing producers may each take the last place, the cap is approximate
+        if (policy == OverflowPolicy.SPILL
+                || (policy == OverflowPolicy.SHED_LOW && fireEvent.getSeverity() != Severity.LOW
+                    && ringSpillSize.get() < capacity)) {
+            // the scheduler thread applies the policy against the buffer when it drains this
+            ringSpillSize.incrementAndGet();
+            ringSpill.add(fireEvent);
+            wakeConsumer();
+            return true;
+        }
+
+        dropped(fireEvent, "Ingress full");
+        return false;
+    }
+
+    /**
+     * Moves every event handed over through put() into the buffer, applying
+     * the overflow policy once the buffer is at capacity. Only called from
+     * the scheduler (consumer) thread.
      */
-    public synchronized void put(FireEvent fireEvent) throws InterruptedException {
-        while (buffer.size() >= capacity) {
-            wait(); // full
+    private void drainIngress() {
+        // events already held back get the first free places
+        while (!overflow.isEmpty() && buffer.size() < capacity) {
+            bufferEvent(overflow.poll());
+        }
+
+        FireEvent event;
+        while ((event = ingress.poll()) != null) {
+            accept(event);
+        }
+        while ((event = ringSpill.poll()) != null) {
+            ringSpillSize.decrementAndGet();
+            accept(event);
         }
-        buffer.add(fireEvent);
-        System.out.println("[SCHEDULER] Buffered fire event: " + fireEvent);
-        notifyAll(); // wake scheduler consumer thread
     }
 
     /**
-     * Synchronized get method to be invoked by a drone to receive an event
-     * @return FireEvent for next possible event
+     * Adds an event to the buffer on the scheduler thread, or applies the
+     * overflow policy if the buffer is at capacity. With coalescing, a
+     * report for a zone whose fire is already waiting or being put out is
+     * merged into it rather than buffered on its own.
+     * @param event the FireEvent to buffer
+     */
+    private void accept(FireEvent event) {
+        if (coalescing && coalesce(event)) {
+            return;
+        }
+        if (buffer.size() < capacity || buffer.get(event.getFireID()) != null) {
+            bufferEvent(event);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case REJECT -> dropped(event, "Buffer full");
+            case SHED_LOW -> {
+                FireEvent shed = event.getSeverity() == Severity.LOW ? null : buffer.shedNewestLow();
+                if (shed == null) {
+                    dropped(event, "Buffer full");
+                } else {
+                    dropped(shed, "Shed for FireID " + event.getFireID());
+                    stateListeners.fireRemoved(shed.getFireID());
+                    bufferEvent(event);
+                }
+            }
+            case SPILL -> {
+                overflow.add(event);
+                // held back, but must not be lost if the scheduler restarts
+                stateListeners.fireBuffered(event);
+            }
+        }
+    }
+
+    /**
+     * Merges a report into the fire of its zone that is already known, so
+     * repeated FIRE_DETECTED and DRONE_REQUEST reports of one incident do
+     * not send a drone each. Only a report made within COALESCE_WINDOW of
+     * the fire's report counts as the same fire, a later one is a new fire
+     * in the same zone and is buffered on its own. A fire still waiting in
+     * the buffer takes the report over in place, keeping its fire ID and
+     * its place in the queue. A fire drones are already on absorbs the
+     * report, unless the report is more severe, then the report stays a
+     * fire of its own for the extra water only. An absorbed report is
+     * logged as done once the fire it was merged into is.
+     * @param event the FireEvent just received
+     * @return true if the report was merged and must not be buffered
+     */
+    private boolean coalesce(FireEvent event) {
+        if (buffer.get(event.getFireID()) != null) {
+            // a fire coming back after a fault, already merged by fire ID
+            return false;
+        }
+
+        FireEvent waiting = buffer.getByZone(event.getZoneID(), queued -> sameReport(queued, event));
+        if (waiting != null) {
+            bufferEvent(waiting.coalesce(event));
+            coalesced(event, waiting.getFireID());
+            return true;
+        }
+
+        FireEvent active = null;
+        int assignedWater = 0;
+        for (FireEvent assigned : activeAssignments.values()) {
+            if (assigned.getZoneID() == event.getZoneID() && assigned.getFireID() != event.getFireID()
+                    && sameReport(assigned, event)) {
+                active = assigned;
+                assignedWater += assigned.getRequiredWater();
+            }
+        }
+        if (active == null) {
+            return false;
+        }
+        if (event.getRequiredWater() <= assignedWater) {
+            coalesced(event, active.getFireID());
+            return true;
+        }
+        event.setRequiredWater(event.getRequiredWater() - assignedWater);
+        return false;
+    }
+
+    /**
+     * Helper method to tell if a report is close enough in time to the
+     * report of a known fire of its zone to be the same fire
+     * @param known FireEvent of the known fire
+     * @param report FireEvent just received
+     * @return true if both were reported within COALESCE_WINDOW
+     */
+    private static boolean sameReport(FireEvent known, FireEvent report) {
+        if (known.getTimestamp() == null || report.getTimestamp() == null) return false;
+        Duration apart = Duration.between(known.getTimestamp(), report.getTimestamp()).abs();
+        return apart.compareTo(COALESCE_WINDOW) <= 0;
+    }
+
+    private void coalesced(FireEvent event, int intoFireID) {
+        absorbedFires.computeIfAbsent(intoFireID, id -> new ArrayList<>()).add(event.getFireID());
+        firesCoalesced.increment();
+        System.out.println("[SCHEDULER] Merged fire event " + event.getFireID() + " into fire " + intoFireID);
+        LogManager.event("SCHEDULER", "FIRE_COALESCED")
+                .add("FireID", event.getFireID())
+                .add("Into", intoFireID)
+                .add("Zone", event.getZoneID())
+                .log();
+    }
+
+    private void bufferEvent(FireEvent event) {
+        buffer.add(event);
+        stateListeners.fireBuffered(event);
+        dispatchPending = true;
+        System.out.println("[SCHEDULER] Buffered fire event: " + event);
+    }
+
+    private void dropped(FireEvent event, String reason) {
+        firesDropped.increment();
+        System.out.println("[SCHEDULER] Dropped fire event (" + reason + "): " + event);
+        LogManager.event("SCHEDULER", "FIRE_DROPPED").add("FireID", event.getFireID()).add("Reason", reason).log();
+    }
+
+    /**
+     * Unparks the thread waiting in get(), if any, once there is something
+     * new for it to look at
+     */
+    private void wakeConsumer() {
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Get method to take the next event from the buffer, waiting until one
+     * is available. The calling thread parks until a producer wakes it, so
+     * like the rest of the consumer side it must only be called from one
+     * thread at a time.
+     * @return FireEvent for next possible event, null once all tasks are processed
      * @throws InterruptedException in cases of unexpected termination
      */
-    public synchronized FireEvent get() throws InterruptedException {
-        while (buffer.isEmpty() && !this.getAllTasksProcessed()) {
-            wait();
+    public FireEvent get() throws InterruptedException {
+        // registered before looking, so an event put from now on unparks this thread
+        waitingConsumer = Thread.currentThread();
+        try {
+            drainIngress();
+            while (buffer.isEmpty() && overflow.isEmpty() && !this.getAllTasksSent()
+                    && !this.getAllTasksProcessed()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                drainIngress();
+            }
+        } finally {
+            waitingConsumer = null;
         }
 
         if(this.getAllTasksProcessed()){
@@ -115,11 +523,14 @@ public class Scheduler implements Runnable {
         }
 
         FireEvent fireEvent = buffer.poll();
+        if (fireEvent != null) {
+            stateListeners.fireRemoved(fireEvent.getFireID());
+        }
+        drainIngress();
         if(this.getAllTasksSent() && buffer.isEmpty()) {
             this.allTasksProcessed = true;
         }
 
-        notifyAll();
         return fireEvent;
     }
 
@@ -128,8 +539,9 @@ public class Scheduler implements Runnable {
      * events remaining to send
      * @param allTasksSent boolean true when all events have been processed
      */
-    public synchronized void setAllTasksSent(boolean allTasksSent) {
+    public void setAllTasksSent(boolean allTasksSent) {
         this.allTasksSent = allTasksSent;
+        wakeConsumer();
     }
 
     /**
@@ -137,7 +549,7 @@ public class Scheduler implements Runnable {
      * possible events have been processed
      * @return false if more events to be processed, true otherwise
      */
-    public synchronized boolean getAllTasksSent() {
+    public boolean getAllTasksSent() {
         return this.allTasksSent;
     }
 
@@ -146,118 +558,756 @@ public class Scheduler implements Runnable {
      * drones
      * @return true if all tasks processed, false otherwise
      */
-    public synchronized boolean getAllTasksProcessed() {
+    public boolean getAllTasksProcessed() {
         return this.allTasksProcessed;
     }
 
     /**
-     * Setter for a map of ZoneIDs
+     * Getter for whether the scheduler had nothing to do at the end of its
+     * last loop, no fire waiting in the buffer and no drone on an assignment.
+     * Safe to call from any thread while the scheduler is running.
+     * @return true if the scheduler is idle
+     */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Setter for a map of ZoneIDs, also builds the zone geometry table
+     * the scheduling loop scores with
      * @param zoneIDs
      */
     public void setZoneIDs(Map<Integer, Zone> zoneIDs) {
+        this.zones = new ZoneGeometry(zoneIDs);
         this.zoneIDs = zoneIDs;
     }
 
+    /**
+     * Setter to switch the scheduler between greedy dispatch, where a single
+     * (event, drone) pair is picked per call, and batch dispatch, where the
+     * events at the head of the buffer are matched against the idle drones
+     * at once.
+     * @param batchAssignment true to enable batch assignment mode
+     */
+    public void setBatchAssignment(boolean batchAssignment) {
+        this.batchAssignment = batchAssignment;
+    }
+
+    /**
+     * Setter to let the scheduler chain tasks. A drone that has dropped its
+     * agent is done with its fire as soon as it starts RETURNING, and while
+     * it flies back it can be sent straight to another fire its remaining
+     * water is enough for, instead of first refilling at base. Must be set
+     * before the scheduler thread is started.
+     * @param taskChaining true to enable task chaining
+     */
+    public void setTaskChaining(boolean taskChaining) {
+        this.taskChaining = taskChaining;
+    }
+
+    /**
+     * Setter to let the scheduler split a fire across several drones when
+     * the drone picked for it does not carry enough water. Nearby idle
+     * drones, and returning ones with task chaining, are added until their
+     * combined water covers the fire, and each flies out at once to drop
+     * its share. Fires no crew can cover still go to the single drone.
+     * @param cooperativeDispatch true to enable cooperative dispatch
+     */
+    public void setCooperativeDispatch(boolean cooperativeDispatch) {
+        this.cooperativeDispatch = cooperativeDispatch;
+    }
+
+    /**
+     * Setter to let the scheduler merge repeated reports of the fire in a
+     * zone into one fire, instead of dispatching a drone for every report,
+     * see coalesce(). Must be set before the scheduler thread is started.
+     * @param coalescing true to enable coalescing of reports per zone
+     */
+    public void setCoalescing(boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    /**
+     * Makes this scheduler the primary of a hot standby: every change to
+     * its state is replicated to the standby scheduler, which takes over if
+     * this one stops sending heartbeats. Must be called before the
+     * scheduler thread is started.
+     * @param standbyAddress InetSocketAddress of the standby scheduler
+     */
+    public void setStandby(InetSocketAddress standbyAddress) {
+        replicator = new StandbyReplicator(transport, standbyAddress);
+        addStateListener(replicator);
+    }
+
+    /**
+     * Makes this scheduler the hot standby of a primary. Until the primary
+     * has been silent for failoverTimeout it only keeps a copy of the
+     * primary's state, then it takes over with that state and tells every
+     * drone and the incident reporter to send to it. Must be called before
+     * the scheduler thread is started. The timeout is clock time, with a
+     * DiscreteEventClock the settle period has to be long enough for the
+     * primary to send each heartbeat before the clock moves on.
+     * @param primaryAddress InetSocketAddress of the primary scheduler
+     * @param failoverTimeout long milliseconds without a heartbeat before taking over
+     */
+    public void setPrimary(InetSocketAddress primaryAddress, long failoverTimeout) {
+        standby = new HotStandby(primaryAddress, failoverTimeout, clock.currentTimeMillis());
+    }
+
+    /**
+     * Checks whether this scheduler is a standby that has not taken over
+     * @return true while the scheduler is a standby
+     */
+    public boolean isStandby() {
+        return standby != null;
+    }
+
+    /**
+     * Checks on the primary of a standby scheduler, asking it for a full
+     * sync if records were lost and taking over if it stopped. Called by
+     * the scheduler thread until it returns true.
+     * @return true once this scheduler has taken over
+     */
+    public boolean checkFailover() {
+        long now = clock.currentTimeMillis();
+        if (standby.needsSync(now)) {
+            try {
+                controlData[0] = StandbyReplicator.SYNC_REQUEST;
+                transport.send(controlData, 1, standby.getPrimary());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (!standby.primaryDown(now)) {
+            return false;
+        }
+        takeOver();
+        return true;
+    }
+
+    /**
+     * Takes over from a primary that stopped, with the copy of its state
+     * the standby kept
+     */
+    private void takeOver() {
+        HotStandby previous = standby;
+        standby = null;
+        restore(previous.getState());
+        lastFireID = Math.max(lastFireID, previous.getLastFireID());
+        reporterAddress = previous.getReporter();
+
+        System.out.println("[Scheduler] Primary " + previous.getPrimary() + " stopped, taking over with "
+                + activeAssignments.size() + " assignments and " + buffer.size() + " buffered fires"
+                + (previous.isSynced() ? "" : ", state may be out of date"));
+        LogManager.event("SCHEDULER", "FAILOVER")
+                .add("Primary", previous.getPrimary())
+                .add("Assignments", activeAssignments.size())
+                .add("Buffered", buffer.size())
+                .add("Synced", previous.isSynced())
+                .log();
+
+        if (journal != null) {
+            try {
+                journal.compact(this::reportState);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        failoverPending.addAll(droneStates.keySet());
+        failoverAnnounceUntil = clock.currentTimeMillis() + FAILOVER_ANNOUNCE_PERIOD;
+        announceToReporter = true;
+        announceFailover();
+    }
+
+    /**
+     * Tells the drones not heard from since the failover, or since they
+     * were handed to this shard, and after a failover the incident
+     * reporter, to send to this scheduler. Repeated for a while in case a
+     * frame is lost, both sides ignore repeats.
+     */
+    private void announceFailover() {
+        try {
+            for (int droneId : failoverPending) {
+                DroneState drone = droneStates.get(droneId);
+                int length = failoverFrame.set(droneId, lastFireID).encode(controlData);
+                transport.send(controlData, length, drone.getSocketAddress());
+            }
+            if (announceToReporter && reporterAddress != null) {
+                int length = failoverFrame.set(0, lastFireID).encode(controlData);
+                transport.send(controlData, length, reporterAddress);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Makes this scheduler one shard of a cluster behind a ShardCoordinator.
+     * The shard reports its load to the coordinator, takes the drones the
+     * coordinator or other shards hand to it and lends idle drones when the
+     * coordinator asks. Must be called before the scheduler thread is
+     * started, with the zones of the shard's region given to setZoneIDs.
+     * @param coordinatorAddress InetSocketAddress of the coordinator
+     * @param shardId int index of this shard in the cluster
+     */
+    public void setShard(InetSocketAddress coordinatorAddress, int shardId) {
+        this.coordinator = coordinatorAddress;
+        this.shardId = shardId;
+    }
+
+    /**
+     * Setter for whether the scheduler finalizes the shared log once all
+     * its tasks are complete, the cluster does it once for all its shards
+     * @param finalizeLog false to leave the log running
+     */
+    void setFinalizeLog(boolean finalizeLog) {
+        this.finalizeLog = finalizeLog;
+    }
+
+    /**
+     * Sends this shard's load to the coordinator
+     * @param leaving true if the shard is done and has no drone to lend anymore
+     */
+    private void sendLoadReport(boolean leaving) {
+        ByteBuffer out = ByteBuffer.wrap(shardMessage);
+        out.put(ShardCoordinator.LOAD_REPORT).putInt(shardId).putInt(buffer.size() + overflow.size())
+                .putInt(leaving ? 0 : idleDrones.size()).putInt(leaving ? 0 : droneStates.size())
+                .putInt(coordinatorHandoffs);
+        try {
+            transport.send(shardMessage, out.position(), coordinator);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lends the idle drone closest to another shard's region to it, when
+     * the coordinator asks. The drone is handed over with its state and is
+     * no longer this shard's, telemetry it sends here until it has
+     * switched over is ignored.
+     * @param data the byte array holding the LEND message
+     * @param length the length of the message
+     */
+    private void lendDrone(byte[] data, int length) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data, 1, length - 1);
+            double x = in.getDouble();
+            double y = in.getDouble();
+            int port = in.getInt();
+            byte[] ip = new byte[in.get()];
+            in.get(ip);
+            InetSocketAddress borrower = new InetSocketAddress(InetAddress.getByAddress(ip), port);
+
+            DroneState drone = idleDrones.nearest(x, y);
+            if (drone == null) {
+                return;
+            }
+            int droneId = drone.getDroneId();
+            droneStates.remove(droneId);
+            idleDrones.remove(droneId);
+            for (DroneSpatialIndex index : chainableDrones.values()) {
+                index.remove(droneId);
+            }
+            liveness.remove(droneId);
+            failoverPending.remove(droneId);
+            lentDrones.add(droneId);
+            stateListeners.droneRemoved(droneId);
+
+            ByteBuffer out = ByteBuffer.wrap(shardMessage).put(ShardCoordinator.HANDOFF);
+            StateRecordCodec.writeDroneUpdated(out, drone);
+            transport.send(shardMessage, out.position(), borrower);
+
+            System.out.println("[Scheduler] Lent Drone " + droneId + " to " + borrower);
+            LogManager.event("SCHEDULER", "DRONE_LENT")
+                    .add("DroneID", droneId)
+                    .add("To", borrower)
+                    .log();
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Takes over a drone handed to this shard, by the coordinator when the
+     * drone registers or by a shard lending it, and tells the drone to send
+     * here from now on
+     * @param data the byte array holding the HANDOFF message
+     * @param length the length of the message
+     * @param source InetSocketAddress of the coordinator or of the lending shard
+     */
+    private void adoptDrone(byte[] data, int length, InetSocketAddress source) {
+        SchedulerState handoff = new SchedulerState();
+        if (!StateRecordCodec.read(ByteBuffer.wrap(data, 1, length - 1), handoff)) {
+            System.out.println("[Scheduler] Ignoring malformed drone handoff");
+            return;
+        }
+        if (source.equals(coordinator)) {
+            coordinatorHandoffs++;
+        }
+        long now = clock.currentTimeMillis();
+        for (DroneState drone : handoff.getDrones().values()) {
+            int droneId = drone.getDroneId();
+            lentDrones.remove(droneId);
+            droneStates.put(droneId, drone);
+            liveness.heartbeat(droneId, now);
+            reindex(drone);
+            stateListeners.droneUpdated(drone);
+            failoverPending.add(droneId);
+
+            System.out.println("[Scheduler] Took over Drone " + droneId);
+            LogManager.Log("SCHEDULER", "DRONE_ADOPTED", "DroneID", droneId);
+        }
+        failoverAnnounceUntil = now + FAILOVER_ANNOUNCE_PERIOD;
+        announceFailover();
+    }
+
+    /**
+     * Adds a listener to be told about every change to the scheduler's
+     * state, on the scheduler thread. Must be called before the scheduler
+     * thread is started.
+     * @param listener SchedulerStateListener to add
+     */
+    public void addStateListener(SchedulerStateListener listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addStateListener
+     * @param listener SchedulerStateListener to remove
+     */
+    public void removeStateListener(SchedulerStateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    /**
+     * Sets the journal the scheduler records its state in. Whatever state
+     * the journal recovered, from a scheduler that stopped without
+     * finishing, is taken over first: buffered fires are dispatched again,
+     * drones keep their assignments with fresh timeouts and known drones
+     * can be dispatched without re-registering. Must be called before the
+     * scheduler thread is started.
+     * @param journal SchedulerJournal opened on the journal directory
+     * @throws IOException if the recovered state cannot be compacted into a new snapshot
+     */
+    public void setJournal(SchedulerJournal journal) throws IOException {
+        SchedulerState recovered = journal.getRecoveredState();
+        if (!recovered.isEmpty()) {
+            restore(recovered);
+            System.out.println("[Scheduler] Recovered " + recovered.getBuffered().size() + " buffered fires, "
+                    + recovered.getAssignments().size() + " assignments and "
+                    + recovered.getDrones().size() + " drones from the journal");
+            LogManager.event("SCHEDULER", "STATE_RECOVERED")
+                    .add("Buffered", recovered.getBuffered().size())
+                    .add("Assignments", recovered.getAssignments().size())
+                    .add("Drones", recovered.getDrones().size())
+                    .log();
+        }
+        // start the new run from a snapshot of what was taken over
+        journal.compact(this::reportState);
+        this.journal = journal;
+        addStateListener(journal);
+    }
+
+    /**
+     * Reports the whole current state to a listener, as if it had been
+     * built up from nothing. Only called from the scheduler thread, or
+     * before it is started.
+     * @param listener SchedulerStateListener to report to
+     */
+    public void reportState(SchedulerStateListener listener) {
+        for (DroneState drone : droneStates.values()) {
+            listener.droneUpdated(drone);
+        }
+        for (FireEvent event : buffer) {
+            listener.fireBuffered(event);
+        }
+        for (FireEvent event : overflow) {
+            listener.fireBuffered(event);
+        }
+        for (Map.Entry<Integer, FireEvent> entry : activeAssignments.entrySet()) {
+            listener.fireAssigned(entry.getKey(), entry.getValue());
+        }
+        if (allTasksSent) {
+            listener.allTasksSent();
+        }
+    }
+
+    /**
+     * Takes over state recorded by an earlier scheduler. Drones count as
+     * heard from now, a drone that is really gone is found out by the
+     * usual liveness checks.
+     * @param state SchedulerState to take over
+     */
+    private void restore(SchedulerState state) {
+        long now = clock.currentTimeMillis();
+        for (DroneState drone : state.getDrones().values()) {
+            droneStates.put(drone.getDroneId(), drone);
+            liveness.heartbeat(drone.getDroneId(), now);
+        }
+        for (FireEvent event : state.getBuffered().values()) {
+            buffer.add(event);
+        }
+        Map<Integer, Integer> shares = new HashMap<>();
+        for (Map.Entry<Integer, FireEvent> entry : state.getAssignments().entrySet()) {
+            activeAssignments.put(entry.getKey(), entry.getValue());
+            assignmentTimeouts.schedule(entry.getKey(), now + timeoutFor(entry.getValue()));
+            shares.merge(entry.getValue().getFireID(), 1, Integer::sum);
+        }
+        // only fires split across drones are tracked
+        shares.forEach((fireID, count) -> {
+            if (count > 1) openShares.put(fireID, count);
+        });
+        for (DroneState drone : droneStates.values()) {
+            reindex(drone);
+        }
+        allTasksSent = state.isAllTasksSent();
+        dispatchPending = !buffer.isEmpty();
+    }
+
     /**
      * This method consists of most of the scheduler logic,
      * it looks at the current fire events in the queue,
      * scores the best drone, and best event for that drone and then
      * dispatches a UDP message to that drone in particular.
+     * In batch mode every event that can be matched is dispatched instead.
      */
     public void assignDroneEvent() {
 
-        if (buffer.isEmpty() || droneStates.isEmpty()) {
+        drainIngress();
+
+        if (buffer.isEmpty() || noDronesAvailable()) {
             System.out.println("[SCHEDULER] No drones available or no buffer events");
             return;
         }
 
-        for(FireEvent fireEvent : buffer) {
-            System.out.println(fireEvent);
+        long scoringStart = System.nanoTime();
+        if (batchAssignment) {
+            assignBatch(scoringStart);
+            return;
+        }
+        if (dispatchOverdue(scoringStart)) {
+            return;
         }
 
         FireEvent bestEvent = null;
         DroneState bestDrone = null;
         double bestScore = 0;
 
-        // Iterate through every fire event
+        // Iterate through every fire event, for a given event the closest
+        // available drone always has the best score, so only that one is scored.
+        // The buffer visits severe fires roughly first, and an event whose
+        // best possible score (a drone right on the zone) cannot win is skipped
         for (FireEvent event : buffer) {
-
-            double[] zoneCenter = getZoneCenter(event.getZoneID());
-
-            for(DroneState drone: droneStates.values()) {
-                System.out.println(drone);
-            }
-            // Look for the first idle drone - to be changed later to include drones
-            // on the way to other zones
-            for (DroneState drone : droneStates.values()) {
-                if (drone.getStatus() != DroneStatus.IDLE) continue;
-                if (activeAssignments.get(drone.getDroneId()) != null) continue;
-
-
-                // Calculate the drone's distance to the zone center
-                double dx = zoneCenter[0] - drone.getPosX();
-                double dy = zoneCenter[1] - drone.getPosY();
-                double distance = Math.sqrt(dx * dx + dy * dy);
-                // Find event severity
-                double severityScore = switch (event.getSeverity()) {
-                    case LOW -> 1;
-                    case MODERATE -> 5;
-                    case HIGH -> 20;
-                };
-
-                // Compute the score for that particular drone
-                double totalScore = severityScore / (distance + 1); // avoid divide by zero
-                // Update when the score is better than the best so far
-                if (totalScore > bestScore) {
-                    bestScore = totalScore;
-                    bestEvent = event;
-                    bestDrone = drone;
-                }
+            if (severityWeight(event.getSeverity()) <= bestScore) continue;
+
+            int zone = zoneIndex(event.getZoneID());
+            DroneState drone = nearestAvailable(event, zone);
+            if (drone == null) continue;
+
+            double totalScore = score(event, drone, zone);
+            // Update when the score is better than the best so far
+            if (totalScore > bestScore) {
+                bestScore = totalScore;
+                bestEvent = event;
+                bestDrone = drone;
             }
         }
 
-        // Remove the event, and send a UDP packet to that drone
+        scoringLatency.recordSince(scoringStart);
+
         if (bestEvent != null) {
+            dispatch(bestDrone, bestEvent, bestScore);
+        }
+    }
 
-            buffer.remove(bestEvent);
-
-            LogManager.Log("SCHEDULER", "ASSIGN_TASK",
-                    "DroneID: " + bestDrone.getDroneId(),
-                    "FireID: " + bestEvent.getFireID(),
-                    "Score: " + String.format("%.2f", bestScore));
-
-            System.out.println("[Scheduler] Assigning Drone "
-                    + bestDrone.getDroneId()
-                    + " to Zone "
-                    + bestEvent.getZoneID());
-
-            int requiredWater = Drone.calculateWaterUsage(bestEvent.getSeverity());
-            if (bestDrone.getWaterTank() < requiredWater) {
-                if (bestEvent.isPreServiced()) {
-                    activeAssignments.put(bestDrone.getDroneId(), bestEvent);
-                    assignmentStartTimes.put(bestDrone.getDroneId(), System.currentTimeMillis());
-                    bestDrone.update(DroneStatus.EN_ROUTE, bestDrone.getPosX(), bestDrone.getPosY(), bestDrone.getWaterTank());
-                    //this.currentEvent = bestEvent;
-                    this.sendFireEventToDrone(bestDrone, bestEvent);
-                } else {
-                    bestEvent.setPreServiced(true);
-                    activeAssignments.put(bestDrone.getDroneId(), bestEvent);
-                    assignmentStartTimes.put(bestDrone.getDroneId(), System.currentTimeMillis());
-                    bestDrone.update(DroneStatus.EN_ROUTE, bestDrone.getPosX(), bestDrone.getPosY(), bestDrone.getWaterTank());
-                    //this.currentEvent = bestEvent;
-                    this.sendFireEventToDrone(bestDrone, bestEvent);
-                    activeAssignments.put(bestDrone.getDroneId(), bestEvent);
+    /**
+     * Sends the nearest available drone to the head of the buffer if it has
+     * waited past the aging bound of the queue, so that a far LOW fire is
+     * not starved by a stream of nearer, more severe fires that would
+     * always outscore it.
+     * @param scoringStart long System.nanoTime() the scoring started at
+     * @return true if the head was overdue and a drone was dispatched to it
+     */
+    private boolean dispatchOverdue(long scoringStart) {
+        FireEvent overdue = buffer.peekOverdue(clock.currentTimeMillis());
+        if (overdue == null) return false;
+
+        int zone = zoneIndex(overdue.getZoneID());
+        DroneState drone = nearestAvailable(overdue, zone);
+        if (drone == null) return false;
 
+        scoringLatency.recordSince(scoringStart);
+        dispatch(drone, overdue, score(overdue, drone, zone));
+        return true;
+    }
+
+    /**
+     * Batch version of assignDroneEvent. The BATCH_WINDOW events at the head
+     * of the buffer are each paired with a distinct idle drone so that the
+     * summed score of the batch is maximal, by solving it as a min-cost
+     * matching on the negated scores. Bounding the batch keeps the cost of
+     * a call flat however long the buffer grows, the events behind the
+     * window move up as the ones ahead are dispatched.
+     * Only the few nearest idle drones of each event are considered, which
+     * keeps the matrix small when there are many more drones than events.
+     * With task chaining the few nearest returning drones with enough water
+     * are candidates as well, and pairings a drone lacks the water for are
+     * never made. Overdue events at the head of the buffer are dispatched
+     * first, one by one, before the rest is matched.
+     * @param scoringStart long System.nanoTime() the scoring started at
+     */
+    private void assignBatch(long scoringStart) {
+        while (dispatchOverdue(scoringStart)) {
+            if (buffer.isEmpty() || noDronesAvailable()) return;
+        }
+
+        List<FireEvent> events = buffer.peekFirst(BATCH_WINDOW);
+        int[] eventZones = new int[events.size()];
+        Map<Integer, DroneState> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            FireEvent event = events.get(i);
+            int zone = zoneIndex(event.getZoneID());
+            eventZones[i] = zone;
+            double x = zones.centerX(zone);
+            double y = zones.centerY(zone);
+            for (DroneState drone : idleDrones.nearest(x, y, BATCH_CANDIDATES_PER_EVENT)) {
+                candidates.putIfAbsent(drone.getDroneId(), drone);
+            }
+            if (taskChaining) {
+                for (DroneState drone : chainableDrones.get(event.getSeverity())
+                        .nearest(x, y, BATCH_CANDIDATES_PER_EVENT)) {
+                    candidates.putIfAbsent(drone.getDroneId(), drone);
                 }
             }
-            activeAssignments.put(bestDrone.getDroneId(), bestEvent);
-            assignmentStartTimes.put(bestDrone.getDroneId(), System.currentTimeMillis());
-            bestDrone.update(DroneStatus.EN_ROUTE, bestDrone.getPosX(), bestDrone.getPosY(), bestDrone.getWaterTank());
-            //this.currentEvent = bestEvent;
-            this.sendFireEventToDrone(bestDrone, bestEvent);
+        }
+
+        List<DroneState> drones = new ArrayList<>(candidates.values());
+        double[][] cost = new double[events.size()][drones.size()];
+        for (int i = 0; i < events.size(); i++) {
+            for (int j = 0; j < drones.size(); j++) {
+                DroneState drone = drones.get(j);
+                boolean feasible = drone.getStatus() == DroneStatus.IDLE
+                        || drone.getWaterTank() >= events.get(i).getRequiredWater();
+                cost[i][j] = feasible ? -score(events.get(i), drone, eventZones[i]) : INFEASIBLE;
+            }
+        }
+
+        int[] match = AssignmentSolver.solve(cost);
+        scoringLatency.recordSince(scoringStart);
+        for (int i = 0; i < match.length; i++) {
+            // a drone may have been taken as crew for an earlier event of the batch
+            if (match[i] >= 0 && cost[i][match[i]] < INFEASIBLE
+                    && activeAssignments.get(drones.get(match[i]).getDroneId()) == null) {
+                dispatch(drones.get(match[i]), events.get(i), -cost[i][match[i]]);
+            }
         }
     }
 
+    /**
+     * Scores sending a drone to an event, higher is better. Severe fires
+     * and short flights are favoured.
+     * @param event the FireEvent to be serviced
+     * @param drone the DroneState of the candidate drone
+     * @param zone int index of the event's zone in the zone geometry
+     * @return double score of the pairing
+     */
+    private double score(FireEvent event, DroneState drone, int zone) {
+        // Calculate the drone's distance to the zone center
+        double distance = zones.distanceTo(zone, drone.getPosX(), drone.getPosY());
+        // Compute the score for that particular drone
+        return severityWeight(event.getSeverity()) / (distance + 1); // avoid divide by zero
+    }
+
+    /**
+     * Helper method for how much a fire's severity weighs in its score
+     * @param severity Severity of the fire
+     * @return double weight of that severity
+     */
+    private static double severityWeight(Severity severity) {
+        return switch (severity) {
+            case LOW -> 1;
+            case MODERATE -> 5;
+            case HIGH -> 20;
+        };
+    }
+
+    /**
+     * Removes the event from the buffer and assigns it to the chosen drone,
+     * or with cooperative dispatch to a crew around it if the drone is
+     * short of water.
+     * @param drone the DroneState corresponding to the drone to be dispatched
+     * @param event the FireEvent that the drone will service
+     * @param score double score the pairing was chosen with, for logging
+     */
+    private void dispatch(DroneState drone, FireEvent event, double score) {
+
+        long enqueued = buffer.enqueuedAt(event.getFireID());
+        if (enqueued >= 0) {
+            queueWait.recordSince(enqueued);
+        }
+        buffer.remove(event);
+
+        int requiredWater = event.getRequiredWater();
+        if (cooperativeDispatch && drone.getWaterTank() < requiredWater) {
+            List<DroneState> crew = crewFor(drone, event, zoneIndex(event.getZoneID()));
+            if (crew != null) {
+                dispatchShares(crew, event, score);
+                return;
+            }
+        }
+
+        // A drone without enough water still attempts the fire first,
+        // mark the event so its retry is known to be partly serviced
+        if (drone.getWaterTank() < requiredWater && !event.isPreServiced()) {
+            event.setPreServiced(true);
+        }
+        assign(drone, event, score);
+    }
+
+    /**
+     * Picks a crew for a fire, the chosen drone plus the nearest available
+     * drones until their water covers what the fire needs.
+     * @param lead the DroneState of the drone picked for the fire
+     * @param event the FireEvent to be serviced
+     * @param zone int index of the event's zone in the zone geometry
+     * @return List of DroneStates starting with lead, or null if no crew can cover the fire
+     */
+    private List<DroneState> crewFor(DroneState lead, FireEvent event, int zone) {
+        double x = zones.centerX(zone);
+        double y = zones.centerY(zone);
+        List<DroneState> candidates = new ArrayList<>(idleDrones.nearest(x, y, CREW_CANDIDATES));
+        if (taskChaining) {
+            candidates.addAll(chainableDrones.get(Severity.LOW).nearest(x, y, CREW_CANDIDATES));
+        }
+        candidates.sort(Comparator.comparingDouble(d -> -score(event, d, zone)));
+
+        List<DroneState> crew = new ArrayList<>();
+        crew.add(lead);
+        int water = lead.getWaterTank();
+        for (DroneState drone : candidates) {
+            if (water >= event.getRequiredWater()) break;
+            if (drone.getWaterTank() <= 0 || crew.contains(drone)) continue;
+            crew.add(drone);
+            water += drone.getWaterTank();
+        }
+        return water >= event.getRequiredWater() ? crew : null;
+    }
+
+    /**
+     * Splits a fire into one share per crew drone, each share being as much
+     * of the remaining water as the drone carries, and assigns them all.
+     * Any injected fault stays with the first drone's share.
+     * @param crew List of DroneStates whose combined water covers the fire
+     * @param event the FireEvent to be split
+     * @param score double score the fire was chosen with, for logging
+     */
+    private void dispatchShares(List<DroneState> crew, FireEvent event, double score) {
+        LogManager.event("SCHEDULER", "FIRE_SPLIT")
+                .add("FireID", event.getFireID())
+                .add("Drones", crew.size())
+                .add("Water", event.getRequiredWater())
+                .log();
+        System.out.println("[Scheduler] Splitting fire " + event.getFireID() + " across " + crew.size() + " drones");
+
+        int remaining = event.getRequiredWater();
+        openShares.merge(event.getFireID(), crew.size(), Integer::sum);
+        for (int i = 0; i < crew.size(); i++) {
+            DroneState drone = crew.get(i);
+            int share = Math.min(drone.getWaterTank(), remaining);
+            remaining -= share;
+
+            FireEvent part = new FireEvent(event.getZoneID(), event.getTaskType(), event.getTimestamp(),
+                    event.getSeverity(), i == 0 ? event.getFault() : FaultType.NONE, event.getFireID());
+            part.setRequiredWater(share);
+            part.setEnqueuedAt(event.getEnqueuedAt());
+            assign(drone, part, score);
+        }
+    }
+
+    /**
+     * Helper method to record that a drone is done with its assignment,
+     * logging when the last share of a split fire is done.
+     * @param droneId int corresponding to the drone
+     * @param fireID int fire ID of the finished assignment
+     */
+    private void assignmentDone(int droneId, int fireID) {
+        activeAssignments.remove(droneId);
+        assignmentTimeouts.cancel(droneId);
+        stateListeners.assignmentCleared(droneId);
+
+        if (closeShare(fireID)) {
+            LogManager.Log("SCHEDULER", "SPLIT_FIRE_DONE", "FireID", fireID);
+        }
+        if (!openShares.containsKey(fireID)) {
+            fireDone(fireID);
+        }
+    }
+
+    /**
+     * Helper method to log the reports merged into a fire as done, once
+     * the last drone on the fire is
+     * @param fireID int fire ID of the fire that is done
+     */
+    private void fireDone(int fireID) {
+        List<Integer> absorbed = absorbedFires.remove(fireID);
+        if (absorbed == null) return;
+        for (int absorbedID : absorbed) {
+            LogManager.event("SCHEDULER", "COALESCED_FIRE_DONE")
+                    .add("FireID", absorbedID)
+                    .add("Into", fireID)
+                    .log();
+        }
+    }
+
+    /**
+     * Helper method to count one share of a split fire as no longer open
+     * @param fireID int fire ID of the share
+     * @return true if that was the last open share of a split fire
+     */
+    private boolean closeShare(int fireID) {
+        Integer shares = openShares.get(fireID);
+        if (shares == null) return false;
+        if (shares > 1) {
+            openShares.put(fireID, shares - 1);
+            return false;
+        }
+        openShares.remove(fireID);
+        return true;
+    }
+
+    /**
+     * Records the assignment and sends a UDP packet to the chosen drone.
+     * @param drone the DroneState corresponding to the drone to be dispatched
+     * @param event the FireEvent, or the share of one, that the drone will service
+     * @param score double score the pairing was chosen with, for logging
+     */
+    private void assign(DroneState drone, FireEvent event, double score) {
+
+        LogManager.event("SCHEDULER", "ASSIGN_TASK")
+                .add("DroneID", drone.getDroneId())
+                .add("FireID", event.getFireID())
+                .add("Zone", event.getZoneID())
+                .add("Severity", event.getSeverity())
+                .add("Score", score, 2)
+                .log();
+
+        System.out.println("[Scheduler] Assigning Drone "
+                + drone.getDroneId()
+                + " to Zone "
+                + event.getZoneID());
+
+        activeAssignments.put(drone.getDroneId(), event);
+        stateListeners.fireAssigned(drone.getDroneId(), event);
+        assignmentTimeouts.schedule(drone.getDroneId(), clock.currentTimeMillis() + timeoutFor(event));
+        drone.update(DroneStatus.EN_ROUTE, drone.getPosX(), drone.getPosY(), drone.getWaterTank());
+        reindex(drone);
+        long sendStart = System.nanoTime();
+        this.sendFireEventToDrone(drone, event);
+        dispatchLatency.recordSince(sendStart);
+        assignmentsSent.increment();
+    }
+
     /**
      * Returns the distance between 2 zones
      * @param zone1 center of the first zone
@@ -265,22 +1315,11 @@ public class Scheduler implements Runnable {
      * @return double distance between the zones
      */
     public double calculateZoneDistance(int zone1, int zone2) {
-        double dx = 0;
-        double dy = 0;
         // drone is at base
         if (zone2 == 0) {
-            double[] zone1Distance = getZoneCenter(zone1);
-            dx = 0 - zone1Distance[0];
-            dy = 0 - zone1Distance[1];
-
-        } else {
-            double[] zone1Distance = getZoneCenter(zone1);
-            double[] zone2Distance = getZoneCenter(zone2);
-            dx = zone2Distance[0] - zone1Distance[0];
-            dy = zone2Distance[1] - zone1Distance[1];
+            return zones.distanceTo(zoneIndex(zone1), 0, 0);
         }
-
-        return Math.sqrt(dx * dx + dy * dy);
+        return zones.distance(zoneIndex(zone1), zoneIndex(zone2));
     }
 
     /**
@@ -295,36 +1334,8 @@ public class Scheduler implements Runnable {
 
             Zone zone = zoneIDs.get(event.getZoneID());
 
-            int startX = zone.getStartCoordinates()[0];
-            int startY = zone.getStartCoordinates()[1];
-            int endX = zone.getEndCoordinates()[0];
-            int endY = zone.getEndCoordinates()[1];
-            int fireID = event.getFireID();
-
-            byte[] data = new byte[15];
-
-            data[0] = 3; // message type (assignment)
-            data[1] = (byte) event.getZoneID();
-            data[2] = (byte) event.getSeverity().ordinal();
-            data[3] = (byte) event.getTaskType().ordinal();
-
-            // NEW
-            data[4] = (byte) event.getFault().ordinal();
-
-            // shifted coordinates
-            separateBytes(data, 5, startX);
-            separateBytes(data, 7, startY);
-            separateBytes(data, 9, endX);
-            separateBytes(data, 11, endY);
-            separateBytes(data, 13, fireID);
-
-            InetAddress droneAddress = drone.getAddress();
-            int dronePort = drone.getPort();
-
-            DatagramPacket packet =
-                    new DatagramPacket(data, data.length, droneAddress, dronePort);
-
-            socket.send(packet);
+            int length = fireEventFrame.set(FireEventFrame.ASSIGNMENT, event, zone, drone.getDroneId()).encode(sendData);
+            transport.send(sendData, length, drone.getSocketAddress());
 
             System.out.println("[Scheduler] Sent task to Drone "
                     + drone.getDroneId());
@@ -339,98 +1350,124 @@ public class Scheduler implements Runnable {
      * @param zoneId the zone's ID
      * @return double[] with the coordinates
      */
-    public synchronized double[] getZoneCenter(int zoneId) {
-        if (zoneIDs == null) throw new IllegalStateException("zonesById not set");
-        Zone z = zoneIDs.get(zoneId);
-        if (z == null) throw new IllegalArgumentException("Unknown zoneId: " + zoneId);
+    public double[] getZoneCenter(int zoneId) {
+        int zone = zoneIndex(zoneId);
+        return new double[]{ zones.centerX(zone), zones.centerY(zone) };
+    }
 
-        int[] s = z.getStartCoordinates();
-        int[] e = z.getEndCoordinates();
-        return new double[]{ (s[0] + e[0]) / 2.0, (s[1] + e[1]) / 2.0 };
+    /**
+     * Helper method to find a zone in the zone geometry table
+     * @param zoneId the zone's ID
+     * @return int index of the zone in the table
+     */
+    private int zoneIndex(int zoneId) {
+        ZoneGeometry geometry = zones;
+        if (geometry == null) throw new IllegalStateException("zonesById not set");
+        int zone = geometry.indexOf(zoneId);
+        if (zone < 0) throw new IllegalArgumentException("Unknown zoneId: " + zoneId);
+        return zone;
     }
 
     /**
      * Notifies the scheduler that the drone has reached the fire zone.
      * This satisfies the Iteration 2 requirement for arrival notification.
      */
-    public synchronized void notifyArrival(int droneId) {
+    public void notifyArrival(int droneId) {
         System.out.println("[SCHEDULER] Drone " + droneId + " has arrived at the zone.");
-        notifyAll();
     }
 
     /**
-     * Method to receive and parse a Datagram Packet representing a fire incident from the incident
-     * reporter subsystem. Construct a new FireEvent and add to Queue.
+     * Waits up to timeoutMs for datagrams on the scheduler's transport and
+     * handles every datagram that is ready, a fire incident from the incident
+     * reporter subsystem or a status update from a drone.
+     * @param timeoutMs long maximum time to wait for a datagram in milliseconds
      */
-    public void receivePacket() {
+    public void pollPackets(long timeoutMs) {
         try {
+            if (transport.receive(timeoutMs, this::handlePacket) > 0) {
+                dispatchPending = true;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-            receivePacket = new DatagramPacket(new byte[1024], 1024);
-            socket.receive(receivePacket);
+    /**
+     * Routes a received datagram to its handler by message type.
+     * @param data the byte array holding the datagram
+     * @param length the length of the datagram
+     * @param source the address of the sender
+     */
+    private void handlePacket(byte[] data, int length, InetSocketAddress source) {
+        if (length == 0) {
+            return;
+        }
+        packetsReceived.increment();
+        long start = System.nanoTime();
+        try {
+            routePacket(data, length, source);
+        } finally {
+            receiveLatency.recordSince(start);
+        }
+    }
 
-            byte[] data = receivePacket.getData();
-            InetAddress address = receivePacket.getAddress();
-            int port = receivePacket.getPort();
+    private void routePacket(byte[] data, int length, InetSocketAddress source) {
+        if (standby != null) {
+            // only the primary's replication stream counts until taking over
+            standby.handle(data, length, clock.currentTimeMillis());
+            return;
+        }
+        InetAddress address = source.getAddress();
+        int port = source.getPort();
 
-            if (data[0] == 1) {
-                handleFireEvent(data);
+        switch (data[0]) {
+            case FireEventFrame.FIRE_EVENT -> {
+                reporterAddress = source;
+                handleFireEvent(data, length);
             }
-            else {
-                handleDroneStatus(data, receivePacket.getLength(), address, port);
+            case FireEventFrame.ALL_EVENTS_SENT -> {
+                reporterAddress = source;
+                System.out.println("[Scheduler] Incident reporter has sent all events");
+                setAllTasksSent(true);
+                stateListeners.allTasksSent();
             }
-
-        } catch (SocketTimeoutException e) {
-            // printing this out is mad annoying
-            // makes console look super ugly
-        }
-        catch (Exception e) {
-            e.printStackTrace();
+            case Telemetry.STATUS, Telemetry.FAULT -> handleDroneStatus(data, length, address, port);
+            case ShardCoordinator.LEND -> lendDrone(data, length);
+            case ShardCoordinator.HANDOFF -> adoptDrone(data, length, source);
+            case StandbyReplicator.SYNC_REQUEST -> {
+                if (replicator != null) {
+                    replicator.sync(this::reportState);
+                }
+            }
+            default -> System.out.println("[Scheduler] Ignoring packet with unknown type " + data[0]);
         }
     }
 
     /**
      * This method handles parsing and instantiation of a FireEvent
-     * after a UDP Datagram has been received.
-     *
-     * Expected packet format:
-     * byte[0] = message type (1 = FIRE_EVENT)
-     * byte[1] = zone ID
-     * byte[2] = severity level
-     * byte[3] = task type
-     * byte[4] = fault type
-     * byte[5..6] = zone start X coordinate
-     * byte[7..8] = zone start Y coordinate
-     * byte[9..10] = zone end X coordinate
-     * byte[11..12] = zone end Y coordinate
+     * after a UDP Datagram has been received. See FireEventFrame for
+     * the packet format.
      *
      * @param data the byte array from the UDP datagram.
+     * @param length the length of the datagram.
      */
-    private void handleFireEvent(byte[] data) {
-
-        int zoneID = data[1];
-        int severityNum = data[2];
-        int taskNum = data[3];
-        int faultNum = data[4];
+    private void handleFireEvent(byte[] data, int length) {
 
-        // shifted all indices by +1 after inserting faultType
-        int startX = combineBytes(data[5], data[6]);
-        int startY = combineBytes(data[7], data[8]);
-        int endX   = combineBytes(data[9], data[10]);
-        int endY   = combineBytes(data[11], data[12]);
-        int eventId = combineBytes(data[13], data[14]);
-
-        Severity severity = Severity.values()[severityNum];
-        TaskType taskType = TaskType.values()[taskNum];
-        FaultType faultType = FaultType.values()[faultNum];
+        long parseStart = System.nanoTime();
+        if (!fireEventFrame.decode(data, length)) {
+            System.out.println("[Scheduler] Ignoring fire event with unknown version or bad format");
+            return;
+        }
 
-        FireEvent event = new FireEvent(zoneID, taskType, LocalTime.now(), severity, faultType, eventId);
-        LogManager.Log("SCHEDULER", "FIRE_RECEIVED", "FireID: " + event.getFireID(), "Zone: " + event.getZoneID());
+        FireEvent event = fireEventFrame.toFireEvent();
+        parseLatency.recordSince(parseStart);
+        firesReceived.increment();
+        int zoneID = event.getZoneID();
+        lastFireID = Math.max(lastFireID, event.getFireID());
+        LogManager.Log("SCHEDULER", "FIRE_RECEIVED", "FireID", event.getFireID(), "Zone", event.getZoneID());
 
-        try {
-            put(event);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        // already on the scheduler thread, so skip the ingress ring
+        accept(event);
 
         System.out.println("[Scheduler] Received fire event for zone " + zoneID);
         this.assignDroneEvent();
@@ -438,7 +1475,8 @@ public class Scheduler implements Runnable {
 
     /**
      * This method handles updating and initializing a DroneStatus object
-     * upon receiving a UDP package from a drone.
+     * upon receiving a telemetry frame from a drone. The frame is decoded
+     * into a single reused Telemetry object, see Telemetry for the layout.
      * @param data the byte array from the UDP datagram.
      * @param length the length of the byte array.
      * @param address the IP from the datagram.
@@ -446,27 +1484,38 @@ public class Scheduler implements Runnable {
      */
     private void handleDroneStatus(byte[] data, int length, InetAddress address, int port) {
 
-        String message = new String(data, 0, length).trim();
-        String[] parts = message.split(",");
-
-
-        if (message.isEmpty()) {
-            System.out.println("Ignoring empty packet");
+        if (!telemetry.decode(data, length)) {
+            System.out.println("[Scheduler] Ignoring malformed telemetry frame");
             return;
         }
 
-        if (parts[0].equals("FAULT")) {
-            System.out.println("[Scheduler] Received explicit fault packet: " + message);
+        if (telemetry.isFault()) {
+            System.out.println("[Scheduler] Received explicit fault packet from Drone " + telemetry.getDroneId()
+                    + " Status: " + telemetry.getStatus());
             return;
         }
 
-
-        int droneId = Integer.parseInt(parts[0]);
-        DroneStatus status = DroneStatus.valueOf(parts[1]);
-        double posX = Double.parseDouble(parts[2]);
-        double posY = Double.parseDouble(parts[3]);
-        int water = Integer.parseInt(parts[4]);
-        int fireID = Integer.parseInt(parts[5]);
+        int droneId = telemetry.getDroneId();
+        DroneStatus status = telemetry.getStatus();
+        double posX = telemetry.getPosX();
+        double posY = telemetry.getPosY();
+        int water = telemetry.getWater();
+        int fireID = telemetry.getFireID();
+        if (lentDrones.contains(droneId)) {
+            // handed to another shard and not switched over yet
+            return;
+        }
+        failoverPending.remove(droneId);
+
+        // any status from a drone proves it is still reachable
+        Liveness previous = liveness.heartbeat(droneId, clock.currentTimeMillis());
+        if (previous != Liveness.ALIVE) {
+            System.out.println("[Scheduler] Drone " + droneId + " is reachable again, was " + previous);
+            LogManager.event("SCHEDULER", "DRONE_ALIVE")
+                    .add("DroneID", droneId)
+                    .add("Was", previous)
+                    .log();
+        }
 
         DroneState drone = droneStates.get(droneId);
 
@@ -474,52 +1523,53 @@ public class Scheduler implements Runnable {
             drone = new DroneState(droneId, status, posX, posY, water, address, port);
             droneStates.put(droneId, drone);
 
-            LogManager.Log("SCHEDULER", "DRONE_REGISTERED", "ID: " + droneId, "Addr: " + address);
+            LogManager.event("SCHEDULER", "DRONE_REGISTERED")
+                    .add("ID", droneId)
+                    .add("Addr", address)
+                    .log();
             System.out.println("[Scheduler] Registered Drone " + droneId);
+            stateListeners.droneUpdated(drone);
 
         } else {
 
             FireEvent assigned = activeAssignments.get(droneId);
+            DroneStatus previousStatus = drone.getStatus();
 
             if (assigned == null) {
                 drone.update(status, posX, posY, water);
             } else if (fireID == assigned.getFireID()) {
                 drone.update(status, posX, posY, water);
-                assignmentStartTimes.put(droneId, System.currentTimeMillis());
+                if (taskChaining && status == DroneStatus.RETURNING && previousStatus == DroneStatus.DROPPING_AGENT) {
+                    // the agent is down, the flight back no longer belongs to this fire
+                    assignmentDone(droneId, fireID);
+                    LogManager.event("SCHEDULER", "TASK_DONE_RETURNING")
+                            .add("DroneID", droneId)
+                            .add("FireID", fireID)
+                            .add("Water", water)
+                            .log();
+                } else {
+                    assignmentTimeouts.schedule(droneId, clock.currentTimeMillis() + timeoutFor(assigned));
+                }
             } else {
                 return;
             }
 
+            // positions change every step, only status changes are worth recording
+            if (status != previousStatus) {
+                stateListeners.droneUpdated(drone);
+            }
         }
 
         switch(status) {
             case FAULTED:
             case OUT_OF_SERVICE: {
-                FireEvent assignedEvent = activeAssignments.remove(droneId);
-                assignmentStartTimes.remove(droneId);
-
-                if (assignedEvent != null) {
-                    FireEvent failed = new FireEvent(
-                            assignedEvent.getZoneID(),
-                            assignedEvent.getTaskType(),
-                            LocalTime.now(),
-                            assignedEvent.getSeverity(),
-                            FaultType.NONE,
-                    rand.nextInt(12) + 1);
-
-                    try {
-                        put(failed);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }
+                requeueAssignment(droneId, "DRONE_FAULT");
                 break;
             }
             case IDLE:
                 if(activeAssignments.get(droneId) != null){
                     if(fireID == activeAssignments.get(droneId).getFireID()){
-                        activeAssignments.remove(droneId);
-                        assignmentStartTimes.remove(droneId);
+                        assignmentDone(droneId, fireID);
                     }
                 }
                 break;
@@ -527,6 +1577,8 @@ public class Scheduler implements Runnable {
                 break;
         }
 
+        reindex(drone);
+
         System.out.println("[Scheduler] Drone " + droneId +
                 " Status: " + status +
                 " Position: (" + posX + "," + posY + ")" +
@@ -534,88 +1586,121 @@ public class Scheduler implements Runnable {
     }
 
     /**
-     * Helper method to combine bytes into an integer, since
-     * the integer will take up two bytes - requires recombination
-     * @param high the high byte from the byte array
-     * @param low the low byte from the byte array
-     * @return the integer represented by these two bytes together
+     * Helper method for how long a drone may stay silent on an assignment
+     * before it is considered lost. Events tagged with a packet loss fault
+     * use the short PACKET_LOSS_TIMEOUT (5000 ms), every other assignment
+     * gets the longer ASSIGNMENT_TIMEOUT so that slow legs are not cut off.
+     * @param event the FireEvent assigned to the drone
+     * @return long timeout in milliseconds
      */
-    private int combineBytes(byte high, byte low) {
-        return ((high & 0xFF) << 8) | (low & 0xFF);
+    private static long timeoutFor(FireEvent event) {
+        return event.getFault() == FaultType.PACKET_LOSS ? PACKET_LOSS_TIMEOUT : ASSIGNMENT_TIMEOUT;
     }
 
     /**
-     * Helper method to separate an integer value into two separate bytes to be sent
-     * in UDP Datagrams.
-     * @param data the byte array to add the data to
-     * @param offset the offset in the byte array
-     * @param value the integer value to separate into bytes
+     * Expires the assignments whose deadline has passed. A deadline is set
+     * when an assignment is sent and pushed back by every matching status
+     * update, so an expired assignment means the drone lost communication
+     * and the task is then recreated for a different drone so that it may
+     * accomplish the task without failure. Only the due entries of the
+     * timer wheel are visited, not every active assignment.
      */
-    private void separateBytes(byte[] data, int offset, int value) {
-        data[offset] = (byte) (value >> 8);      // high byte
-        data[offset + 1] = (byte) value;         // low byte
+    private void checkAssignmentTimeouts() {
+        long start = System.nanoTime();
+        int expired = assignmentTimeouts.advance(clock.currentTimeMillis(), this::handleAssignmentTimeout);
+
+        if (expired > 0) {
+            assignmentsTimedOut.add(expired);
+            assignDroneEvent();
+            timeoutLatency.recordSince(start);
+        }
     }
 
     /**
-     * Checks all active drone assignments for packet-loss faults that have exceeded
-     * the allowed timeout threshold. If the time is longer than
-     * PACKET_LOSS_TIMEOUT (5000 ms), the drone lost
-     * communication and the task is then recreated for a different drone
-     * so that it may accomplish the task without failure
+     * Returns the fire of a drone whose assignment timed out to the buffer.
+     * @param droneId int corresponding to the timed out drone
      */
-    private void checkPacketLossTimeouts() {
-        long now = System.currentTimeMillis();
-        List<Integer> timedOutDrones = new ArrayList<>();
+    private void handleAssignmentTimeout(int droneId) {
+        requeueAssignment(droneId, "TIMEOUT");
+    }
 
-        for (Map.Entry<Integer, FireEvent> entry : activeAssignments.entrySet()) {
-            int droneId = entry.getKey();
-            FireEvent assignedEvent = entry.getValue();
+    /**
+     * Re-evaluates the liveness of every drone. Suspected drones are taken
+     * out of dispatch until they are heard from again, and the work of a
+     * drone declared dead is returned to the buffer for another drone.
+     */
+    private void checkDroneLiveness() {
+        List<Integer> dead = new ArrayList<>();
 
-            if (assignedEvent.getFault() != FaultType.PACKET_LOSS) {
-                continue;
-            }
+        liveness.check(clock.currentTimeMillis(), (droneId, state) -> {
+            System.out.println("[Scheduler] Drone " + droneId + " is now " + state);
+            LogManager.Log("SCHEDULER", "DRONE_" + state, "DroneID", droneId);
 
-            Long startTime = assignmentStartTimes.get(droneId);
-            if (startTime == null) {
-                continue;
+            if (state == Liveness.DEAD) {
+                dead.add(droneId);
             }
-
-            if (now - startTime > PACKET_LOSS_TIMEOUT) {
-                timedOutDrones.add(droneId);
+            DroneState drone = droneStates.get(droneId);
+            if (drone != null) {
+                reindex(drone);
             }
-        }
+        });
 
-        for (Integer droneId : timedOutDrones) {
-            FireEvent failedEvent = activeAssignments.remove(droneId);
-            assignmentStartTimes.remove(droneId);
-
-            if (failedEvent != null) {
-                System.out.println("[Scheduler] Packet loss timeout for Drone " + droneId +
-                        ", reassigning fire " + failedEvent.getFireID());
-                LogManager.Log("SCHEDULER", "TIMEOUT",
-                        "DroneID: " + droneId,
-                        "FireID: " + failedEvent.getFireID(),
-                        "Action: Returning to Buffer");
+        for (int droneId : dead) {
+            requeueAssignment(droneId, "DRONE_DEAD");
+        }
+        if (!dead.isEmpty()) {
+            assignDroneEvent();
+        }
+    }
 
-                FireEvent retry = new FireEvent(
-                        failedEvent.getZoneID(),
-                        failedEvent.getTaskType(),
-                        LocalTime.now(),
-                        failedEvent.getSeverity(),
-                        FaultType.NONE,
-                        failedEvent.getFireID()
-                );
+    /**
+     * Takes a drone's active assignment away from it and puts the fire back
+     * in the buffer, keeping its fire ID, so a different drone can take it.
+     * For a split fire only the drone's share goes back, and shares of the
+     * same fire that failed are merged in the buffer.
+     * @param droneId int corresponding to the drone losing its assignment
+     * @param reason String event code logged for the requeue
+     */
+    private void requeueAssignment(int droneId, String reason) {
+        FireEvent failedEvent = activeAssignments.remove(droneId);
+        assignmentTimeouts.cancel(droneId);
+        if (failedEvent != null) {
+            stateListeners.assignmentCleared(droneId);
+        }
+        DroneState drone = droneStates.get(droneId);
+        if (drone != null) {
+            reindex(drone);
+        }
 
-                try {
-                    put(retry);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+        if (failedEvent != null) {
+            System.out.println("[Scheduler] " + reason + " for Drone " + droneId +
+                    ", reassigning fire " + failedEvent.getFireID());
+            LogManager.event("SCHEDULER", reason)
+                    .add("DroneID", droneId)
+                    .add("FireID", failedEvent.getFireID())
+                    .add("Action", "Returning to Buffer")
+                    .log();
+
+            FireEvent retry = new FireEvent(
+                    failedEvent.getZoneID(),
+                    failedEvent.getTaskType(),
+                    failedEvent.getTimestamp(),
+                    failedEvent.getSeverity(),
+                    FaultType.NONE,
+                    failedEvent.getFireID()
+            );
+            int water = failedEvent.getRequiredWater();
+            FireEvent queued = buffer.get(failedEvent.getFireID());
+            if (queued != null) {
+                water += queued.getRequiredWater();
             }
-        }
+            retry.setRequiredWater(water);
+            // back in the queue at its old place in time, not as a new fire
+            retry.setEnqueuedAt(failedEvent.getEnqueuedAt());
+            closeShare(failedEvent.getFireID());
 
-        if (!timedOutDrones.isEmpty()) {
-            assignDroneEvent();
+            // work already accepted once, it is neither coalesced nor subject to the overflow policy
+            bufferEvent(retry);
         }
     }
 
@@ -628,24 +1713,93 @@ public class Scheduler implements Runnable {
     @Override
     public void run() {
         try {
+            if (standby != null) {
+                System.out.println("[SCHEDULER] Thread started as standby of " + standby.getPrimary());
+                while (!this.checkFailover()) {
+                    long deadline = standby.getFailoverDeadline();
+                    clock.wakeAt(deadline);
+                    this.pollPackets(clock.realTimeout(deadline));
+                }
+            }
             System.out.println("[SCHEDULER] Thread started. Waiting for events...");
+            long nextReplicationHeartbeat = clock.currentTimeMillis();
+            long nextLoadReport = clock.currentTimeMillis();
+            long nextTimeoutCheck = clock.currentTimeMillis() + TIMEOUT_CHECK_INTERVAL;
+            long nextLivenessCheck = clock.currentTimeMillis() + LIVENESS_CHECK_INTERVAL;
             while (!this.getAllTasksSent() || !this.getAllTasksProcessed()) {
-                this.receivePacket();
-                this.checkPacketLossTimeouts();
-                this.assignDroneEvent();
+                // only block until the next timeout check is due, so timeouts
+                // are handled on time even when no packets are arriving
+                this.pollPackets(clock.realTimeout(nextTimeoutCheck));
+
+                if (clock.currentTimeMillis() >= nextTimeoutCheck) {
+                    this.checkAssignmentTimeouts();
+                    nextTimeoutCheck = clock.currentTimeMillis() + TIMEOUT_CHECK_INTERVAL;
+                }
+
+                if (clock.currentTimeMillis() >= nextLivenessCheck) {
+                    this.checkDroneLiveness();
+                    if (clock.currentTimeMillis() < failoverAnnounceUntil) {
+                        this.announceFailover();
+                    }
+                    nextLivenessCheck = clock.currentTimeMillis() + LIVENESS_CHECK_INTERVAL;
+                }
+
+                if (coordinator != null && clock.currentTimeMillis() >= nextLoadReport) {
+                    this.sendLoadReport(false);
+                    nextLoadReport = clock.currentTimeMillis() + ShardCoordinator.LOAD_REPORT_INTERVAL;
+                }
+
+                if (replicator != null && clock.currentTimeMillis() >= nextReplicationHeartbeat) {
+                    replicator.heartbeat(lastFireID, reporterAddress);
+                    nextReplicationHeartbeat = clock.currentTimeMillis() + StandbyReplicator.HEARTBEAT_INTERVAL;
+                    // a simulated clock must not skip past a heartbeat, the standby would take over
+                    clock.wakeAt(nextReplicationHeartbeat);
+                }
+
+                if (dispatchPending) {
+                    dispatchPending = false;
+                    this.assignDroneEvent();
+                }
+
+                if (journal != null && journal.needsCompaction()) {
+                    try {
+                        journal.compact(this::reportState);
+                    } catch (IOException e) {
+                        // keep appending to the journal, compaction is retried next pass
+                        e.printStackTrace();
+                    }
+                }
+
+                idle = buffer.isEmpty() && overflow.isEmpty() && ingress.isEmpty()
+                        && ringSpill.isEmpty() && activeAssignments.isEmpty();
             }
 
             System.out.println("[SCHEDULER] All tasks complete. Generating Metrics...");
-            LogManager.Log("SCHEDULER", "ALL_TASKS_COMPLETE", "Finalizing log buffer...");
+            LogManager.event("SCHEDULER", "ALL_TASKS_COMPLETE").add("Finalizing log buffer...").log();
 
-            LogManager.stopAndAnalyze();
+            if (coordinator != null) {
+                this.sendLoadReport(true);
+            }
+            if (finalizeLog) {
+                LogManager.stopAndAnalyze();
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
-            }
+            shutdown();
+        }
+    }
+
+    /**
+     * Close the scheduler's transport at end of execution.
+     */
+    public void shutdown() {
+        if (transport != null) {
+            transport.close();
+        }
+        if (journal != null) {
+            journal.close();
         }
     }
 
@@ -671,6 +1825,38 @@ public class Scheduler implements Runnable {
         return map;
     }
 
+    /**
+     * Runs a SchedulerCluster of shards on this host in place of a single
+     * scheduler, for main
+     * @param inputReader InputReader for the zone file
+     * @param shardCount int number of shards
+     */
+    private static void startCluster(InputReader inputReader, int shardCount) {
+        SchedulerCluster cluster;
+        try {
+            cluster = new SchedulerCluster(buildZoneMap(inputReader.parseZoneFile()), shardCount, 60,
+                    UdpTransport::new, InetAddress.getLocalHost(), SimulationClock.REAL_TIME);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Socket binding error for Scheduler cluster");
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            try {
+                cluster.getShards().get(shard).getMetrics()
+                        .register("FireFightingDroneSwarm:type=Scheduler,shard=" + shard);
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+        cluster.start();
+        try {
+            cluster.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public FireEvent getActiveAssignmentForDrone(int droneId) {
         return activeAssignments.get(droneId);
     }
@@ -679,8 +1865,49 @@ public class Scheduler implements Runnable {
         InputReader inputReader =
                 new InputReader("sample_event_multiple.csv",
                         "sample_zone_multiple.csv");
-        Scheduler scheduler = new Scheduler(60);
+        // usage: Scheduler [--primary | --standby | --shards N] [journal directory]
+        // a primary replicates to a standby on STANDBY_PORT of the same host,
+        // which takes over if the primary stops
+        if (args.length > 1 && args[0].equals("--shards")) {
+            startCluster(inputReader, Integer.parseInt(args[1]));
+            return;
+        }
+        boolean primary = args.length > 0 && args[0].equals("--primary");
+        boolean standby = args.length > 0 && args[0].equals("--standby");
+        int nextArg = (primary || standby) ? 1 : 0;
+
+        Scheduler scheduler;
+        try {
+            if (standby) {
+                scheduler = new Scheduler(60, new UdpTransport(UdpTransport.STANDBY_PORT));
+                System.out.println("Bound to socket " + UdpTransport.STANDBY_PORT);
+                scheduler.setPrimary(UdpTransport.localAddress(UdpTransport.SCHEDULER_PORT), FAILOVER_TIMEOUT);
+            } else {
+                scheduler = new Scheduler(60);
+                if (primary) {
+                    scheduler.setStandby(UdpTransport.localAddress(UdpTransport.STANDBY_PORT));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Socket binding error for Scheduler");
+            return;
+        }
         scheduler.setZoneIDs(Scheduler.buildZoneMap(inputReader.parseZoneFile()));
+        try {
+            scheduler.getMetrics().register("FireFightingDroneSwarm:type=Scheduler");
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        // an optional directory to journal the scheduler's state in, and recover it from
+        if (args.length > nextArg) {
+            try {
+                scheduler.setJournal(new SchedulerJournal(java.nio.file.Path.of(args[nextArg])));
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.out.println("Could not open the scheduler journal in " + args[nextArg]);
+            }
+        }
         Thread schedulerThread = new Thread(scheduler);
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
@@ -0,0 +1,127 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * This class runs a set of Scheduler shards, each owning one region of the
+ * zones, behind a ShardCoordinator listening on SCHEDULER_PORT, so the
+ * incident reporter and the drones start out the same as with a single
+ * Scheduler. Shard i listens on SHARD_BASE_PORT + i.
+ */
+public class SchedulerCluster {
+
+    public static final int SHARD_BASE_PORT = 50010;
+
+    /**
+     * Binds the transport of a member of the cluster, a UdpTransport or an
+     * endpoint of a LoopbackNetwork
+     */
+    @FunctionalInterface
+    public interface Binder {
+        Transport bind(int port) throws IOException;
+    }
+
+    private final ShardCoordinator coordinator;
+    private final List<Scheduler> shards = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * Constructor for a cluster, binds every member but starts none
+     * @param zones Map of zone IDs to zones, split between the shards
+     * @param shardCount int number of shards, at most the number of zones
+     * @param capacity int capacity of the task queue of each shard
+     * @param binder Binder for the transport of every member
+     * @param host InetAddress the members reach each other at
+     * @param clock SimulationClock every shard takes its time from
+     * @throws IOException if a transport cannot be bound
+     */
+    public SchedulerCluster(Map<Integer, Zone> zones, int shardCount, int capacity, Binder binder,
+                            InetAddress host, SimulationClock clock) throws IOException {
+        List<Map<Integer, Zone>> regions = ShardCoordinator.partition(zones, shardCount);
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            Scheduler scheduler = new Scheduler(capacity, binder.bind(SHARD_BASE_PORT + shard), clock);
+            scheduler.setZoneIDs(regions.get(shard));
+            scheduler.setShard(new InetSocketAddress(host, UdpTransport.SCHEDULER_PORT), shard);
+            scheduler.setFinalizeLog(false);
+            shards.add(scheduler);
+            addresses.add(new InetSocketAddress(host, SHARD_BASE_PORT + shard));
+        }
+        coordinator = new ShardCoordinator(binder.bind(UdpTransport.SCHEDULER_PORT), regions, addresses);
+    }
+
+    /**
+     * Applies the same settings to every shard, before the cluster starts
+     * @param configuration Consumer applying the settings to one shard
+     */
+    public void configure(Consumer<Scheduler> configuration) {
+        shards.forEach(configuration);
+    }
+
+    /**
+     * Starts the coordinator and every shard, each on its own daemon thread
+     */
+    public void start() {
+        Thread coordinatorThread = new Thread(coordinator, "shard-coordinator");
+        coordinatorThread.setDaemon(true);
+        coordinatorThread.start();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Thread thread = new Thread(shards.get(shard), "scheduler-shard-" + shard);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * Getter for whether every shard is idle, see Scheduler.isIdle()
+     * @return true if no shard has anything left to do
+     */
+    public boolean isIdle() {
+        for (Scheduler shard : shards) {
+            if (!shard.isIdle()) return false;
+        }
+        return true;
+    }
+
+    public List<Scheduler> getShards() {
+        return shards;
+    }
+
+    public ShardCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Waits for every shard to complete all its tasks, then finalizes the
+     * shared log and stops the coordinator
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LogManager.stopAndAnalyze();
+        coordinator.close();
+    }
+
+    /**
+     * Stops the coordinator and closes the transport of every shard
+     */
+    public void shutdown() {
+        coordinator.close();
+        shards.forEach(Scheduler::shutdown);
+    }
+}
@@ -0,0 +1,255 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * This class is a write-ahead journal of the Scheduler's state. Every
+ * change reported to it is appended as a StateRecordCodec record to a
+ * memory-mapped file, so an append is a few memory writes and survives the
+ * Scheduler process dying, the operating system writes the pages out.
+ * Once the journal has grown past COMPACT_THRESHOLD the Scheduler writes
+ * its whole state to a snapshot file and the journal starts over.
+ *
+ * On open the snapshot is loaded and the journal replayed on top of it,
+ * which gives back the state the Scheduler had when it stopped. Both files
+ * carry a generation number, so a journal older than the snapshot, left
+ * behind by a crash in the middle of a compaction, is ignored.
+ *
+ * File layout (big endian), for the journal and the snapshot:
+ * int magic, long generation, then records of
+ * int length, int CRC32 of the record, the record itself.
+ * A length of 0 ends the journal, a record whose CRC does not match ends
+ * either file.
+ */
+public class SchedulerJournal extends StateRecordWriter implements AutoCloseable {
+
+    private static final int MAGIC = 0x534A524E;
+    private static final int HEADER_LENGTH = 12;
+    private static final int FRAME_LENGTH = 8;
+    private static final int INITIAL_SIZE = 1 << 20;
+    static final int COMPACT_THRESHOLD = 1 << 19;
+
+    private final Path snapshotPath;
+    private final Path snapshotTemp;
+    private final FileChannel channel;
+    private MappedByteBuffer journal;
+    private long generation;
+    private final SchedulerState recovered = new SchedulerState();
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Opens the journal in a directory, creating it if needed, and rebuilds
+     * the state recorded in it
+     * @param directory Path of the directory holding the journal and snapshot files
+     * @throws IOException if the files cannot be read or created
+     */
+    public SchedulerJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotPath = directory.resolve("scheduler.snapshot");
+        this.snapshotTemp = directory.resolve("scheduler.snapshot.tmp");
+        long snapshotGeneration = loadSnapshot();
+
+        Path journalPath = directory.resolve("scheduler.journal");
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+
+        if (journal.getInt(0) == MAGIC && journal.getLong(4) >= snapshotGeneration) {
+            generation = journal.getLong(4);
+            journal.position(readRecords(journal, HEADER_LENGTH, recovered));
+        } else {
+            // new, or already part of the snapshot
+            generation = snapshotGeneration;
+            reset();
+        }
+    }
+
+    /**
+     * Getter for the state rebuilt from the snapshot and journal when the
+     * journal was opened
+     * @return SchedulerState, empty for a new journal
+     */
+    public SchedulerState getRecoveredState() {
+        return recovered;
+    }
+
+    /**
+     * Getter for the generation of the journal, raised by every compaction
+     * @return long generation number
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks whether the journal has grown enough to be compacted
+     * @return true if the Scheduler should call compact()
+     */
+    public boolean needsCompaction() {
+        return journal.position() > COMPACT_THRESHOLD;
+    }
+
+    /**
+     * Writes a snapshot of the whole state and starts the journal over.
+     * The snapshot is written to a temporary file and moved into place, so
+     * a crash leaves either the old or the new snapshot.
+     * @param state Consumer that reports the current state to the listener it is given
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void compact(Consumer<SchedulerStateListener> state) throws IOException {
+        long next = generation + 1;
+        SnapshotWriter writer = new SnapshotWriter(next);
+        state.accept(writer);
+
+        try (FileChannel out = FileChannel.open(snapshotTemp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = writer.buffer.flip();
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+            out.force(true);
+        }
+        Files.move(snapshotTemp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        generation = next;
+        reset();
+    }
+
+    /**
+     * Flushes the journal to disk and closes it
+     */
+    @Override
+    public void close() {
+        try {
+            journal.force();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Frames a record and appends it to the journal. The end marker after
+     * it and its CRC are written before its length, so a record only
+     * counts once it is complete.
+     */
+    @Override
+    protected void write(byte[] record, int length) {
+        crc.reset();
+        crc.update(record, 0, length);
+
+        ensureCapacity(FRAME_LENGTH + length + 4);
+        int position = journal.position();
+        journal.putInt(position + FRAME_LENGTH + length, 0);
+        journal.put(position + FRAME_LENGTH, record, 0, length);
+        journal.putInt(position + 4, (int) crc.getValue());
+        journal.putInt(position, length);
+        journal.position(position + FRAME_LENGTH + length);
+    }
+
+    /**
+     * Maps a bigger region of the journal file if the next append would not
+     * fit, a burst between two compactions must never be lost
+     * @param needed int bytes the next append needs
+     */
+    private void ensureCapacity(int needed) {
+        if (journal.remaining() >= needed) return;
+        try {
+            int position = journal.position();
+            journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) journal.capacity() * 2);
+            journal.position(position);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot grow scheduler journal", e);
+        }
+    }
+
+    /**
+     * Empties the journal under the current generation
+     */
+    private void reset() {
+        journal.putInt(HEADER_LENGTH, 0);
+        journal.putInt(0, MAGIC);
+        journal.putLong(4, generation);
+        journal.position(HEADER_LENGTH);
+    }
+
+    /**
+     * Loads the snapshot file, if there is a valid one, into the recovered state
+     * @return long generation of the snapshot, 0 if there is none
+     * @throws IOException if the snapshot cannot be read
+     */
+    private long loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) return 0;
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        if (data.limit() < HEADER_LENGTH || data.getInt(0) != MAGIC) {
+            System.out.println("[Scheduler] Ignoring unreadable snapshot " + snapshotPath);
+            return 0;
+        }
+        readRecords(data, HEADER_LENGTH, recovered);
+        return data.getLong(4);
+    }
+
+    /**
+     * Replays framed records into a listener until the end of the data, a
+     * length of 0 or a record that fails its CRC
+     * @param data ByteBuffer holding the records
+     * @param start int position of the first record
+     * @param listener SchedulerStateListener to replay into
+     * @return int position after the last valid record
+     */
+    private static int readRecords(ByteBuffer data, int start, SchedulerStateListener listener) {
+        CRC32 check = new CRC32();
+        int position = start;
+        while (position + FRAME_LENGTH <= data.limit()) {
+            int length = data.getInt(position);
+            if (length <= 0 || length > StateRecordCodec.MAX_RECORD_LENGTH
+                    || position + FRAME_LENGTH + length > data.limit()) {
+                break;
+            }
+            ByteBuffer body = data.slice(position + FRAME_LENGTH, length);
+            check.reset();
+            check.update(body.duplicate());
+            if ((int) check.getValue() != data.getInt(position + 4)
+                    || !StateRecordCodec.read(body, listener)) {
+                break;
+            }
+            position += FRAME_LENGTH + length;
+        }
+        return position;
+    }
+
+    /**
+     * Frames the records of a snapshot into a growing buffer
+     */
+    private static class SnapshotWriter extends StateRecordWriter {
+        private final CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        SnapshotWriter(long generation) {
+            buffer.putInt(MAGIC);
+            buffer.putLong(generation);
+        }
+
+        @Override
+        protected void write(byte[] record, int length) {
+            if (buffer.remaining() < FRAME_LENGTH + length) {
+                ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer = grown.put(buffer.flip());
+            }
+            crc.reset();
+            crc.update(record, 0, length);
+            buffer.putInt(length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(record, 0, length);
+        }
+    }
+}
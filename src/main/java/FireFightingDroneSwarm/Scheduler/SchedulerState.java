@@ -0,0 +1,112 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class is a copy of the Scheduler's state rebuilt from the changes
+ * reported to a SchedulerStateListener, for example while replaying a
+ * journal. Every change sets the state of one fire or drone outright, so
+ * replaying changes that are already part of the state leaves it as it is.
+ */
+public class SchedulerState implements SchedulerStateListener {
+
+    private final Map<Integer, FireEvent> buffered = new LinkedHashMap<>();
+    private final Map<Integer, FireEvent> assignments = new LinkedHashMap<>();
+    private final Map<Integer, DroneState> drones = new LinkedHashMap<>();
+    private boolean allTasksSent;
+
+    @Override
+    public void fireBuffered(FireEvent event) {
+        buffered.put(event.getFireID(), event);
+    }
+
+    @Override
+    public void fireRemoved(int fireID) {
+        buffered.remove(fireID);
+    }
+
+    @Override
+    public void fireAssigned(int droneId, FireEvent event) {
+        buffered.remove(event.getFireID());
+        assignments.put(droneId, event);
+    }
+
+    @Override
+    public void assignmentCleared(int droneId) {
+        assignments.remove(droneId);
+    }
+
+    @Override
+    public void droneUpdated(DroneState drone) {
+        drones.put(drone.getDroneId(), drone);
+    }
+
+    @Override
+    public void droneRemoved(int droneId) {
+        drones.remove(droneId);
+    }
+
+    @Override
+    public void allTasksSent() {
+        allTasksSent = true;
+    }
+
+    /**
+     * Reports the whole state to another listener, as if it had been
+     * built up from nothing
+     * @param listener SchedulerStateListener to report to
+     */
+    public void replayTo(SchedulerStateListener listener) {
+        for (DroneState drone : drones.values()) {
+            listener.droneUpdated(drone);
+        }
+        for (FireEvent event : buffered.values()) {
+            listener.fireBuffered(event);
+        }
+        for (Map.Entry<Integer, FireEvent> entry : assignments.entrySet()) {
+            listener.fireAssigned(entry.getKey(), entry.getValue());
+        }
+        if (allTasksSent) {
+            listener.allTasksSent();
+        }
+    }
+
+    /**
+     * Getter for the buffered fires in the order they were buffered
+     * @return Map of fire IDs to FireEvents
+     */
+    public Map<Integer, FireEvent> getBuffered() {
+        return buffered;
+    }
+
+    /**
+     * Getter for the assignment of each drone
+     * @return Map of drone IDs to FireEvents
+     */
+    public Map<Integer, FireEvent> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Getter for the known drones
+     * @return Map of drone IDs to DroneStates
+     */
+    public Map<Integer, DroneState> getDrones() {
+        return drones;
+    }
+
+    public boolean isAllTasksSent() {
+        return allTasksSent;
+    }
+
+    /**
+     * Checks whether there is any state at all
+     * @return true if nothing has been recorded
+     */
+    public boolean isEmpty() {
+        return buffered.isEmpty() && assignments.isEmpty() && drones.isEmpty() && !allTasksSent;
+    }
+}
@@ -0,0 +1,59 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+
+/**
+ * This interface is notified of every change to the state the Scheduler
+ * would need to carry on after a restart: the fires waiting in its buffer,
+ * the assignment each drone is working on, the drones it knows about and
+ * whether every event has been sent. The Scheduler calls it from its own
+ * thread only. Applying the calls in order to an empty SchedulerState
+ * rebuilds the Scheduler's state.
+ */
+public interface SchedulerStateListener {
+
+    /**
+     * A fire was added to the buffer, or replaced the buffered fire with
+     * the same fire ID
+     * @param event the buffered FireEvent
+     */
+    void fireBuffered(FireEvent event);
+
+    /**
+     * A fire left the buffer without being assigned, for example shed
+     * @param fireID int fire ID of the fire
+     */
+    void fireRemoved(int fireID);
+
+    /**
+     * A fire, or a share of a split fire, was assigned to a drone and no
+     * longer waits in the buffer
+     * @param droneId int corresponding to the drone id
+     * @param event the FireEvent the drone is working on
+     */
+    void fireAssigned(int droneId, FireEvent event);
+
+    /**
+     * A drone is no longer working on its assignment, because it finished
+     * it or because it was taken away from it
+     * @param droneId int corresponding to the drone id
+     */
+    void assignmentCleared(int droneId);
+
+    /**
+     * A drone registered or changed status
+     * @param drone the DroneState of the drone
+     */
+    void droneUpdated(DroneState drone);
+
+    /**
+     * A drone without an assignment was handed over to another scheduler
+     * @param droneId int corresponding to the drone id
+     */
+    void droneRemoved(int droneId);
+
+    /**
+     * The incident reporter has sent every event
+     */
+    void allTasksSent();
+}
@@ -0,0 +1,280 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
+import FireFightingDroneSwarm.Transport.Transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the front door of a cluster of Scheduler shards, each
+ * owning the zones of one region of the map together with its own buffer
+ * and drone pool. The coordinator listens where a single Scheduler would,
+ * forwards every fire event to the shard owning its zone and hands every
+ * drone that registers to the shard with the fewest drones, which then
+ * tells the drone to send to it directly. After that drone traffic never
+ * passes through the coordinator.
+ *
+ * Shards report their load every LOAD_REPORT_INTERVAL. When a shard has
+ * fires waiting and no idle drone, the coordinator asks the shard with
+ * the most idle drones and nothing waiting to lend one, the lender hands
+ * the idle drone closest to the borrower's region straight to it.
+ *
+ * Datagram layouts (big endian):
+ * LOAD_REPORT: type, shard id, buffered fires, idle drones, drones,
+ *              drones taken over from the coordinator so far (int each)
+ * LEND: type, x, y (double) of the borrower's region, borrower port (int),
+ *       address length (byte), address bytes
+ * HANDOFF: type, a StateRecordCodec DRONE_UPDATED record of the drone
+ */
+public class ShardCoordinator implements Runnable {
+
+    public static final byte LOAD_REPORT = 11;
+    public static final byte LEND = 12;
+    public static final byte HANDOFF = 13;
+    public static final long LOAD_REPORT_INTERVAL = 500;
+    static final int MAX_MESSAGE = 1 + StateRecordCodec.MAX_RECORD_LENGTH;
+    private static final long POLL_INTERVAL = 100;
+
+    private final Transport transport;
+    private final List<InetSocketAddress> shards;
+    private final Map<Integer, Integer> shardOfZone = new HashMap<>();
+    private final double[] centerX;
+    private final double[] centerY;
+    // as last reported by each shard, adjusted for drones handed out since
+    private final int[] buffered;
+    private final int[] idle;
+    private final int[] drones;
+    // drones handed to each shard so far, the shard reports how many it has taken over
+    private final int[] handedOut;
+    private final Map<Integer, Integer> shardOfDrone = new HashMap<>();
+    private final FireEventFrame frame = new FireEventFrame();
+    private final Telemetry telemetry = new Telemetry();
+    // reused for every message, only used by the coordinator thread
+    private final ByteBuffer message = ByteBuffer.allocate(MAX_MESSAGE);
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for the coordinator of a set of shards
+     * @param transport Transport the coordinator receives on, where the
+     *                  incident reporter and new drones send to
+     * @param regions List of the zones of each shard, see partition()
+     * @param shards List of the address of each shard, in the same order
+     */
+    public ShardCoordinator(Transport transport, List<Map<Integer, Zone>> regions, List<InetSocketAddress> shards) {
+        this.transport = transport;
+        this.shards = shards;
+        int count = shards.size();
+        centerX = new double[count];
+        centerY = new double[count];
+        buffered = new int[count];
+        idle = new int[count];
+        drones = new int[count];
+        handedOut = new int[count];
+        for (int shard = 0; shard < count; shard++) {
+            for (Zone zone : regions.get(shard).values()) {
+                shardOfZone.put(zone.getID(), shard);
+                centerX[shard] += centerX(zone) / regions.get(shard).size();
+                centerY[shard] += centerY(zone) / regions.get(shard).size();
+            }
+        }
+    }
+
+    /**
+     * Splits the zones into compact regions of about the same number of
+     * zones, by cutting the map in two across its longer side, each half
+     * getting its share of the regions, until every part is one region
+     * @param zones Map of zone IDs to zones
+     * @param count int number of regions, at most the number of zones
+     * @return List of count Maps of zone IDs to zones
+     */
+    public static List<Map<Integer, Zone>> partition(Map<Integer, Zone> zones, int count) {
+        if (count < 1 || count > zones.size()) {
+            throw new IllegalArgumentException("Cannot split " + zones.size() + " zones into " + count + " regions");
+        }
+        List<Map<Integer, Zone>> regions = new ArrayList<>();
+        bisect(new ArrayList<>(zones.values()), count, regions);
+        return regions;
+    }
+
+    private static void bisect(List<Zone> zones, int count, List<Map<Integer, Zone>> regions) {
+        if (count == 1) {
+            Map<Integer, Zone> region = new HashMap<>();
+            for (Zone zone : zones) {
+                region.put(zone.getID(), zone);
+            }
+            regions.add(region);
+            return;
+        }
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Zone zone : zones) {
+            minX = Math.min(minX, centerX(zone));
+            maxX = Math.max(maxX, centerX(zone));
+            minY = Math.min(minY, centerY(zone));
+            maxY = Math.max(maxY, centerY(zone));
+        }
+        zones.sort(maxX - minX >= maxY - minY
+                ? Comparator.comparingDouble(ShardCoordinator::centerX).thenComparingInt(Zone::getID)
+                : Comparator.comparingDouble(ShardCoordinator::centerY).thenComparingInt(Zone::getID));
+
+        int firstCount = count / 2;
+        int cut = zones.size() * firstCount / count;
+        bisect(new ArrayList<>(zones.subList(0, cut)), firstCount, regions);
+        bisect(new ArrayList<>(zones.subList(cut, zones.size())), count - firstCount, regions);
+    }
+
+    private static double centerX(Zone zone) {
+        return (zone.getStartCoordinates()[0] + zone.getEndCoordinates()[0]) / 2.0;
+    }
+
+    private static double centerY(Zone zone) {
+        return (zone.getStartCoordinates()[1] + zone.getEndCoordinates()[1]) / 2.0;
+    }
+
+    /**
+     * Getter for the shard owning a zone
+     * @param zoneId int zone ID
+     * @return int index of the shard, or -1 if no shard owns the zone
+     */
+    public int shardOf(int zoneId) {
+        return shardOfZone.getOrDefault(zoneId, -1);
+    }
+
+    @Override
+    public void run() {
+        System.out.println("[Coordinator] Routing for " + shards.size() + " shards");
+        while (running) {
+            try {
+                transport.receive(POLL_INTERVAL, this::handlePacket);
+            } catch (IOException e) {
+                if (running) e.printStackTrace();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the coordinator thread and closes its transport
+     */
+    public void close() {
+        running = false;
+        transport.close();
+    }
+
+    private void handlePacket(byte[] data, int length, InetSocketAddress source) {
+        if (length == 0) {
+            return;
+        }
+        try {
+            switch (data[0]) {
+                case FireEventFrame.FIRE_EVENT -> forwardFireEvent(data, length);
+                case FireEventFrame.ALL_EVENTS_SENT -> {
+                    // every shard has to know the incident reporter is done
+                    for (InetSocketAddress shard : shards) {
+                        transport.send(data, length, shard);
+                    }
+                }
+                case Telemetry.STATUS, Telemetry.FAULT -> registerDrone(data, length, source);
+                case LOAD_REPORT -> handleLoadReport(data, length);
+                default -> System.out.println("[Coordinator] Ignoring packet with unknown type " + data[0]);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void forwardFireEvent(byte[] data, int length) throws IOException {
+        if (!frame.decode(data, length)) {
+            System.out.println("[Coordinator] Ignoring fire event with unknown version or bad format");
+            return;
+        }
+        int shard = shardOf(frame.getZoneID());
+        if (shard < 0) {
+            System.out.println("[Coordinator] No shard owns zone " + frame.getZoneID());
+            return;
+        }
+        transport.send(data, length, shards.get(shard));
+    }
+
+    /**
+     * Hands a drone heard from for the first time to the shard with the
+     * fewest drones. Drones already handed out are still switching over.
+     */
+    private void registerDrone(byte[] data, int length, InetSocketAddress source) throws IOException {
+        if (!telemetry.decode(data, length) || shardOfDrone.containsKey(telemetry.getDroneId())) {
+            return;
+        }
+        int shard = 0;
+        for (int i = 1; i < drones.length; i++) {
+            if (drones[i] < drones[shard]) shard = i;
+        }
+        DroneState drone = new DroneState(telemetry.getDroneId(), telemetry.getStatus(), telemetry.getPosX(),
+                telemetry.getPosY(), telemetry.getWater(), source.getAddress(), source.getPort());
+        message.clear().put(HANDOFF);
+        StateRecordCodec.writeDroneUpdated(message, drone);
+        transport.send(message.array(), message.position(), shards.get(shard));
+
+        shardOfDrone.put(drone.getDroneId(), shard);
+        handedOut[shard]++;
+        drones[shard]++;
+        LogManager.Log("COORDINATOR", "DRONE_HANDED_OUT", "DroneID", drone.getDroneId(), "Shard", shard);
+    }
+
+    private void handleLoadReport(byte[] data, int length) throws IOException {
+        if (length < 21) return;
+        ByteBuffer in = ByteBuffer.wrap(data, 1, length - 1);
+        int shard = in.getInt();
+        if (shard < 0 || shard >= shards.size()) return;
+        buffered[shard] = in.getInt();
+        idle[shard] = in.getInt();
+        int reported = in.getInt();
+        // drones handed out that had not reached the shard yet when it reported
+        int pending = handedOut[shard] - in.getInt();
+        drones[shard] = reported + Math.max(0, pending);
+        balance(shard);
+    }
+
+    /**
+     * Asks for a drone to be lent to a shard with fires waiting and no idle
+     * drone, from the shard with the most idle drones and nothing waiting
+     * @param borrower int index of the shard that reported
+     */
+    private void balance(int borrower) throws IOException {
+        if (buffered[borrower] == 0 || idle[borrower] > 0) return;
+        int lender = -1;
+        for (int i = 0; i < shards.size(); i++) {
+            if (i != borrower && buffered[i] == 0 && idle[i] > 0 && (lender < 0 || idle[i] > idle[lender])) {
+                lender = i;
+            }
+        }
+        if (lender < 0) return;
+
+        InetSocketAddress address = shards.get(borrower);
+        byte[] ip = address.getAddress().getAddress();
+        message.clear().put(LEND).putDouble(centerX[borrower]).putDouble(centerY[borrower])
+                .putInt(address.getPort()).put((byte) ip.length).put(ip);
+        transport.send(message.array(), message.position(), shards.get(lender));
+
+        // until the next reports come in
+        idle[lender]--;
+        idle[borrower]++;
+        drones[lender]--;
+        drones[borrower]++;
+        System.out.println("[Coordinator] Shard " + lender + " lends a drone to shard " + borrower);
+        LogManager.event("COORDINATOR", "DRONE_LEND")
+                .add("From", lender)
+                .add("To", borrower)
+                .add("Buffered", buffered[borrower])
+                .log();
+    }
+}
@@ -0,0 +1,132 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.Transport.Transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+
+/**
+ * This class is the primary Scheduler's side of a hot standby. Every
+ * change to the primary's state is sent to the standby as it happens, one
+ * StateRecordCodec record per datagram with a sequence number, and the
+ * primary sends a heartbeat every HEARTBEAT_INTERVAL. A standby that
+ * missed a datagram asks for a full sync, which resends the whole state.
+ * See HotStandby for the other side.
+ *
+ * Datagram layouts (big endian):
+ * REPLICATE: type, sequence (long), record
+ * SYNC_START: type, sequence (long) of the first record of the sync
+ * HEARTBEAT: type, sequence (long) of the last record sent, highest fire
+ *            ID received (int), incident reporter port (int), address
+ *            length (byte), address bytes, the address length is 0
+ *            while the reporter is not known
+ * SYNC_REQUEST: type, sent by the standby
+ */
+public class StandbyReplicator extends StateRecordWriter {
+
+    public static final byte REPLICATE = 7;
+    public static final byte SYNC_START = 8;
+    public static final byte HEARTBEAT = 9;
+    public static final byte SYNC_REQUEST = 10;
+    public static final long HEARTBEAT_INTERVAL = 200;
+    static final int MAX_DATAGRAM = 1 + 8 + StateRecordCodec.MAX_RECORD_LENGTH;
+
+    private final Transport transport;
+    private final InetSocketAddress standby;
+    // reused for every datagram, only used by the scheduler thread
+    private final byte[] datagram = new byte[MAX_DATAGRAM];
+    private long sequence;
+
+    /**
+     * Constructor for the replicator of a primary scheduler
+     * @param transport Transport of the primary scheduler
+     * @param standby InetSocketAddress of the standby scheduler
+     */
+    public StandbyReplicator(Transport transport, InetSocketAddress standby) {
+        this.transport = transport;
+        this.standby = standby;
+    }
+
+    /**
+     * Sends a heartbeat to the standby, with what it needs to retarget the
+     * incident reporter on failover
+     * @param lastFireID int highest fire ID the primary has received
+     * @param reporter InetSocketAddress of the incident reporter, null if not known yet
+     */
+    public void heartbeat(int lastFireID, InetSocketAddress reporter) {
+        datagram[0] = HEARTBEAT;
+        putLong(datagram, 1, sequence);
+        putInt(datagram, 9, lastFireID);
+        int length = 13;
+        if (reporter != null) {
+            byte[] address = reporter.getAddress().getAddress();
+            putInt(datagram, length, reporter.getPort());
+            datagram[length + 4] = (byte) address.length;
+            System.arraycopy(address, 0, datagram, length + 5, address.length);
+            length += 5 + address.length;
+        } else {
+            putInt(datagram, length, 0);
+            datagram[length + 4] = 0;
+            length += 5;
+        }
+        send(length);
+    }
+
+    /**
+     * Resends the whole state to the standby, after it asked for a sync
+     * @param state Consumer that reports the current state to the listener it is given
+     */
+    public void sync(Consumer<SchedulerStateListener> state) {
+        datagram[0] = SYNC_START;
+        putLong(datagram, 1, sequence + 1);
+        send(9);
+        state.accept(this);
+    }
+
+    /**
+     * Getter for the sequence number of the last record sent
+     * @return long sequence number, 0 before the first record
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    protected void write(byte[] record, int length) {
+        datagram[0] = REPLICATE;
+        putLong(datagram, 1, ++sequence);
+        System.arraycopy(record, 0, datagram, 9, length);
+        send(9 + length);
+    }
+
+    private void send(int length) {
+        try {
+            transport.send(datagram, length, standby);
+        } catch (IOException e) {
+            // the standby asks for a sync once it notices the gap
+            e.printStackTrace();
+        }
+    }
+
+    static void putInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >> 24);
+        data[offset + 1] = (byte) (value >> 16);
+        data[offset + 2] = (byte) (value >> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    static void putLong(byte[] data, int offset, long value) {
+        putInt(data, offset, (int) (value >> 32));
+        putInt(data, offset + 4, (int) value);
+    }
+
+    static int getInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    static long getLong(byte[] data, int offset) {
+        return ((long) getInt(data, offset) << 32) | (getInt(data, offset + 4) & 0xFFFFFFFFL);
+    }
+}
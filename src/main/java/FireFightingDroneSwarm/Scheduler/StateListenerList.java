@@ -0,0 +1,58 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class passes every state change on to each of a list of
+ * listeners, so the Scheduler only ever reports to one listener.
+ */
+class StateListenerList implements SchedulerStateListener {
+
+    private final List<SchedulerStateListener> listeners = new ArrayList<>();
+
+    void add(SchedulerStateListener listener) {
+        listeners.add(listener);
+    }
+
+    void remove(SchedulerStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void fireBuffered(FireEvent event) {
+        for (SchedulerStateListener listener : listeners) listener.fireBuffered(event);
+    }
+
+    @Override
+    public void fireRemoved(int fireID) {
+        for (SchedulerStateListener listener : listeners) listener.fireRemoved(fireID);
+    }
+
+    @Override
+    public void fireAssigned(int droneId, FireEvent event) {
+        for (SchedulerStateListener listener : listeners) listener.fireAssigned(droneId, event);
+    }
+
+    @Override
+    public void assignmentCleared(int droneId) {
+        for (SchedulerStateListener listener : listeners) listener.assignmentCleared(droneId);
+    }
+
+    @Override
+    public void droneUpdated(DroneState drone) {
+        for (SchedulerStateListener listener : listeners) listener.droneUpdated(drone);
+    }
+
+    @Override
+    public void droneRemoved(int droneId) {
+        for (SchedulerStateListener listener : listeners) listener.droneRemoved(droneId);
+    }
+
+    @Override
+    public void allTasksSent() {
+        for (SchedulerStateListener listener : listeners) listener.allTasksSent();
+    }
+}
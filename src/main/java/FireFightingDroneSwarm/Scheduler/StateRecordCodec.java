@@ -0,0 +1,166 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+
+/**
+ * This class is the binary encoding of the changes reported to a
+ * SchedulerStateListener, one record per change. The journal and the
+ * snapshot store these records, so that one decoder rebuilds the state
+ * from both.
+ *
+ * Record layout (big endian), after the record type byte:
+ * FIRE_BUFFERED: fire
+ * FIRE_REMOVED: fire ID (int)
+ * FIRE_ASSIGNED: drone ID (int), fire
+ * ASSIGNMENT_CLEARED: drone ID (int)
+ * DRONE_UPDATED: drone ID (int), status (byte), x, y (double), water (int),
+ *                address length (byte), address bytes, port (int)
+ * ALL_TASKS_SENT: nothing
+ * DRONE_REMOVED: drone ID (int)
+ * where a fire is fire ID (int), zone ID (int), severity, task type and
+ * fault (byte each), required water (int), pre-serviced (byte), report
+ * time (long, nanosecond of the day or -1) and enqueue time (long, clock
+ * milliseconds or -1), so a recovered fire keeps its place in the queue.
+ */
+public final class StateRecordCodec {
+
+    public static final byte FIRE_BUFFERED = 1;
+    public static final byte FIRE_REMOVED = 2;
+    public static final byte FIRE_ASSIGNED = 3;
+    public static final byte ASSIGNMENT_CLEARED = 4;
+    public static final byte DRONE_UPDATED = 5;
+    public static final byte ALL_TASKS_SENT = 6;
+    public static final byte DRONE_REMOVED = 7;
+    // a DRONE_UPDATED record with an IPv6 address is the longest
+    public static final int MAX_RECORD_LENGTH = 64;
+
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final FaultType[] FAULT_TYPES = FaultType.values();
+    private static final DroneStatus[] STATUSES = DroneStatus.values();
+
+    private StateRecordCodec() {}
+
+    public static void writeFireBuffered(ByteBuffer out, FireEvent event) {
+        out.put(FIRE_BUFFERED);
+        writeFire(out, event);
+    }
+
+    public static void writeFireRemoved(ByteBuffer out, int fireID) {
+        out.put(FIRE_REMOVED);
+        out.putInt(fireID);
+    }
+
+    public static void writeFireAssigned(ByteBuffer out, int droneId, FireEvent event) {
+        out.put(FIRE_ASSIGNED);
+        out.putInt(droneId);
+        writeFire(out, event);
+    }
+
+    public static void writeAssignmentCleared(ByteBuffer out, int droneId) {
+        out.put(ASSIGNMENT_CLEARED);
+        out.putInt(droneId);
+    }
+
+    public static void writeDroneUpdated(ByteBuffer out, DroneState drone) {
+        out.put(DRONE_UPDATED);
+        out.putInt(drone.getDroneId());
+        out.put((byte) drone.getStatus().ordinal());
+        out.putDouble(drone.getPosX());
+        out.putDouble(drone.getPosY());
+        out.putInt(drone.getWaterTank());
+        byte[] address = drone.getAddress().getAddress();
+        out.put((byte) address.length);
+        out.put(address);
+        out.putInt(drone.getPort());
+    }
+
+    public static void writeAllTasksSent(ByteBuffer out) {
+        out.put(ALL_TASKS_SENT);
+    }
+
+    public static void writeDroneRemoved(ByteBuffer out, int droneId) {
+        out.put(DRONE_REMOVED);
+        out.putInt(droneId);
+    }
+
+    /**
+     * Decodes one record and reports the change it holds to a listener
+     * @param in ByteBuffer positioned at the start of the record, holding exactly the record
+     * @param listener SchedulerStateListener to report the change to
+     * @return true if the record was valid
+     */
+    public static boolean read(ByteBuffer in, SchedulerStateListener listener) {
+        try {
+            switch (in.get()) {
+                case FIRE_BUFFERED -> listener.fireBuffered(readFire(in));
+                case FIRE_REMOVED -> listener.fireRemoved(in.getInt());
+                case FIRE_ASSIGNED -> {
+                    int droneId = in.getInt();
+                    listener.fireAssigned(droneId, readFire(in));
+                }
+                case ASSIGNMENT_CLEARED -> listener.assignmentCleared(in.getInt());
+                case DRONE_UPDATED -> listener.droneUpdated(readDrone(in));
+                case ALL_TASKS_SENT -> listener.allTasksSent();
+                case DRONE_REMOVED -> listener.droneRemoved(in.getInt());
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException | UnknownHostException e) {
+            // cut short or holding values out of range
+            return false;
+        }
+    }
+
+    private static void writeFire(ByteBuffer out, FireEvent event) {
+        out.putInt(event.getFireID());
+        out.putInt(event.getZoneID());
+        out.put((byte) event.getSeverity().ordinal());
+        out.put((byte) event.getTaskType().ordinal());
+        out.put((byte) event.getFault().ordinal());
+        out.putInt(event.getRequiredWater());
+        out.put((byte) (event.isPreServiced() ? 1 : 0));
+        out.putLong(event.getTimestamp() == null ? -1 : event.getTimestamp().toNanoOfDay());
+        out.putLong(event.getEnqueuedAt());
+    }
+
+    private static FireEvent readFire(ByteBuffer in) {
+        int fireID = in.getInt();
+        int zoneID = in.getInt();
+        Severity severity = SEVERITIES[in.get()];
+        TaskType taskType = TASK_TYPES[in.get()];
+        FaultType fault = FAULT_TYPES[in.get()];
+        int requiredWater = in.getInt();
+        boolean preServiced = in.get() != 0;
+        long timestamp = in.getLong();
+        FireEvent event = new FireEvent(zoneID, taskType, timestamp < 0 ? null : LocalTime.ofNanoOfDay(timestamp),
+                severity, fault, fireID);
+        event.setRequiredWater(requiredWater);
+        event.setPreServiced(preServiced);
+        event.setEnqueuedAt(in.getLong());
+        return event;
+    }
+
+    private static DroneState readDrone(ByteBuffer in) throws UnknownHostException {
+        int droneId = in.getInt();
+        DroneStatus status = STATUSES[in.get()];
+        double posX = in.getDouble();
+        double posY = in.getDouble();
+        int water = in.getInt();
+        byte[] address = new byte[in.get()];
+        in.get(address);
+        int port = in.getInt();
+        return new DroneState(droneId, status, posX, posY, water, InetAddress.getByAddress(address), port);
+    }
+}
@@ -0,0 +1,65 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a SchedulerStateListener that encodes every change it is
+ * told about as a StateRecordCodec record and hands the record to write(),
+ * which decides where it goes.
+ */
+public abstract class StateRecordWriter implements SchedulerStateListener {
+
+    // every record is encoded here, so reporting a change does not allocate
+    private final ByteBuffer record = ByteBuffer.allocate(StateRecordCodec.MAX_RECORD_LENGTH);
+
+    /**
+     * Stores or sends one encoded record
+     * @param record byte array holding the record, only valid during the call
+     * @param length int length of the record
+     */
+    protected abstract void write(byte[] record, int length);
+
+    @Override
+    public void fireBuffered(FireEvent event) {
+        StateRecordCodec.writeFireBuffered(record.clear(), event);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void fireRemoved(int fireID) {
+        StateRecordCodec.writeFireRemoved(record.clear(), fireID);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void fireAssigned(int droneId, FireEvent event) {
+        StateRecordCodec.writeFireAssigned(record.clear(), droneId, event);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void assignmentCleared(int droneId) {
+        StateRecordCodec.writeAssignmentCleared(record.clear(), droneId);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void droneUpdated(DroneState drone) {
+        StateRecordCodec.writeDroneUpdated(record.clear(), drone);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void droneRemoved(int droneId) {
+        StateRecordCodec.writeDroneRemoved(record.clear(), droneId);
+        write(record.array(), record.position());
+    }
+
+    @Override
+    public void allTasksSent() {
+        StateRecordCodec.writeAllTasksSent(record.clear());
+        write(record.array(), record.position());
+    }
+}
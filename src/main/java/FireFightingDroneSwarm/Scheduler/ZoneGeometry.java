@@ -0,0 +1,168 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * This class is an immutable table of the geometry of every zone, built
+ * once when the Scheduler is given its zones. Zones are numbered by a
+ * dense index and their bounds and centers are kept in primitive arrays,
+ * so scoring a drone against a zone reads a couple of doubles instead of
+ * looking up a Zone and allocating its center. For maps of up to
+ * MATRIX_MAX_ZONES zones the distances between every pair of centers are
+ * precomputed as well, bigger maps compute them from the centers.
+ *
+ * Zone IDs are mapped to indexes through an array indexed by ID when the
+ * IDs are small and dense, as in the zone files, and by binary search
+ * over the sorted IDs otherwise.
+ */
+public final class ZoneGeometry {
+
+    static final int MATRIX_MAX_ZONES = 256;
+    // IDs up to this many times the zone count are looked up directly
+    private static final int DIRECT_LOOKUP_SPREAD = 4;
+
+    private final int[] ids;
+    private final int[] indexById;
+    private final int[] startX;
+    private final int[] startY;
+    private final int[] endX;
+    private final int[] endY;
+    private final double[] centerX;
+    private final double[] centerY;
+    // row major, null for maps with more than MATRIX_MAX_ZONES zones
+    private final double[] distances;
+
+    /**
+     * Constructor for the table of a set of zones
+     * @param zones Map of zone IDs to zones
+     */
+    public ZoneGeometry(Map<Integer, Zone> zones) {
+        int n = zones.size();
+        ids = new int[n];
+        int i = 0;
+        for (int id : zones.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+
+        startX = new int[n];
+        startY = new int[n];
+        endX = new int[n];
+        endY = new int[n];
+        centerX = new double[n];
+        centerY = new double[n];
+        for (i = 0; i < n; i++) {
+            Zone zone = zones.get(ids[i]);
+            startX[i] = zone.getStartCoordinates()[0];
+            startY[i] = zone.getStartCoordinates()[1];
+            endX[i] = zone.getEndCoordinates()[0];
+            endY[i] = zone.getEndCoordinates()[1];
+            centerX[i] = (startX[i] + endX[i]) / 2.0;
+            centerY[i] = (startY[i] + endY[i]) / 2.0;
+        }
+
+        if (n > 0 && ids[0] >= 0 && ids[n - 1] < (long) n * DIRECT_LOOKUP_SPREAD + 64) {
+            indexById = new int[ids[n - 1] + 1];
+            Arrays.fill(indexById, -1);
+            for (i = 0; i < n; i++) {
+                indexById[ids[i]] = i;
+            }
+        } else {
+            indexById = null;
+        }
+
+        if (n <= MATRIX_MAX_ZONES) {
+            distances = new double[n * n];
+            for (i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    distances[i * n + j] = Math.hypot(centerX[j] - centerX[i], centerY[j] - centerY[i]);
+                }
+            }
+        } else {
+            distances = null;
+        }
+    }
+
+    /**
+     * Getter for the number of zones in the table
+     * @return int number of zones
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Finds the index of a zone in the table
+     * @param zoneId int zone ID
+     * @return int index of the zone, or -1 if there is no zone with that ID
+     */
+    public int indexOf(int zoneId) {
+        if (indexById != null) {
+            return zoneId >= 0 && zoneId < indexById.length ? indexById[zoneId] : -1;
+        }
+        int index = Arrays.binarySearch(ids, zoneId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Getter for the zone ID at an index
+     * @param index int index of the zone
+     * @return int zone ID
+     */
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    public double centerX(int index) {
+        return centerX[index];
+    }
+
+    public double centerY(int index) {
+        return centerY[index];
+    }
+
+    public int startX(int index) {
+        return startX[index];
+    }
+
+    public int startY(int index) {
+        return startY[index];
+    }
+
+    public int endX(int index) {
+        return endX[index];
+    }
+
+    public int endY(int index) {
+        return endY[index];
+    }
+
+    /**
+     * Distance between the centers of two zones
+     * @param from int index of the first zone
+     * @param to int index of the second zone
+     * @return double distance between the centers
+     */
+    public double distance(int from, int to) {
+        if (distances != null) {
+            return distances[from * ids.length + to];
+        }
+        return Math.hypot(centerX[to] - centerX[from], centerY[to] - centerY[from]);
+    }
+
+    /**
+     * Distance from the center of a zone to a point
+     * @param index int index of the zone
+     * @param x double x coordinate of the point
+     * @param y double y coordinate of the point
+     * @return double distance from the center to the point
+     */
+    public double distanceTo(int index, double x, double y) {
+        double dx = x - centerX[index];
+        double dy = y - centerY[index];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,161 @@
+package FireFightingDroneSwarm.Simulation;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class is a SimulationClock that advances virtual time in jumps.
+ * Every sleep and every wakeAt() adds a pending wake up time. An advancer
+ * thread waits until no new wake up has been added for a short settle
+ * period of real time, meaning every thread has finished reacting to the
+ * last jump and the messages it sent, and then moves the clock straight
+ * to the earliest pending wake up and releases the threads sleeping
+ * until then. A flight that takes minutes of clock time then costs a few
+ * settle periods of real time.
+ *
+ * A thread released by a jump, from sleep() or from a wakeAt() deadline,
+ * is known to be running: the clock does not jump again until it has
+ * sleep()'d or called wakeAt() again, however slow it is, so a GC pause
+ * or a long scheduler pass cannot make the clock skip its next deadline.
+ * A thread that never comes back to the clock, because it ended, is let
+ * go after MAX_REACTION_MILLIS of real time.
+ *
+ * What the clock cannot see is a thread reacting to a message: only the
+ * settle period covers that, so it has to be longer than the time a
+ * thread needs to handle a message, and a thread must be waiting on the
+ * clock before the first jump to be counted. For an in-process swarm on
+ * a LoopbackNetwork the default of a few milliseconds is plenty, a
+ * slower machine or a heavier scheduler needs a longer one.
+ */
+public class DiscreteEventClock implements SimulationClock, AutoCloseable {
+
+    private static final long DEFAULT_SETTLE_MILLIS = 5;
+    static final long MAX_REACTION_MILLIS = 1000;
+
+    private final long settleMillis;
+    private final TreeSet<Long> pending = new TreeSet<>();
+    // clock time every thread waiting on the clock waits until
+    private final Map<Thread, Long> waiting = new HashMap<>();
+    // threads released by a jump that have not come back to the clock, with the real time they were released
+    private final Map<Thread, Long> released = new HashMap<>();
+    private final Thread advancer;
+    private long now;
+    private long lastActivity = System.nanoTime();
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for a clock starting at the current wall clock time with
+     * the default settle period
+     */
+    public DiscreteEventClock() {
+        this(System.currentTimeMillis(), DEFAULT_SETTLE_MILLIS);
+    }
+
+    /**
+     * Constructor for a clock, starts the advancer thread
+     * @param startTime long clock time in milliseconds to start at
+     * @param settleMillis long real time in milliseconds without new wake ups before the clock jumps
+     */
+    public DiscreteEventClock(long startTime, long settleMillis) {
+        this.now = startTime;
+        this.settleMillis = settleMillis;
+        this.advancer = new Thread(this::advanceLoop, "simulation-clock");
+        advancer.setDaemon(true);
+        advancer.start();
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public synchronized void sleep(long millis) throws InterruptedException {
+        long wake = now + Math.max(0, millis);
+        addWakeUp(wake);
+        Thread thread = Thread.currentThread();
+        waiting.put(thread, wake);
+        released.remove(thread);
+        try {
+            while (now < wake) {
+                wait();
+            }
+        } finally {
+            waiting.remove(thread);
+        }
+    }
+
+    @Override
+    public synchronized void wakeAt(long deadline) {
+        Thread thread = Thread.currentThread();
+        released.remove(thread);
+        if (deadline > now) {
+            addWakeUp(deadline);
+            waiting.put(thread, deadline);
+        } else {
+            waiting.remove(thread);
+        }
+    }
+
+    @Override
+    public synchronized long realTimeout(long deadline) {
+        return deadline > now ? settleMillis : 0;
+    }
+
+    private void addWakeUp(long wake) {
+        if (pending.add(wake)) {
+            lastActivity = System.nanoTime();
+        }
+    }
+
+    /**
+     * Moves the clock to the earliest pending wake up if the settle
+     * period has passed without new wake ups
+     * @return true if the clock moved
+     */
+    synchronized boolean advance() {
+        long realNow = System.nanoTime();
+        if (pending.isEmpty() || realNow - lastActivity < settleMillis * 1_000_000) {
+            return false;
+        }
+        released.values().removeIf(since -> realNow - since >= MAX_REACTION_MILLIS * 1_000_000);
+        if (!released.isEmpty()) {
+            return false;
+        }
+        now = Math.max(now, pending.pollFirst());
+        for (Iterator<Map.Entry<Thread, Long>> it = waiting.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Thread, Long> entry = it.next();
+            if (entry.getValue() <= now) {
+                released.put(entry.getKey(), realNow);
+                it.remove();
+            }
+        }
+        // wake ups for the same time were only stored once, so this releases them all
+        lastActivity = System.nanoTime();
+        notifyAll();
+        return true;
+    }
+
+    private void advanceLoop() {
+        while (running) {
+            if (!advance()) {
+                try {
+                    Thread.sleep(settleMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the advancer thread, the clock does not move after this
+     */
+    @Override
+    public void close() {
+        running = false;
+        advancer.interrupt();
+    }
+}
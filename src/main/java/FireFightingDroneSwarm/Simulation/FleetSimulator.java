@@ -0,0 +1,166 @@
+package FireFightingDroneSwarm.Simulation;
+
+import FireFightingDroneSwarm.DroneSubsystem.Drone;
+import FireFightingDroneSwarm.Protocol.FailoverFrame;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Transport.MultiplexedTransport;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class hosts a whole fleet of simulated drones in one process to
+ * load the Scheduler with far more drones than one thread and one socket
+ * per drone allows. All drones share a single transport, assignments are
+ * routed to the right drone by the drone id in the ASSIGNMENT frame, and
+ * every drone runs on a virtual thread when the JVM has them (Java 21+),
+ * otherwise on a platform thread with a small stack.
+ */
+public class FleetSimulator implements AutoCloseable {
+
+    // drones mostly sleep while flying, so a small stack is plenty
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+    private static final int DRONE_QUEUE_CAPACITY = 16;
+
+    private final MultiplexedTransport transport;
+    private final InetSocketAddress schedulerAddress;
+    private final InetSocketAddress guiAddress;
+    private final ThreadFactory threadFactory = droneThreadFactory();
+    private SimulationClock clock = SimulationClock.REAL_TIME;
+    private final List<Drone> drones = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    // only used by the router thread of the shared transport
+    private final FireEventFrame routerFrame = new FireEventFrame();
+    private final FailoverFrame routerFailover = new FailoverFrame();
+
+    /**
+     * Constructor for a fleet simulator
+     * @param shared Transport all drones send and receive through
+     * @param schedulerAddress address of the scheduler on that transport
+     * @param guiAddress address of the GUI on that transport, null to send no GUI updates
+     */
+    public FleetSimulator(Transport shared, InetSocketAddress schedulerAddress, InetSocketAddress guiAddress) {
+        this.transport = new MultiplexedTransport(shared, this::routeAssignment, DRONE_QUEUE_CAPACITY);
+        this.schedulerAddress = schedulerAddress;
+        this.guiAddress = guiAddress;
+    }
+
+    /**
+     * Setter for the clock drones started from now on run by
+     * @param clock SimulationClock shared with the rest of the scenario
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Creates and starts drones with the ids firstId to firstId + count - 1
+     * @param firstId int id of the first drone
+     * @param count int number of drones to start
+     */
+    public void start(int firstId, int count) {
+        for (int id = firstId; id < firstId + count; id++) {
+            Drone drone = new Drone(id, transport.endpoint(id), schedulerAddress, guiAddress);
+            drone.setClock(clock);
+            Thread thread = threadFactory.newThread(drone);
+            drones.add(drone);
+            threads.add(thread);
+            thread.start();
+        }
+        System.out.println("[Fleet] Started " + count + " drones on "
+                + (isVirtual(threads.get(threads.size() - 1)) ? "virtual" : "platform") + " threads");
+    }
+
+    /**
+     * Getter for the number of drones started
+     * @return int number of drones
+     */
+    public int size() {
+        return drones.size();
+    }
+
+    /**
+     * Getter for the drones started so far
+     * @return List of the Drone objects
+     */
+    public List<Drone> getDrones() {
+        return drones;
+    }
+
+    /**
+     * Stops every drone, waits for their threads and closes the shared transport
+     */
+    @Override
+    public void close() {
+        for (Drone drone : drones) {
+            drone.shutdown();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        transport.close();
+    }
+
+    /**
+     * Router for the shared transport, assignments and failover frames go
+     * to the drone they name and nothing else is for a drone
+     */
+    private int routeAssignment(byte[] data, int length) {
+        if (length > 0 && data[0] == FireEventFrame.ASSIGNMENT && routerFrame.decode(data, length)) {
+            return routerFrame.getDroneId();
+        }
+        if (routerFailover.decode(data, length)) {
+            return routerFailover.getDroneId();
+        }
+        return -1;
+    }
+
+    /**
+     * Helper to create drone threads, virtual threads if the running JVM
+     * supports them. Looked up reflectively so the code still builds for
+     * Java 17.
+     * @return ThreadFactory for drone threads
+     */
+    private static ThreadFactory droneThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "drone-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                Thread thread = new Thread(null, runnable, "drone", PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            return (boolean) isVirtual.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        FleetSimulator fleet = new FleetSimulator(new UdpTransport(0),
+                UdpTransport.localAddress(UdpTransport.SCHEDULER_PORT), null);
+        Runtime.getRuntime().addShutdownHook(new Thread(fleet::close));
+        fleet.start(1, count);
+    }
+}
@@ -0,0 +1,28 @@
+package FireFightingDroneSwarm.Simulation;
+
+/**
+ * This class is the SimulationClock that follows the wall clock, which
+ * is how the system has always run.
+ */
+public class RealTimeClock implements SimulationClock {
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(Math.max(0, millis));
+    }
+
+    @Override
+    public void wakeAt(long deadline) {
+        // the wall clock moves on by itself
+    }
+
+    @Override
+    public long realTimeout(long deadline) {
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,162 @@
+package FireFightingDroneSwarm.Simulation;
+
+import FireFightingDroneSwarm.Events.BinaryLogBackend;
+import FireFightingDroneSwarm.Events.LogManager;
+import FireFightingDroneSwarm.FireIncidentSubsystem.IncidentReporter;
+import FireFightingDroneSwarm.FireIncidentSubsystem.InputReader;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Scheduler.Scheduler;
+import FireFightingDroneSwarm.Scheduler.SchedulerCluster;
+import FireFightingDroneSwarm.Transport.LoopbackNetwork;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * This class replays an event file against a full in-process swarm,
+ * Scheduler, drone fleet and incident reporter on one LoopbackNetwork,
+ * all running by one DiscreteEventClock. The run ends once every event
+ * has been sent and the scheduler has nothing left to do, or once the
+ * clock reaches the time limit, for example when every drone was lost to
+ * injected faults and fires are left unserviced. It reports how much
+ * clock time the scenario took against the real time it took to run.
+ */
+public class ScenarioRunner {
+
+    private static final long IDLE_POLL_INTERVAL = 50;
+    private static final long DEFAULT_TIME_LIMIT = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Runs a scenario to completion
+     * @param eventFile String path of the event file
+     * @param zoneFile String path of the zone file
+     * @param droneCount int number of drones in the fleet
+     * @param timeLimit long clock time in milliseconds after which the run is stopped
+     * @param configuration Consumer applying the dispatch settings to the scheduler before it starts
+     * @return long clock time the scenario took in milliseconds
+     * @throws InterruptedException if interrupted while waiting for the scenario
+     */
+    public static long run(String eventFile, String zoneFile, int droneCount, long timeLimit,
+                           Consumer<Scheduler> configuration) throws InterruptedException {
+        return run(eventFile, zoneFile, droneCount, timeLimit, 1, configuration);
+    }
+
+    /**
+     * Runs a scenario to completion, against a SchedulerCluster when more
+     * than one shard is asked for
+     * @param eventFile String path of the event file
+     * @param zoneFile String path of the zone file
+     * @param droneCount int number of drones in the fleet
+     * @param timeLimit long clock time in milliseconds after which the run is stopped
+     * @param shardCount int number of scheduler shards, 1 for a single scheduler
+     * @param configuration Consumer applying the dispatch settings to every scheduler before it starts
+     * @return long clock time the scenario took in milliseconds
+     * @throws InterruptedException if interrupted while waiting for the scenario
+     */
+    public static long run(String eventFile, String zoneFile, int droneCount, long timeLimit, int shardCount,
+                           Consumer<Scheduler> configuration) throws InterruptedException {
+        LoopbackNetwork network = new LoopbackNetwork();
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+
+        try (DiscreteEventClock clock = new DiscreteEventClock()) {
+            long start = clock.currentTimeMillis();
+            InputReader inputReader = new InputReader(eventFile, zoneFile);
+
+            Map<Integer, Zone> zones = new HashMap<>();
+            for (Zone zone : inputReader.parseZoneFile()) {
+                zones.put(zone.getID(), zone);
+            }
+            Scheduler scheduler = null;
+            SchedulerCluster cluster = null;
+            if (shardCount > 1) {
+                cluster = new SchedulerCluster(zones, shardCount, 60, network::bind,
+                        InetAddress.getLoopbackAddress(), clock);
+                cluster.configure(configuration);
+            } else {
+                scheduler = new Scheduler(60, network.bind(UdpTransport.SCHEDULER_PORT), clock);
+                scheduler.setZoneIDs(zones);
+                configuration.accept(scheduler);
+            }
+
+            FleetSimulator fleet = new FleetSimulator(network.bind(0), schedulerAddress, null);
+            fleet.setClock(clock);
+
+            IncidentReporter reporter = new IncidentReporter(inputReader, network.bind(0), schedulerAddress, null);
+            reporter.setClock(clock);
+
+            if (cluster != null) {
+                cluster.start();
+            } else {
+                Thread schedulerThread = new Thread(scheduler, "scheduler");
+                schedulerThread.setDaemon(true);
+                schedulerThread.start();
+            }
+            fleet.start(1, droneCount);
+
+            Thread reporterThread = new Thread(reporter, "incident-reporter");
+            reporterThread.start();
+            reporterThread.join();
+
+            // the scheduler has to pick up the last event before it can be idle
+            do {
+                Thread.sleep(IDLE_POLL_INTERVAL);
+            } while (!(cluster != null ? cluster.isIdle() : scheduler.isIdle())
+                    && clock.currentTimeMillis() - start < timeLimit);
+
+            long elapsed = clock.currentTimeMillis() - start;
+            fleet.close();
+            if (cluster != null) {
+                cluster.shutdown();
+            } else {
+                scheduler.shutdown();
+            }
+            return elapsed;
+        } catch (IOException e) {
+            // a LoopbackNetwork does not fail to bind with an IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String eventFile = args.length > 0 ? args[0] : "sample_event_multiple.csv";
+        String zoneFile = args.length > 1 ? args[1] : "sample_zone_multiple.csv";
+        int droneCount = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long timeLimit = args.length > 3 ? Long.parseLong(args[3]) * 1000 : DEFAULT_TIME_LIMIT;
+        // any further arguments switch on dispatch modes, shards=N runs a cluster of N schedulers,
+        // binlog logs to memory-mapped binary segments, rendered to text for the analysis
+        List<String> modes = args.length > 4 ? List.of(args).subList(4, args.length) : List.of();
+        int shardCount = 1;
+        for (String mode : modes) {
+            if (mode.startsWith("shards=")) {
+                shardCount = Integer.parseInt(mode.substring("shards=".length()));
+            }
+        }
+        if (modes.contains("binlog")) {
+            LogManager.setBackend(new BinaryLogBackend(Path.of("drone_logs.bin")));
+        }
+
+        List<Scheduler> schedulers = new ArrayList<>();
+        long realStart = System.currentTimeMillis();
+        long simulated = run(eventFile, zoneFile, droneCount, timeLimit, shardCount, scheduler -> {
+            schedulers.add(scheduler);
+            scheduler.setTaskChaining(modes.contains("chain"));
+            scheduler.setCooperativeDispatch(modes.contains("coop"));
+            scheduler.setCoalescing(modes.contains("coalesce"));
+        });
+        long real = System.currentTimeMillis() - realStart;
+        LogManager.stopAndAnalyze();
+
+        for (Scheduler scheduler : schedulers) {
+            System.out.print("[Scenario] Scheduler metrics:\n" + scheduler.getMetrics().snapshot());
+        }
+        System.out.println("[Scenario] Simulated " + simulated / 1000.0 + " s in " + real / 1000.0 + " s of real time");
+    }
+}
@@ -0,0 +1,47 @@
+package FireFightingDroneSwarm.Simulation;
+
+/**
+ * This interface is the source of time for the Scheduler, the drones and
+ * the incident reporter. REAL_TIME is the wall clock. A
+ * DiscreteEventClock instead jumps from one pending wake up to the next
+ * once nothing else is happening, so a scenario can be replayed much
+ * faster than real time.
+ *
+ * A thread either sleeps on the clock, or, while it waits for a message
+ * that may or may not come, tells the clock when it will look at the
+ * time again with wakeAt() and blocks for no longer than realTimeout().
+ */
+public interface SimulationClock {
+
+    SimulationClock REAL_TIME = new RealTimeClock();
+
+    /**
+     * Getter for the current time of the clock
+     * @return long current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Blocks the calling thread until the clock has moved forward by millis
+     * @param millis long clock time to sleep for in milliseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Keeps the clock from moving past the deadline before it is reached,
+     * for a thread that will check the time again by then without sleeping
+     * on the clock, like a drone waiting for an assignment until its next
+     * heartbeat is due.
+     * @param deadline long clock time in milliseconds
+     */
+    void wakeAt(long deadline);
+
+    /**
+     * Getter for how long a thread waiting for a message may block in real
+     * time before it should look at the clock again
+     * @param deadline long clock time in milliseconds the thread waits until
+     * @return long real time to block for in milliseconds, 0 once the deadline has passed
+     */
+    long realTimeout(long deadline);
+}
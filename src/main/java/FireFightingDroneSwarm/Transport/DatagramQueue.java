@@ -0,0 +1,81 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is the bounded inbox of an in-memory endpoint. Delivering a
+ * datagram copies it into a pooled buffer and queues it, and receiving
+ * hands the queued buffers to the handler and returns them to the pool,
+ * so steady traffic does not allocate. A full inbox drops the datagram,
+ * like a full socket buffer.
+ */
+class DatagramQueue {
+
+    private static class Datagram {
+        final byte[] data;
+        int length;
+        InetSocketAddress source;
+
+        Datagram(int size) {
+            data = new byte[size];
+        }
+    }
+
+    private final BlockingQueue<Datagram> inbox;
+    private final BlockingQueue<Datagram> pool;
+
+    DatagramQueue(int capacity) {
+        this.inbox = new ArrayBlockingQueue<>(capacity);
+        this.pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Copies a datagram into the inbox
+     * @return true if it was queued, false if the inbox was full
+     */
+    boolean deliver(byte[] data, int length, InetSocketAddress source) {
+        Datagram datagram = pool.poll();
+        if (datagram == null || datagram.data.length < length) {
+            datagram = new Datagram(Math.max(length, 64));
+        }
+        System.arraycopy(data, 0, datagram.data, 0, length);
+        datagram.length = length;
+        datagram.source = source;
+        if (!inbox.offer(datagram)) {
+            pool.offer(datagram);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Waits up to timeoutMs for a datagram, then hands every queued one to
+     * the handler. Returns 0 if the waiting thread is interrupted.
+     */
+    int receive(long timeoutMs, Transport.PacketHandler handler) {
+        Datagram datagram;
+        try {
+            datagram = inbox.poll(Math.max(1, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        int handled = 0;
+        while (datagram != null) {
+            handler.handle(datagram.data, datagram.length, datagram.source);
+            datagram.source = null;
+            pool.offer(datagram);
+            handled++;
+            datagram = inbox.poll();
+        }
+        return handled;
+    }
+
+    void clear() {
+        inbox.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is an in-memory network that LoopbackTransport endpoints are
+ * bound to. Endpoints are addressed by port on the loopback address, like
+ * UDP sockets on one host, but every network has its own ports, so several
+ * swarms can run side by side in one JVM.
+ */
+public class LoopbackNetwork {
+
+    private static final int FIRST_EPHEMERAL_PORT = 49152;
+
+    private final Map<Integer, LoopbackTransport> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger nextEphemeralPort = new AtomicInteger(FIRST_EPHEMERAL_PORT);
+    private final int queueCapacity;
+
+    /**
+     * Constructor for a network whose endpoints each buffer up to 4096 datagrams
+     */
+    public LoopbackNetwork() {
+        this(4096);
+    }
+
+    /**
+     * Constructor for a network
+     * @param queueCapacity int number of datagrams each endpoint buffers before dropping
+     */
+    public LoopbackNetwork(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Creates an endpoint on this network
+     * @param port int port to bind to, 0 for a free port
+     * @return the bound LoopbackTransport
+     * @throws IllegalStateException if the port is already bound
+     */
+    public LoopbackTransport bind(int port) {
+        if (port == 0) {
+            do {
+                port = nextEphemeralPort.getAndIncrement();
+            } while (endpoints.containsKey(port));
+        }
+        InetSocketAddress address = address(port);
+        LoopbackTransport endpoint = new LoopbackTransport(this, address, queueCapacity);
+        if (endpoints.putIfAbsent(port, endpoint) != null) {
+            throw new IllegalStateException("Port already bound: " + port);
+        }
+        return endpoint;
+    }
+
+    /**
+     * Helper to build the address of a port on this network
+     * @param port int port of the endpoint
+     * @return InetSocketAddress of the port
+     */
+    public static InetSocketAddress address(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    LoopbackTransport lookup(InetSocketAddress address) {
+        return endpoints.get(address.getPort());
+    }
+
+    void unbind(LoopbackTransport endpoint) {
+        endpoints.remove(endpoint.getLocalAddress().getPort(), endpoint);
+    }
+}
@@ -0,0 +1,52 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * This class is an in-memory implementation of Transport, an endpoint on
+ * a LoopbackNetwork. A send copies the datagram once, straight into a
+ * pooled buffer of the receiving endpoint, and queues it there, so a
+ * datagram never goes through the kernel and steady traffic does not
+ * allocate. The copy is needed because senders reuse their frame arrays.
+ */
+public class LoopbackTransport implements Transport {
+
+    private final LoopbackNetwork network;
+    private final InetSocketAddress localAddress;
+    private final DatagramQueue inbox;
+    private volatile boolean closed;
+
+    LoopbackTransport(LoopbackNetwork network, InetSocketAddress localAddress, int queueCapacity) {
+        this.network = network;
+        this.localAddress = localAddress;
+        this.inbox = new DatagramQueue(queueCapacity);
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public void send(byte[] data, int length, InetSocketAddress destination) throws IOException {
+        if (closed) throw new IOException("Transport closed");
+        LoopbackTransport target = network.lookup(destination);
+        if (target != null) {
+            target.inbox.deliver(data, length, localAddress);
+        }
+    }
+
+    @Override
+    public int receive(long timeoutMs, PacketHandler handler) throws IOException {
+        if (closed) throw new IOException("Transport closed");
+        return inbox.receive(timeoutMs, handler);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        network.unbind(this);
+        inbox.clear();
+    }
+}
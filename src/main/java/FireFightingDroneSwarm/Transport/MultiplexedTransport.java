@@ -0,0 +1,138 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class shares one underlying Transport, usually a single UDP
+ * socket, between many endpoints identified by an id. Every endpoint
+ * sends straight through the shared transport and so has its address.
+ * A router thread receives everything sent to that address and hands
+ * each datagram to the inbox of the endpoint the Router picks from its
+ * contents, for example the drone id in an assignment. Datagrams the
+ * router cannot place are dropped.
+ */
+public class MultiplexedTransport implements AutoCloseable {
+
+    /**
+     * Picks the endpoint a datagram is for
+     */
+    @FunctionalInterface
+    public interface Router {
+        /**
+         * @param data the byte array holding the datagram
+         * @param length the length of the datagram
+         * @return int id of the endpoint, or -1 if it is for none
+         */
+        int route(byte[] data, int length);
+    }
+
+    private static final long ROUTER_POLL_INTERVAL = 100;
+
+    private final Transport shared;
+    private final Router router;
+    private final int queueCapacity;
+    private final Map<Integer, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Thread routerThread;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for a multiplexed transport, starts the router thread
+     * @param shared Transport all endpoints send and receive through
+     * @param router Router that picks the endpoint of each received datagram
+     * @param queueCapacity int number of datagrams each endpoint buffers before dropping
+     */
+    public MultiplexedTransport(Transport shared, Router router, int queueCapacity) {
+        this.shared = shared;
+        this.router = router;
+        this.queueCapacity = queueCapacity;
+        this.routerThread = new Thread(this::routeLoop, "transport-router");
+        routerThread.setDaemon(true);
+        routerThread.start();
+    }
+
+    /**
+     * Creates the endpoint for an id
+     * @param id int id the router will use for datagrams to this endpoint
+     * @return Transport for the endpoint
+     * @throws IllegalStateException if the id already has an endpoint
+     */
+    public Transport endpoint(int id) {
+        Endpoint endpoint = new Endpoint(id);
+        if (endpoints.putIfAbsent(id, endpoint) != null) {
+            throw new IllegalStateException("Endpoint already exists: " + id);
+        }
+        return endpoint;
+    }
+
+    /**
+     * Getter for the number of open endpoints
+     * @return int number of endpoints
+     */
+    public int size() {
+        return endpoints.size();
+    }
+
+    private void routeLoop() {
+        while (running) {
+            try {
+                shared.receive(ROUTER_POLL_INTERVAL, (data, length, source) -> {
+                    Endpoint endpoint = endpoints.get(router.route(data, length));
+                    if (endpoint != null) {
+                        endpoint.inbox.deliver(data, length, source);
+                    }
+                });
+            } catch (IOException e) {
+                if (running) e.printStackTrace();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the router thread and closes the shared transport
+     */
+    @Override
+    public void close() {
+        running = false;
+        shared.close();
+        try {
+            routerThread.join(ROUTER_POLL_INTERVAL * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        endpoints.clear();
+    }
+
+    private class Endpoint implements Transport {
+        private final int id;
+        private final DatagramQueue inbox = new DatagramQueue(queueCapacity);
+
+        Endpoint(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return shared.getLocalAddress();
+        }
+
+        @Override
+        public void send(byte[] data, int length, InetSocketAddress destination) throws IOException {
+            shared.send(data, length, destination);
+        }
+
+        @Override
+        public int receive(long timeoutMs, PacketHandler handler) throws IOException {
+            if (!running) throw new IOException("Transport closed");
+            return inbox.receive(timeoutMs, handler);
+        }
+
+        @Override
+        public void close() {
+            endpoints.remove(id, this);
+        }
+    }
+}
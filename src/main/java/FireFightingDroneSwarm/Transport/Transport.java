@@ -0,0 +1,63 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * This interface is the datagram endpoint every subsystem sends and
+ * receives its messages through. UdpTransport is the real network,
+ * LoopbackTransport connects endpoints in the same JVM through memory,
+ * so the whole swarm can be wired together in one process.
+ *
+ * Like UDP, delivery is best effort: a datagram for an address nobody is
+ * bound to, or for an endpoint that cannot keep up, is dropped.
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Callback for each datagram handed out by receive()
+     */
+    @FunctionalInterface
+    interface PacketHandler {
+        /**
+         * Handles one datagram. The data array is only valid during the
+         * call and is reused for the next datagram.
+         * @param data the byte array holding the datagram
+         * @param length the length of the datagram
+         * @param source the address of the sender
+         */
+        void handle(byte[] data, int length, InetSocketAddress source);
+    }
+
+    /**
+     * Getter for the address other endpoints reach this one at
+     * @return InetSocketAddress of this endpoint
+     */
+    InetSocketAddress getLocalAddress();
+
+    /**
+     * Sends a datagram. The data is copied before this returns, so the
+     * caller may reuse its array straight away.
+     * @param data the byte array holding the datagram
+     * @param length the number of bytes to send from the start of data
+     * @param destination the address of the receiving endpoint
+     * @throws IOException if the endpoint is closed or the send fails
+     */
+    void send(byte[] data, int length, InetSocketAddress destination) throws IOException;
+
+    /**
+     * Waits up to timeoutMs for a datagram, then hands every datagram that
+     * is ready to the handler.
+     * @param timeoutMs long maximum time to wait in milliseconds
+     * @param handler PacketHandler called once per datagram
+     * @return int number of datagrams handled, 0 on timeout
+     * @throws IOException if the endpoint is closed or the receive fails
+     */
+    int receive(long timeoutMs, PacketHandler handler) throws IOException;
+
+    /**
+     * Closes the endpoint, datagrams for it are dropped from now on
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,111 @@
+package FireFightingDroneSwarm.Transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/**
+ * This class is the UDP implementation of Transport, a non-blocking
+ * DatagramChannel with a Selector to wait on. Received datagrams are read
+ * into one direct buffer and copied into one array handed to the handler,
+ * and sends go through one reused direct buffer, so neither allocates.
+ */
+public class UdpTransport implements Transport {
+
+    public static final int SCHEDULER_PORT = 50000;
+    // a hot standby scheduler on the same host as the primary
+    public static final int STANDBY_PORT = 50001;
+    public static final int GUI_PORT = 60000;
+    private static final int MAX_DATAGRAM = 1024;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final InetSocketAddress localAddress;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final byte[] receiveData = new byte[MAX_DATAGRAM];
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+
+    /**
+     * Constructor for a UDP endpoint
+     * @param port int port to bind to, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public UdpTransport(int port) throws IOException {
+        channel = DatagramChannel.open();
+        try {
+            if (port != 0) {
+                channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            }
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        localAddress = localAddress(((InetSocketAddress) channel.getLocalAddress()).getPort());
+    }
+
+    /**
+     * Helper to build the address of a port on this host, the way every
+     * subsystem has addressed the others so far
+     * @param port int port on this host
+     * @return InetSocketAddress of the port
+     * @throws UnknownHostException if the local host cannot be resolved
+     */
+    public static InetSocketAddress localAddress(int port) throws UnknownHostException {
+        return new InetSocketAddress(InetAddress.getLocalHost(), port);
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public void send(byte[] data, int length, InetSocketAddress destination) throws IOException {
+        // drones send from their own thread and from callbacks, so guard the shared buffer
+        synchronized (sendBuffer) {
+            sendBuffer.clear();
+            sendBuffer.put(data, 0, length);
+            sendBuffer.flip();
+            channel.send(sendBuffer, destination);
+        }
+    }
+
+    @Override
+    public int receive(long timeoutMs, PacketHandler handler) throws IOException {
+        if (selector.select(Math.max(1, timeoutMs)) == 0) {
+            return 0;
+        }
+        selector.selectedKeys().clear();
+
+        int handled = 0;
+        InetSocketAddress source;
+        while ((source = (InetSocketAddress) channel.receive(receiveBuffer.clear())) != null) {
+            receiveBuffer.flip();
+            int length = receiveBuffer.remaining();
+            receiveBuffer.get(receiveData, 0, length);
+            handler.handle(receiveData, length, source);
+            handled++;
+        }
+        return handled;
+    }
+
+    @Override
+    public void close() {
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
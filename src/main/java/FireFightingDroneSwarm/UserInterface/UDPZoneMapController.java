@@ -1,11 +1,11 @@
 package FireFightingDroneSwarm.UserInterface;
 
 import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Transport.Transport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
 
 import javax.swing.*;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 /**
@@ -18,7 +18,7 @@ public class UDPZoneMapController implements Runnable {
     private final ZoneMapController controller;
     private final int listenPort;
     private volatile boolean running = true;
-    private DatagramSocket socket;
+    private volatile Transport transport;
     private ArrayList<Zone> zones = new ArrayList<>();
 
     public UDPZoneMapController(ZoneMapController controller, int listenPort) {
@@ -26,25 +26,35 @@ public class UDPZoneMapController implements Runnable {
         this.listenPort = listenPort;
     }
 
+    /**
+     * Constructor for a controller listening on the given transport, for
+     * example a LoopbackTransport to run the whole swarm in one process.
+     * @param controller ZoneMapController to pass updates on to
+     * @param transport Transport to listen on
+     */
+    public UDPZoneMapController(ZoneMapController controller, Transport transport) {
+        this.controller = controller;
+        this.listenPort = transport.getLocalAddress().getPort();
+        this.transport = transport;
+    }
+
     @Override
     public void run() {
         try {
-            socket = new DatagramSocket(listenPort);
-            socket.setReuseAddress(true);
-            byte[] buffer = new byte[1024];
+            if (transport == null) {
+                transport = new UdpTransport(listenPort);
+            }
 
             while (running) {
-                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-                socket.receive(packet);
-                String msg = new String(packet.getData(), 0, packet.getLength()).trim();
-                handlePacket(msg);
+                transport.receive(500, (data, length, source) ->
+                        handlePacket(new String(data, 0, length, StandardCharsets.UTF_8).trim()));
             }
 
         } catch (Exception e) {
             if (running) e.printStackTrace();
         } finally {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
+            if (transport != null) {
+                transport.close();
             }
         }
     }
@@ -146,9 +156,6 @@ public class UDPZoneMapController implements Runnable {
      */
     public void shutdown() {
         running = false;
-        if (socket != null) {
-            socket.close();
-        }
     }
 
     public static void main(String[] args) {
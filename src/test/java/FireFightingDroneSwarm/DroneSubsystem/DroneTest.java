@@ -4,6 +4,7 @@ import FireFightingDroneSwarm.Events.LogManager;
 import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
 import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
 import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import FireFightingDroneSwarm.Protocol.Telemetry;
 import FireFightingDroneSwarm.Scheduler.Scheduler;
 import org.junit.jupiter.api.Test;
 
@@ -90,17 +91,21 @@ class DroneTest {
         receiver.setSoTimeout(2000);
 
         Drone drone = new Drone(1);
-        String statusMsg = "1,IDLE,0.0,0.0,100";
 
-        drone.sendStatus(statusMsg);
+        drone.sendStatus();
 
         byte[] buffer = new byte[100];
         DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
 
         receiver.receive(packet);
-        String received = new String(packet.getData(), 0, packet.getLength());
-
-        assertEquals(statusMsg, received);
+        Telemetry received = new Telemetry();
+
+        assertTrue(received.decode(packet.getData(), packet.getLength()));
+        assertEquals(Telemetry.STATUS, received.getType());
+        assertEquals(1, received.getDroneId());
+        assertEquals(DroneStatus.IDLE, received.getStatus());
+        assertEquals(0.0, received.getPosX(), 1e-9);
+        assertEquals(0, received.getFireID());
         receiver.close();
     }
 
@@ -167,7 +172,7 @@ class DroneTest {
         setPrivateField(drone, "injectedFault", FaultType.PACKET_LOSS);
 
         // This call should trigger the fault check and return early
-        drone.sendStatus("3,IDLE,0.0,0.0,100");
+        drone.sendStatus();
 
         byte[] buffer = new byte[100];
         DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
@@ -0,0 +1,113 @@
+package FireFightingDroneSwarm.Events;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryLogBackendTest {
+
+    @TempDir
+    Path directory;
+
+    private static LogRecord event(String entity, String code, String... data) {
+        LogRecord record = new LogRecord(null).start(LogPriority.NORMAL, entity, code);
+        for (String d : data) {
+            record.add(d);
+        }
+        return record;
+    }
+
+    /**
+     * Tests that events spread over several segments read back in order
+     * with every field exactly as it was logged, numbers or not.
+     * @throws IOException if the log cannot be written or read
+     */
+    @Test
+    void testRoundTripAcrossSegments() throws IOException {
+        Path base = directory.resolve("drone_logs.bin");
+        BinaryLogBackend backend = new BinaryLogBackend(base, BinaryLogBackend.MIN_SEGMENT_SIZE);
+        int count = 5000;
+        for (int i = 0; i < count; i++) {
+            backend.append(event("DRONE_" + (i % 7), "MOVEMENT_START", "FireID: " + i, "Score: 1.50", "Speed: 2.5",
+                    "Zone: 007", "Finalizing log buffer...", "Note: text " + i, "Delta: -" + i));
+        }
+        backend.close();
+        assertTrue(Files.exists(BinaryLogBackend.segmentPath(base, 1)));
+
+        List<String[]> events = new ArrayList<>();
+        long[] lastNano = {Long.MIN_VALUE};
+        int read = BinaryLogReader.read(base, (epochMillis, nanoTime, entity, code, data) -> {
+            assertTrue(nanoTime >= lastNano[0]);
+            lastNano[0] = nanoTime;
+            assertEquals("MOVEMENT_START", code);
+            List<String> fields = new ArrayList<>(List.of(entity));
+            fields.addAll(List.of(data));
+            events.add(fields.toArray(new String[0]));
+        });
+
+        assertEquals(count, read);
+        for (int i = 0; i < count; i++) {
+            assertArrayEquals(new String[]{"DRONE_" + (i % 7), "FireID: " + i, "Score: 1.50", "Speed: 2.5",
+                    "Zone: 007", "Finalizing log buffer...", "Note: text " + i, "Delta: -" + i}, events.get(i));
+        }
+    }
+
+    /**
+     * Tests that typed fields, numbers with a fixed number of decimals and
+     * coordinates included, read back as the text a TextLogBackend writes.
+     * @throws IOException if the log cannot be written or read
+     */
+    @Test
+    void testTypedFieldsReadBackAsText() throws IOException {
+        Path base = directory.resolve("typed.bin");
+        BinaryLogBackend backend = new BinaryLogBackend(base);
+        List<String[]> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            LogRecord record = new LogRecord(null).start(LogPriority.NORMAL, "DRONE_1", "MOVEMENT_ARRIVED")
+                    .add("FireID", i)
+                    .add("Score", i / 7.0, 2)
+                    .add("Speed", i / 3.0)
+                    .addPoint("Pos", i * 1.5, -i / 9.0)
+                    .add("State", LogPriority.LOW)
+                    .add("Finalizing log buffer...");
+            expected.add(record.render());
+            backend.append(record);
+        }
+        backend.close();
+
+        List<String[]> events = new ArrayList<>();
+        BinaryLogReader.read(base, (epochMillis, nanoTime, entity, code, data) -> events.add(data));
+        assertEquals(expected.size(), events.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), events.get(i));
+        }
+    }
+
+    /**
+     * Tests that a rendered binary log has the same lines as the text backend.
+     * @throws IOException if the log cannot be written or read
+     */
+    @Test
+    void testRenderMatchesTextFormat() throws IOException {
+        Path base = directory.resolve("render.bin");
+        BinaryLogBackend backend = new BinaryLogBackend(base);
+        backend.append(event("SCHEDULER", "ASSIGN_TASK", "FireID: 3", "DroneID: 2"));
+        backend.append(event("SCHEDULER", "ALL_TASKS_COMPLETE", "Finalizing log buffer..."));
+        backend.close();
+
+        Path text = directory.resolve("render.txt");
+        assertEquals(2, BinaryLogReader.render(base, text));
+        List<String> lines = Files.readAllLines(text);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).matches("\\[\\d{4}-\\d{2}-\\d{2} [\\d:.]{12}\\] \\[SCHEDULER\\] \\[ASSIGN_TASK\\]"
+                + " \\[FireID: 3\\] \\[DroneID: 2\\]"));
+        assertTrue(lines.get(1).endsWith("] [SCHEDULER] [ALL_TASKS_COMPLETE] [Finalizing log buffer...]"));
+    }
+}
@@ -0,0 +1,172 @@
+package FireFightingDroneSwarm.Events;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoggerTest {
+
+    /**
+     * Backend keeping every event in memory
+     */
+    private static class RecordingBackend implements LogBackend {
+        final List<Long> times = new ArrayList<>();
+        final List<String> lines = new ArrayList<>();
+
+        @Override
+        public void append(LogRecord event) {
+            times.add(event.nanoTime);
+            lines.add(event.entity + " " + event.code + " " + String.join("|", event.render()));
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    /**
+     * Tests that an event keeps the time Log() was called, not the time
+     * it was flushed, and that wall clock time follows from it.
+     * @throws InterruptedException if the test is interrupted while waiting
+     */
+    @Test
+    void testTimestampTakenAtLog() throws InterruptedException {
+        RecordingBackend backend = new RecordingBackend();
+        EventLogger logger = new EventLogger(60_000, backend);
+
+        long before = System.nanoTime();
+        logger.Log("DRONE_1", "MOVEMENT_START", "FireID: 1");
+        long after = System.nanoTime();
+        Thread.sleep(200);
+        logger.flush();
+        logger.shutdown();
+
+        assertEquals(1, backend.times.size());
+        long logged = backend.times.get(0);
+        assertTrue(before <= logged && logged <= after);
+
+        LocalDateTime wallTime = EventLogger.wallTime(logged);
+        long behind = Duration.between(wallTime, LocalDateTime.now()).toMillis();
+        assertTrue(behind >= 150, "timestamp is " + behind + " ms old");
+    }
+
+    /**
+     * Tests that typed fields are written as the text the same fields
+     * built by string concatenation would give.
+     */
+    @Test
+    void testTypedFieldsRenderAsText() {
+        RecordingBackend backend = new RecordingBackend();
+        EventLogger logger = new EventLogger(60_000, backend);
+        double x = 12.5;
+        double y = -3.0;
+        logger.event(LogPriority.NORMAL, "DRONE_2", "STATE_TRANSITION")
+                .add("To", Severity.HIGH)
+                .addPoint("Pos", x, y)
+                .add("Water", 15)
+                .add("Score", 1.0 / 3, 2)
+                .add("Speed", 2.5)
+                .add("Finalizing log buffer...")
+                .log();
+        logger.Log("DRONE_2", "TASK_START", "FireID", 7, "Zone", 3);
+        logger.shutdown();
+
+        String transition = "DRONE_2 STATE_TRANSITION To: " + Severity.HIGH + "|Pos: (" + x + "," + y + ")"
+                + "|Water: 15|Score: " + String.format("%.2f", 1.0 / 3) + "|Speed: 2.5|Finalizing log buffer...";
+        assertEquals(List.of(transition, "DRONE_2 TASK_START FireID: 7|Zone: 3"), backend.lines);
+    }
+
+    /**
+     * Tests that producers on several threads sharing a small ring lose no
+     * event and keep the order of each thread's events, the ring being
+     * drained early whenever it fills up.
+     * @throws InterruptedException if a producer thread is interrupted
+     */
+    @Test
+    void testConcurrentProducersBlockWithoutLoss() throws InterruptedException {
+        RecordingBackend backend = new RecordingBackend();
+        EventLogger logger = new EventLogger(60_000, backend, 64);
+        int perThread = 5000;
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            String entity = "DRONE_" + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.Log(entity, "SEND_STATUS", "Seq", i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logger.shutdown();
+
+        assertEquals(threads.length * perThread, backend.lines.size());
+        assertEquals(0, logger.getDroppedCount());
+        int[] next = new int[threads.length];
+        for (String line : backend.lines) {
+            int thread = line.charAt("DRONE_".length()) - '0';
+            assertEquals("DRONE_" + thread + " SEND_STATUS Seq: " + next[thread]++, line);
+        }
+    }
+
+    /**
+     * Tests that once the ring is three quarters full LOW events are
+     * dropped, NORMAL ones kept while there is room, and the loss reported.
+     */
+    @Test
+    void testDropLowPriority() {
+        RecordingBackend backend = new RecordingBackend();
+        EventLogger logger = new EventLogger(60_000, backend, 16);
+        logger.setOverflowPolicy(LogOverflowPolicy.DROP_LOW_PRIORITY);
+        // nothing drains the ring once the logger is shut down
+        logger.shutdown();
+
+        for (int i = 0; i < 12; i++) {
+            logger.Log("DRONE_1", "TASK_START", "FireID", i);
+        }
+        for (int i = 0; i < 5; i++) {
+            logger.event(LogPriority.LOW, "DRONE_1", "SEND_STATUS").add("Seq", i).log();
+        }
+        for (int i = 12; i < 17; i++) {
+            logger.Log("DRONE_1", "TASK_START", "FireID", i);
+        }
+        assertEquals(6, logger.getDroppedCount());
+
+        logger.flush();
+        assertEquals(17, backend.lines.size());
+        assertEquals("DRONE_1 TASK_START FireID: 15", backend.lines.get(15));
+        assertEquals("LOGGER EVENTS_DROPPED Count: 6", backend.lines.get(16));
+    }
+
+    /**
+     * Tests that once the ring is three quarters full one event in
+     * SAMPLE_RATE is kept, whatever its priority.
+     */
+    @Test
+    void testSample() {
+        RecordingBackend backend = new RecordingBackend();
+        EventLogger logger = new EventLogger(60_000, backend, 16);
+        logger.setOverflowPolicy(LogOverflowPolicy.SAMPLE);
+        logger.shutdown();
+
+        for (int i = 0; i < 12 + 2 * LogOverflowPolicy.SAMPLE_RATE; i++) {
+            logger.Log("DRONE_1", "TASK_START", "FireID", i);
+        }
+        logger.flush();
+
+        assertEquals(2 * LogOverflowPolicy.SAMPLE_RATE - 2, logger.getDroppedCount());
+        assertEquals(15, backend.lines.size());
+        assertEquals("DRONE_1 TASK_START FireID: 12", backend.lines.get(12));
+        assertEquals("DRONE_1 TASK_START FireID: " + (12 + LogOverflowPolicy.SAMPLE_RATE), backend.lines.get(13));
+    }
+}
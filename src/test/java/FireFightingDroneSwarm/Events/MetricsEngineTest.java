@@ -0,0 +1,155 @@
+package FireFightingDroneSwarm.Events;
+
+import FireFightingDroneSwarm.Metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsEngineTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static LogRecord event(long nanoTime, String entity, String code) {
+        LogRecord record = new LogRecord(null).start(LogPriority.NORMAL, entity, code);
+        record.nanoTime = nanoTime;
+        return record;
+    }
+
+    /**
+     * Tests response, completion and utilization figures of two fires,
+     * and that they can be read while the run is still going.
+     */
+    @Test
+    void testRunningAggregates() {
+        MetricsEngine metrics = new MetricsEngine();
+        metrics.accept(event(0, "INCIDENT_REPORTER", "FIRE_SENT")
+                .add("FireID", 1).add("Zone", 1).add("Severity", "HIGH"));
+        metrics.accept(event(SECOND, "SCHEDULER", "ASSIGN_TASK")
+                .add("DroneID", 1).add("FireID", 1).add("Score", 1.5, 2));
+        metrics.accept(event(SECOND, "DRONE_1", "TASK_START").add("FireID", 1).add("Zone", 1));
+        metrics.accept(event(3 * SECOND, "DRONE_1", "MOVEMENT_ARRIVED").add("FireID", 1));
+
+        assertEquals(1, metrics.getResponseCount());
+        assertEquals(3.0, metrics.getAverageResponseTime(), 1e-9);
+        assertEquals(0, metrics.getCompletionCount());
+
+        metrics.accept(event(4 * SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", 1));
+        metrics.accept(event(5 * SECOND, "SCHEDULER", "ASSIGN_TASK").add("DroneID", 1).add("FireID", 2));
+        metrics.accept(event(6 * SECOND, "DRONE_1", "MOVEMENT_ARRIVED").add("FireID", 2));
+        metrics.accept(event(9 * SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", 2));
+        metrics.accept(event(10 * SECOND, "DRONE_1", "STATE_TRANSITION").add("From", "RETURNING").add("To", "IDLE"));
+
+        assertEquals(2, metrics.getResponseCount());
+        assertEquals(2.0, metrics.getAverageResponseTime(), 1e-9);
+        assertEquals(3.0, metrics.getMaxResponseTime(), 1e-9);
+        assertEquals(2, metrics.getCompletionCount());
+        assertEquals(4.0, metrics.getAverageCompletionTime(), 1e-9);
+        assertEquals(4.0, metrics.getMaxCompletionTime(), 1e-9);
+        assertEquals(10.0, metrics.getDuration(), 1e-9);
+        assertEquals(9.0, metrics.getDroneActiveTimes().get("DRONE_1"), 1e-9);
+        assertTrue(metrics.toString().contains(" - DRONE_1: 90.00% (9.00 sec active)"));
+    }
+
+    /**
+     * Tests that a report merged into another fire completes when that
+     * fire is put out.
+     */
+    @Test
+    void testCoalescedFireCompletes() {
+        MetricsEngine metrics = new MetricsEngine();
+        metrics.accept(event(0, "INCIDENT_REPORTER", "FIRE_SENT").add("FireID", 1).add("Zone", 1));
+        metrics.accept(event(SECOND, "INCIDENT_REPORTER", "FIRE_SENT").add("FireID", 2).add("Zone", 1));
+        metrics.accept(event(6 * SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", 1));
+        metrics.accept(event(6 * SECOND, "SCHEDULER", "COALESCED_FIRE_DONE").add("FireID", 2).add("Into", 1));
+
+        assertEquals(2, metrics.getCompletionCount());
+        assertEquals(5.5, metrics.getAverageCompletionTime(), 1e-9);
+    }
+
+    /**
+     * Tests that a fire split across two drones responds at the first
+     * arrival and completes when the last share is done, not the first.
+     */
+    @Test
+    void testSplitFireCompletesAfterLastShare() {
+        MetricsEngine metrics = new MetricsEngine();
+        metrics.accept(event(0, "INCIDENT_REPORTER", "FIRE_SENT").add("FireID", 1).add("Zone", 1));
+        metrics.accept(event(SECOND, "SCHEDULER", "FIRE_SPLIT").add("FireID", 1).add("Drones", 2));
+        metrics.accept(event(SECOND, "SCHEDULER", "ASSIGN_TASK").add("DroneID", 1).add("FireID", 1));
+        metrics.accept(event(SECOND, "SCHEDULER", "ASSIGN_TASK").add("DroneID", 2).add("FireID", 1));
+        metrics.accept(event(2 * SECOND, "DRONE_1", "MOVEMENT_ARRIVED").add("FireID", 1));
+        metrics.accept(event(4 * SECOND, "DRONE_2", "MOVEMENT_ARRIVED").add("FireID", 1));
+        metrics.accept(event(3 * SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", 1));
+
+        assertEquals(1, metrics.getResponseCount());
+        assertEquals(2.0, metrics.getMaxResponseTime(), 1e-9);
+        assertEquals(0, metrics.getCompletionCount());
+
+        metrics.accept(event(5 * SECOND, "DRONE_2", "EXTINGUISHING_END").add("FireID", 1));
+        metrics.accept(event(6 * SECOND, "SCHEDULER", "SPLIT_FIRE_DONE").add("FireID", 1));
+
+        assertEquals(1, metrics.getCompletionCount());
+        assertEquals(6.0, metrics.getMaxCompletionTime(), 1e-9);
+    }
+
+    /**
+     * Tests that dropped fires are no longer followed and that fires never
+     * put out are given up on, oldest first, past MAX_OPEN_FIRES.
+     */
+    @Test
+    void testOpenFiresBounded() {
+        MetricsEngine metrics = new MetricsEngine();
+        metrics.accept(event(0, "INCIDENT_REPORTER", "FIRE_SENT").add("FireID", 1));
+        metrics.accept(event(SECOND, "SCHEDULER", "FIRE_DROPPED").add("FireID", 1).add("Reason", "Buffer full"));
+        assertEquals(0, metrics.getOpenFireCount());
+        assertEquals(1, metrics.getAbandonedCount());
+
+        for (int fire = 0; fire < MetricsEngine.MAX_OPEN_FIRES + 10; fire++) {
+            metrics.accept(event(fire, "INCIDENT_REPORTER", "FIRE_SENT").add("FireID", fire));
+        }
+        assertEquals(MetricsEngine.MAX_OPEN_FIRES, metrics.getOpenFireCount());
+        assertEquals(11, metrics.getAbandonedCount());
+
+        // the newest fires are still followed
+        metrics.accept(event(SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", MetricsEngine.MAX_OPEN_FIRES));
+        assertEquals(1, metrics.getCompletionCount());
+        metrics.accept(event(SECOND, "DRONE_1", "EXTINGUISHING_END").add("FireID", 0));
+        assertEquals(1, metrics.getCompletionCount());
+    }
+
+    /**
+     * Tests that latencies are recorded by severity and zone, and that
+     * the overall histogram is the merge of the severities.
+     */
+    @Test
+    void testLatenciesBySeverityAndZone() {
+        MetricsEngine metrics = new MetricsEngine();
+        for (int fire = 1; fire <= 100; fire++) {
+            String severity = fire <= 90 ? "LOW" : "HIGH";
+            long sent = fire * 100 * SECOND;
+            metrics.accept(event(sent, "INCIDENT_REPORTER", "FIRE_SENT")
+                    .add("FireID", fire).add("Zone", fire % 2 + 1).add("Severity", severity));
+            long dispatch = fire <= 90 ? SECOND : 10 * SECOND;
+            metrics.accept(event(sent + dispatch, "SCHEDULER", "ASSIGN_TASK").add("DroneID", 1).add("FireID", fire));
+            metrics.accept(event(sent + dispatch + SECOND, "DRONE_1", "MOVEMENT_ARRIVED").add("FireID", fire));
+            metrics.accept(event(sent + dispatch + 2 * SECOND, "DRONE_1", "EXTINGUISHING_END")
+                    .add("FireID", fire));
+        }
+
+        Map<String, LatencyHistogram.Snapshot> latencies = metrics.getLatencies();
+        assertEquals(100, latencies.get("dispatch").getCount());
+        assertEquals(90, latencies.get("dispatch.severity.LOW").getCount());
+        assertEquals(10, latencies.get("dispatch.severity.HIGH").getCount());
+        assertEquals(50, latencies.get("arrival.zone.1").getCount());
+        assertEquals(50, latencies.get("extinguish.zone.2").getCount());
+
+        // the slowest tenth are the HIGH fires, the tail shows them and the median does not
+        double tolerance = SECOND / 16.0;
+        assertEquals(SECOND, latencies.get("dispatch").percentile(50), tolerance);
+        assertEquals(10 * SECOND, latencies.get("dispatch").percentile(99), 10 * tolerance);
+        assertEquals(12 * SECOND, latencies.get("extinguish.severity.HIGH").percentile(99.9), 12 * tolerance);
+        assertTrue(metrics.toString().contains(" - dispatch.severity.HIGH"));
+    }
+}
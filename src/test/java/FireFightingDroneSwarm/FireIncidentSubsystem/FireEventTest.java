@@ -73,5 +73,27 @@ class FireEventTest {
         assertTrue(s.contains("DRONE_REQUESTED"));
         assertTrue(s.contains("MODERATE"));
     }
-}
 
+    /**
+     * Tests that coalesce() keeps the first event's fire ID, the earlier
+     * timestamp, the higher severity and the larger water requirement,
+     * without changing either event.
+     */
+    @Test
+    void TestCoalesce() {
+        FireEvent first = new FireEvent(4, TaskType.FIRE_DETECTED,
+                LocalTime.of(14, 10), Severity.LOW, FaultType.NONE, 2);
+        FireEvent repeat = new FireEvent(4, TaskType.DRONE_REQUESTED,
+                LocalTime.of(14, 5), Severity.HIGH, FaultType.NOZZLE_JAM, 9);
+
+        FireEvent merged = first.coalesce(repeat);
+
+        assertEquals(2, merged.getFireID());
+        assertEquals(TaskType.FIRE_DETECTED, merged.getTaskType());
+        assertEquals(LocalTime.of(14, 5), merged.getTimestamp());
+        assertEquals(Severity.HIGH, merged.getSeverity());
+        assertEquals(FaultType.NOZZLE_JAM, merged.getFault());
+        assertEquals(15, merged.getRequiredWater());
+        assertEquals(Severity.LOW, first.getSeverity());
+    }
+}
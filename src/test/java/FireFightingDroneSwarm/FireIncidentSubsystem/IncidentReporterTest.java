@@ -1,6 +1,7 @@
 package FireFightingDroneSwarm.FireIncidentSubsystem;
 
 import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
@@ -15,30 +16,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class IncidentReporterTest {
 
-    /**
-     * Tests that the separateBytes() helper correctly splits
-     * a two-byte integer value into high and low bytes.
-     * @throws Exception if reflection fails
-     */
-    @Test
-    void testSeparateBytes() throws Exception {
-        IncidentReporter reporter = new IncidentReporter(
-                new InputReader("sample_event_file.csv", "sample_zone_file.csv")
-        );
-
-        byte[] data = new byte[2];
-
-        Method separateBytes = IncidentReporter.class.getDeclaredMethod(
-                "separateBytes", byte[].class, int.class, int.class
-        );
-        separateBytes.setAccessible(true);
-
-        separateBytes.invoke(reporter, data, 0, 1600);
-
-        assertEquals((byte) (1600 >> 8), data[0]);
-        assertEquals((byte) 1600, data[1]);
-    }
-
     /**
      * Tests that getZoneById() returns the correct Zone object
      * when the requested zone ID exists.
@@ -111,16 +88,7 @@ class IncidentReporterTest {
 
     /**
      * Tests that sendEvent() sends a correctly formatted UDP packet
-     * for a fire event.
-     * Expected packet format:
-     * byte[0] = message type (1 = FIRE_EVENT)
-     * byte[1] = zone ID
-     * byte[2] = severity
-     * byte[3] = task type
-     * byte[4..5] = startX
-     * byte[6..7] = startY
-     * byte[8..9] = endX
-     * byte[10..11] = endY
+     * for a fire event, a FIRE_EVENT FireEventFrame.
      * @throws Exception if reflection or socket communication fails
      */
     @Test
@@ -152,11 +120,13 @@ class IncidentReporterTest {
         DatagramPacket packet = new DatagramPacket(buf, buf.length);
         receiver.receive(packet);
 
-        assertEquals(15, packet.getLength());
-        assertEquals(1, buf[0]); // message type
-        assertEquals(3, buf[1]); // zone ID
-        assertEquals((byte) Severity.LOW.ordinal(), buf[2]);
-        assertEquals((byte) TaskType.FIRE_DETECTED.ordinal(), buf[3]);
+        FireEventFrame frame = new FireEventFrame();
+        assertTrue(frame.decode(buf, packet.getLength()));
+        assertEquals(FireEventFrame.FIRE_EVENT, frame.getType());
+        assertEquals(3, frame.getZoneID());
+        assertEquals(Severity.LOW, frame.getSeverity());
+        assertEquals(TaskType.FIRE_DETECTED, frame.getTaskType());
+        assertEquals(1, frame.getFireID());
 
         receiver.close();
     }
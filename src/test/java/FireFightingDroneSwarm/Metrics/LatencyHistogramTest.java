@@ -0,0 +1,82 @@
+package FireFightingDroneSwarm.Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    /**
+     * Tests that every value falls in a bucket whose bounds contain it and
+     * whose width is at most 1/16 of its lower bound.
+     */
+    @Test
+    void testBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket < LatencyHistogram.BUCKETS);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= value);
+            if (bucket + 1 < LatencyHistogram.BUCKETS) {
+                long upper = LatencyHistogram.lowerBound(bucket + 1);
+                assertTrue(value < upper);
+                assertTrue(upper - LatencyHistogram.lowerBound(bucket) <= Math.max(1, value / 16));
+            }
+        }
+    }
+
+    /**
+     * Tests count, mean, max and percentiles of a known distribution, and
+     * that concurrent recording loses no latency.
+     * @throws Exception if a recording thread is interrupted
+     */
+    @Test
+    void testPercentilesAndConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (long value = 1; value <= 1000; value++) {
+                    histogram.record(value * 1000);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(4000, snapshot.getCount());
+        assertEquals(500_500, snapshot.getMean(), 1e-6);
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(500_000, snapshot.percentile(50), 500_000 / 16.0);
+        assertEquals(990_000, snapshot.percentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, snapshot.percentile(100));
+        assertEquals(0, new LatencyHistogram().snapshot().percentile(99));
+    }
+
+    /**
+     * Tests that merged snapshots give the percentiles of one histogram
+     * holding every latency of both.
+     */
+    @Test
+    void testMerge() {
+        LatencyHistogram low = new LatencyHistogram();
+        LatencyHistogram high = new LatencyHistogram();
+        LatencyHistogram both = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            (value <= 900 ? low : high).record(value * 1000);
+            both.record(value * 1000);
+        }
+
+        LatencyHistogram.Snapshot merged = low.snapshot().merge(high.snapshot());
+        LatencyHistogram.Snapshot expected = both.snapshot();
+        assertEquals(expected.getCount(), merged.getCount());
+        assertEquals(expected.getMean(), merged.getMean(), 1e-6);
+        assertEquals(expected.getMax(), merged.getMax());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            assertEquals(expected.percentile(percentile), merged.percentile(percentile));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package FireFightingDroneSwarm.Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    /**
+     * Tests that a snapshot holds every metric by name, and that the same
+     * metrics can be read through JMX once registered.
+     * @throws Exception if the MBean cannot be registered
+     */
+    @Test
+    void testSnapshotAndJmx() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicLong depth = new AtomicLong(7);
+        registry.counter("fires").add(3);
+        registry.counter("fires").increment();
+        registry.gauge("depth", depth::get);
+        registry.histogram("latency").record(2_000);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(4, snapshot.getCounters().get("fires"));
+        assertEquals(7, snapshot.getGauges().get("depth"));
+        assertEquals(1, snapshot.getHistograms().get("latency").getCount());
+
+        String name = "FireFightingDroneSwarm:type=MetricsRegistryTest";
+        registry.register(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            depth.set(9);
+            assertEquals(4L, server.getAttribute(new ObjectName(name), "fires"));
+            assertEquals(9L, server.getAttribute(new ObjectName(name), "depth"));
+            assertEquals(2.0, (Double) server.getAttribute(new ObjectName(name), "latency.maxMicros"), 1e-9);
+            assertEquals(7, server.getMBeanInfo(new ObjectName(name)).getAttributes().length);
+        } finally {
+            registry.unregister(name);
+        }
+    }
+
+    /**
+     * Tests that periodic snapshots are delivered until stopped.
+     * @throws Exception if interrupted while waiting for snapshots
+     */
+    @Test
+    void testPeriodicSnapshots() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("ticks").increment();
+        CountDownLatch delivered = new CountDownLatch(2);
+        AutoCloseable snapshots = registry.startSnapshots(10, snapshot -> {
+            assertEquals(1, snapshot.getCounters().get("ticks"));
+            delivered.countDown();
+        });
+        try {
+            assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        } finally {
+            snapshots.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package FireFightingDroneSwarm.Protocol;
+
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireEventFrameTest {
+
+    /**
+     * Tests that values past the old two byte and one byte fields, and
+     * negative coordinates, survive an encode and decode.
+     */
+    @Test
+    void testRoundTripWideValues() {
+        FireEvent event = new FireEvent(300, TaskType.FIRE_DETECTED, LocalTime.now(),
+                Severity.MODERATE, FaultType.NOZZLE_JAM, 1_000_000);
+        event.setRequiredWater(4);
+        Zone zone = new Zone(300, new int[]{-50, 70000}, new int[]{250000, 80000});
+
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new FireEventFrame().set(FireEventFrame.ASSIGNMENT, event, zone, 20000).encode(data);
+
+        FireEventFrame decoded = new FireEventFrame();
+        assertTrue(decoded.decode(data, length));
+        assertEquals(FireEventFrame.ASSIGNMENT, decoded.getType());
+        assertEquals(20000, decoded.getDroneId());
+        assertEquals(300, decoded.getZoneID());
+        assertEquals(Severity.MODERATE, decoded.getSeverity());
+        assertEquals(FaultType.NOZZLE_JAM, decoded.getFault());
+        assertEquals(1_000_000, decoded.getFireID());
+        assertEquals(4, decoded.getRequiredWater());
+        assertEquals(-50, decoded.getStartX());
+        assertEquals(70000, decoded.getStartY());
+        assertEquals(250000, decoded.getEndX());
+        assertEquals(80000, decoded.getEndY());
+
+        double[] center = decoded.getZoneCenter(new double[2]);
+        assertEquals(124975.0, center[0], 1e-9);
+        assertEquals(75000.0, center[1], 1e-9);
+    }
+
+    /**
+     * Tests that frames of another version or cut short are rejected.
+     */
+    @Test
+    void testRejectsBadFrames() {
+        FireEvent event = new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(),
+                Severity.LOW, FaultType.NONE, 5);
+        Zone zone = new Zone(1, new int[]{0, 0}, new int[]{700, 600});
+
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new FireEventFrame().set(FireEventFrame.FIRE_EVENT, event, zone).encode(data);
+
+        FireEventFrame decoded = new FireEventFrame();
+        assertFalse(decoded.decode(data, length - 1));
+
+        data[1] = FireEventFrame.VERSION + 1;
+        assertFalse(decoded.decode(data, length));
+
+        data[1] = FireEventFrame.VERSION;
+        assertTrue(decoded.decode(data, length));
+        assertEquals(5, decoded.getFireID());
+    }
+}
@@ -0,0 +1,59 @@
+package FireFightingDroneSwarm.Protocol;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryTest {
+
+    /**
+     * Tests that every field survives an encode and decode, with positions
+     * rounded to the nearest hundredth.
+     */
+    @Test
+    void testRoundTrip() {
+        byte[] frame = new byte[Telemetry.FRAME_LENGTH];
+        int length = new Telemetry()
+                .set(Telemetry.STATUS, 300, DroneStatus.EN_ROUTE, 1234.567, -12.5, 10, 87.3, 70000, 42)
+                .encode(frame);
+        assertEquals(Telemetry.FRAME_LENGTH, length);
+
+        Telemetry decoded = new Telemetry();
+        assertTrue(decoded.decode(frame, length));
+        assertFalse(decoded.isFault());
+        assertEquals(300, decoded.getDroneId());
+        assertEquals(DroneStatus.EN_ROUTE, decoded.getStatus());
+        assertEquals(1234.57, decoded.getPosX(), 1e-9);
+        assertEquals(-12.5, decoded.getPosY(), 1e-9);
+        assertEquals(10, decoded.getWater());
+        assertEquals(87.3, decoded.getBattery(), 1e-9);
+        assertEquals(70000, decoded.getFireID());
+        assertEquals(42, decoded.getSequence());
+    }
+
+    /**
+     * Tests that short frames, other message types and unknown statuses are
+     * rejected without touching the decoded fields.
+     */
+    @Test
+    void testRejectsMalformedFrames() {
+        byte[] frame = new byte[Telemetry.FRAME_LENGTH];
+        new Telemetry().set(Telemetry.FAULT, 7, DroneStatus.FAULTED, 1, 2, 3, 4, 5, 6).encode(frame);
+
+        Telemetry decoded = new Telemetry();
+        assertFalse(decoded.decode(frame, Telemetry.FRAME_LENGTH - 1));
+
+        frame[0] = 3;
+        assertFalse(decoded.decode(frame, frame.length));
+        frame[0] = Telemetry.FAULT;
+        frame[3] = (byte) 200;
+        assertFalse(decoded.decode(frame, frame.length));
+        assertEquals(0, decoded.getDroneId());
+
+        frame[3] = (byte) DroneStatus.FAULTED.ordinal();
+        assertTrue(decoded.decode(frame, frame.length));
+        assertTrue(decoded.isFault());
+        assertEquals(7, decoded.getDroneId());
+    }
+}
@@ -0,0 +1,88 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    /**
+     * Tests a small square problem where the greedy choice is not optimal.
+     */
+    @Test
+    void testSquareOptimal() {
+        double[][] cost = {
+                {1, 2},
+                {1, 100}
+        };
+        int[] match = AssignmentSolver.solve(cost);
+        assertArrayEquals(new int[]{1, 0}, match);
+    }
+
+    /**
+     * Tests that extra rows are left unassigned when there are fewer columns.
+     */
+    @Test
+    void testMoreRowsThanColumns() {
+        double[][] cost = {
+                {5},
+                {1},
+                {3}
+        };
+        int[] match = AssignmentSolver.solve(cost);
+        assertArrayEquals(new int[]{-1, 0, -1}, match);
+    }
+
+    /**
+     * Tests the solver against a brute force search over all permutations.
+     */
+    @Test
+    void testMatchesBruteForce() {
+        Random rand = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            int rows = 1 + rand.nextInt(5);
+            int cols = 1 + rand.nextInt(5);
+            double[][] cost = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    cost[i][j] = -rand.nextDouble() * 10;
+                }
+            }
+
+            int[] match = AssignmentSolver.solve(cost);
+            Set<Integer> usedCols = new HashSet<>();
+            double total = 0;
+            int matched = 0;
+            for (int i = 0; i < rows; i++) {
+                if (match[i] >= 0) {
+                    assertTrue(usedCols.add(match[i]), "column assigned twice");
+                    total += cost[i][match[i]];
+                    matched++;
+                }
+            }
+            assertEquals(Math.min(rows, cols), matched);
+            assertEquals(bruteForce(cost, 0, new boolean[cols], Math.min(rows, cols)), total, 1e-9);
+        }
+    }
+
+    private double bruteForce(double[][] cost, int row, boolean[] used, int remaining) {
+        if (remaining == 0) return 0;
+        if (row == cost.length) return Double.POSITIVE_INFINITY;
+        double best = Double.POSITIVE_INFINITY;
+        // skip this row only if the other rows can still fill every column pairing
+        if (cost.length - row > remaining) {
+            best = bruteForce(cost, row + 1, used, remaining);
+        }
+        for (int j = 0; j < used.length; j++) {
+            if (used[j]) continue;
+            used[j] = true;
+            best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used, remaining - 1));
+            used[j] = false;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,68 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentTimerWheelTest {
+
+    /**
+     * Tests that deadlines expire once their tick has passed, and not before.
+     */
+    @Test
+    void testExpiresDueDeadlines() {
+        AssignmentTimerWheel wheel = new AssignmentTimerWheel(100, 8, 0);
+        wheel.schedule(1, 250);
+        wheel.schedule(2, 1000);
+
+        List<Integer> expired = new ArrayList<>();
+        assertEquals(0, wheel.advance(200, expired::add));
+        assertEquals(1, wheel.advance(300, expired::add));
+        assertEquals(List.of(1), expired);
+        assertFalse(wheel.isScheduled(1));
+        assertTrue(wheel.isScheduled(2));
+
+        wheel.advance(999, expired::add);
+        assertEquals(List.of(1), expired);
+        wheel.advance(1000, expired::add);
+        assertEquals(List.of(1, 2), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that rescheduling pushes a deadline back and cancelling removes it.
+     */
+    @Test
+    void testRescheduleAndCancel() {
+        AssignmentTimerWheel wheel = new AssignmentTimerWheel(100, 8, 0);
+        wheel.schedule(1, 500);
+        wheel.schedule(2, 500);
+        wheel.schedule(1, 900);
+        assertTrue(wheel.cancel(2));
+        assertFalse(wheel.cancel(2));
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(600, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(900, expired::add);
+        assertEquals(List.of(1), expired);
+    }
+
+    /**
+     * Tests deadlines further away than one turn of the wheel.
+     */
+    @Test
+    void testDeadlineBeyondOneTurn() {
+        AssignmentTimerWheel wheel = new AssignmentTimerWheel(10, 4, 0);
+        wheel.schedule(7, 175);
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(170, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(180, expired::add);
+        assertEquals(List.of(7), expired);
+    }
+}
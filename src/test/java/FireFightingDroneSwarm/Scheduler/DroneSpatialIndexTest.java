@@ -0,0 +1,123 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DroneSpatialIndexTest {
+
+    private static DroneState drone(int id, double x, double y) {
+        return new DroneState(id, DroneStatus.IDLE, x, y, 15, null, 0);
+    }
+
+    /**
+     * Tests that nearest() returns null on an empty index and the
+     * closest drone once drones are added.
+     */
+    @Test
+    void testNearest() {
+        DroneSpatialIndex index = new DroneSpatialIndex(100);
+        assertNull(index.nearest(0, 0));
+
+        index.update(drone(1, 0, 0));
+        index.update(drone(2, 950, 950));
+        index.update(drone(3, 420, 380));
+
+        assertEquals(3, index.nearest(400, 400).getDroneId());
+        assertEquals(2, index.nearest(2000, 2000).getDroneId());
+        assertEquals(1, index.nearest(-500, 10).getDroneId());
+    }
+
+    /**
+     * Tests that moving and removing drones keeps the index consistent.
+     */
+    @Test
+    void testUpdateAndRemove() {
+        DroneSpatialIndex index = new DroneSpatialIndex(100);
+        DroneState d1 = drone(1, 0, 0);
+        index.update(d1);
+        index.update(drone(2, 500, 500));
+
+        d1.update(DroneStatus.IDLE, 490, 490, 15);
+        index.update(d1);
+        assertEquals(2, index.size());
+        assertEquals(1, index.nearest(480, 480).getDroneId());
+
+        index.remove(1);
+        assertFalse(index.contains(1));
+        assertEquals(2, index.nearest(480, 480).getDroneId());
+
+        index.remove(2);
+        assertTrue(index.isEmpty());
+    }
+
+    /**
+     * Tests the grid search against a brute force scan on random positions.
+     */
+    @Test
+    void testMatchesBruteForce() {
+        Random rand = new Random(3303);
+        DroneSpatialIndex index = new DroneSpatialIndex(150);
+        DroneState[] drones = new DroneState[300];
+        for (int i = 0; i < drones.length; i++) {
+            drones[i] = drone(i, rand.nextDouble() * 3000, rand.nextDouble() * 3000);
+            index.update(drones[i]);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double x = rand.nextDouble() * 3500 - 250;
+            double y = rand.nextDouble() * 3500 - 250;
+
+            double best = Double.MAX_VALUE;
+            for (DroneState d : drones) {
+                best = Math.min(best, Math.hypot(d.getPosX() - x, d.getPosY() - y));
+            }
+            DroneState found = index.nearest(x, y);
+            assertEquals(best, Math.hypot(found.getPosX() - x, found.getPosY() - y), 1e-9);
+        }
+    }
+
+    /**
+     * Tests the k nearest search against a brute force sort while drones
+     * move and the outermost ones are removed, so the searched bounds
+     * have to shrink back to the occupied cells.
+     */
+    @Test
+    void testKNearestAfterMovesAndRemovals() {
+        Random rand = new Random(1203);
+        DroneSpatialIndex index = new DroneSpatialIndex(100);
+        DroneState[] drones = new DroneState[100];
+        for (int i = 0; i < drones.length; i++) {
+            drones[i] = drone(i, rand.nextDouble() * 2000, rand.nextDouble() * 2000);
+            index.update(drones[i]);
+        }
+        DroneState far = drone(500, 50000, -50000);
+        index.update(far);
+        index.remove(far.getDroneId());
+
+        for (int round = 0; round < 50; round++) {
+            DroneState moved = drones[rand.nextInt(drones.length)];
+            moved.update(DroneStatus.IDLE, rand.nextDouble() * 2000, rand.nextDouble() * 2000, 15);
+            index.update(moved);
+
+            double x = rand.nextDouble() * 2400 - 200;
+            double y = rand.nextDouble() * 2400 - 200;
+            DroneState[] sorted = drones.clone();
+            Arrays.sort(sorted, Comparator.comparingDouble(d -> Math.hypot(d.getPosX() - x, d.getPosY() - y)));
+
+            List<DroneState> found = index.nearest(x, y, 5);
+            assertEquals(5, found.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Math.hypot(sorted[i].getPosX() - x, sorted[i].getPosY() - y),
+                        Math.hypot(found.get(i).getPosX() - x, found.get(i).getPosY() - y), 1e-9);
+            }
+            assertEquals(sorted[0].getDroneId(), index.nearest(x, y).getDroneId());
+        }
+    }
+}
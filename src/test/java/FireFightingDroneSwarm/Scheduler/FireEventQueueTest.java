@@ -0,0 +1,143 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FireEventQueueTest {
+
+    private static FireEvent event(int fireID, int zone, Severity severity) {
+        return new FireEvent(zone, TaskType.FIRE_DETECTED, LocalTime.now(), severity, FaultType.NONE, fireID);
+    }
+
+    /**
+     * Tests that events come out by severity, and by zone for equal keys.
+     */
+    @Test
+    void testSeverityOrder() {
+        FireEventQueue queue = new FireEventQueue();
+        queue.offer(event(1, 2, Severity.LOW));
+        queue.offer(event(2, 3, Severity.HIGH));
+        queue.offer(event(3, 1, Severity.MODERATE));
+
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.poll().getFireID());
+        assertEquals(3, queue.poll().getFireID());
+        assertEquals(1, queue.poll().getFireID());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * Tests lookup and removal by fire ID, including removing from the middle of the heap.
+     */
+    @Test
+    void testRemoveByFireId() {
+        FireEventQueue queue = new FireEventQueue();
+        Random rand = new Random(7);
+        List<FireEvent> events = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            FireEvent e = event(i, rand.nextInt(5) + 1, Severity.values()[rand.nextInt(3)]);
+            events.add(e);
+            queue.offer(e);
+        }
+
+        assertSame(events.get(9), queue.get(10));
+        assertSame(events.get(9), queue.removeByFireId(10));
+        assertNull(queue.get(10));
+        assertTrue(queue.remove(events.get(20)));
+        assertFalse(queue.remove(events.get(20)));
+        assertEquals(48, queue.size());
+
+        // what remains must still drain in priority order
+        Severity last = Severity.HIGH;
+        while (!queue.isEmpty()) {
+            Severity current = queue.poll().getSeverity();
+            assertTrue(current.ordinal() <= last.ordinal());
+            last = current;
+        }
+    }
+
+    /**
+     * Tests that peekFirst() returns the highest priority events in the
+     * order poll() would, and leaves the queue as it was.
+     */
+    @Test
+    void testPeekFirstInPriorityOrder() {
+        FireEventQueue queue = new FireEventQueue();
+        Random rand = new Random(11);
+        for (int i = 1; i <= 200; i++) {
+            queue.offer(event(i, rand.nextInt(20) + 1, Severity.values()[rand.nextInt(3)]));
+        }
+
+        List<FireEvent> first = queue.peekFirst(25);
+        assertEquals(25, first.size());
+        assertEquals(200, queue.size());
+        for (FireEvent expected : first) {
+            assertSame(expected, queue.poll());
+        }
+        assertEquals(175, queue.peekFirst(500).size());
+        assertTrue(new FireEventQueue().peekFirst(5).isEmpty());
+    }
+
+    /**
+     * Tests that offering an event with a queued fire ID replaces it.
+     */
+    @Test
+    void testOfferReplacesSameFireId() {
+        FireEventQueue queue = new FireEventQueue();
+        queue.offer(event(1, 1, Severity.LOW));
+        queue.offer(event(2, 2, Severity.MODERATE));
+        queue.offer(event(1, 1, Severity.HIGH));
+
+        assertEquals(2, queue.size());
+        assertEquals(Severity.HIGH, queue.peek().getSeverity());
+        assertEquals(1, queue.peek().getFireID());
+    }
+
+    /**
+     * Tests that events age in the time of the queue's clock, so a LOW fire
+     * that waited longer than HIGH's head start in clock time comes first.
+     */
+    @Test
+    void testAgesInClockTime() {
+        ManualClock clock = new ManualClock();
+        FireEventQueue queue = new FireEventQueue(clock);
+        queue.offer(event(1, 1, Severity.LOW));
+        clock.advance(31_000);
+        queue.offer(event(2, 2, Severity.HIGH));
+
+        assertEquals(1, queue.poll().getFireID());
+        assertEquals(2, queue.poll().getFireID());
+    }
+
+    /**
+     * Tests that an event queued again keeps the enqueue time it carries,
+     * so a fire back from a fault keeps its age.
+     */
+    @Test
+    void testRequeueKeepsEnqueueTime() {
+        ManualClock clock = new ManualClock();
+        FireEventQueue queue = new FireEventQueue(clock);
+        queue.offer(event(1, 1, Severity.LOW));
+        FireEvent assigned = queue.poll();
+        assertEquals(0, assigned.getEnqueuedAt());
+
+        clock.advance(31_000);
+        queue.offer(event(2, 2, Severity.HIGH));
+        FireEvent retry = event(1, 1, Severity.LOW);
+        retry.setEnqueuedAt(assigned.getEnqueuedAt());
+        queue.offer(retry);
+
+        assertEquals(1, queue.peekOverdue(clock.currentTimeMillis()).getFireID());
+        assertEquals(1, queue.poll().getFireID());
+    }
+}
@@ -0,0 +1,80 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngressRingTest {
+
+    /**
+     * Tests FIFO order and that offer fails instead of blocking when full.
+     */
+    @Test
+    void testOfferFailsWhenFull() {
+        IngressRing<Integer> ring = new IngressRing<>(3);
+        assertEquals(4, ring.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    /**
+     * Tests that every element offered by several producer threads is
+     * received exactly once by the consumer.
+     * @throws Exception if a producer thread is interrupted
+     */
+    @Test
+    void testConcurrentProducers() throws Exception {
+        IngressRing<Integer> ring = new IngressRing<>(64);
+        int producers = 4;
+        int perProducer = 20000;
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) {
+                        rejected.incrementAndGet();
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        boolean[] seen = new boolean[producers * perProducer];
+        int received = 0;
+        while (received < seen.length) {
+            Integer value = ring.poll();
+            if (value == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertFalse(seen[value], "received twice: " + value);
+            seen[value] = true;
+            received++;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(ring.poll());
+    }
+}
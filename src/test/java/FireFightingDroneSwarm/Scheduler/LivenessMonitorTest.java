@@ -0,0 +1,60 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LivenessMonitorTest {
+
+    /**
+     * Tests that a silent drone goes from ALIVE to SUSPECT to DEAD, and
+     * back to ALIVE once it is heard from again.
+     */
+    @Test
+    void testSilentDroneIsSuspectedThenDead() {
+        LivenessMonitor monitor = new LivenessMonitor(2000);
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            monitor.heartbeat(1, now);
+            now += 2000;
+        }
+        long last = now - 2000;
+        long suspectAfter = monitor.getSuspectTimeout(1);
+
+        Map<Integer, Liveness> changes = new HashMap<>();
+        monitor.check(last + suspectAfter, changes::put);
+        assertTrue(changes.isEmpty());
+
+        monitor.check(last + suspectAfter + 1, changes::put);
+        assertEquals(Liveness.SUSPECT, changes.get(1));
+
+        monitor.check(last + suspectAfter * 3 + 1, changes::put);
+        assertEquals(Liveness.DEAD, monitor.getLiveness(1));
+
+        assertEquals(Liveness.DEAD, monitor.heartbeat(1, last + suspectAfter * 4));
+        assertEquals(Liveness.ALIVE, monitor.getLiveness(1));
+    }
+
+    /**
+     * Tests that the timeout adapts to drones with irregular heartbeats.
+     */
+    @Test
+    void testTimeoutAdaptsToJitter() {
+        LivenessMonitor monitor = new LivenessMonitor(2000);
+        long now = 0;
+        for (int i = 0; i < 50; i++) {
+            monitor.heartbeat(1, now);
+            monitor.heartbeat(2, now);
+            now += 2000;
+        }
+        for (int i = 0; i < 50; i++) {
+            monitor.heartbeat(2, now);
+            now += (i % 2 == 0) ? 500 : 9000;
+        }
+
+        assertTrue(monitor.getSuspectTimeout(2) > monitor.getSuspectTimeout(1));
+    }
+}
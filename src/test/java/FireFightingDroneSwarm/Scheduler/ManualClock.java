@@ -0,0 +1,38 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.Simulation.SimulationClock;
+
+/**
+ * A SimulationClock for tests that only moves when the test moves it.
+ */
+class ManualClock implements SimulationClock {
+
+    private long now;
+
+    /**
+     * Moves the clock forward
+     * @param millis long time to move forward by in milliseconds
+     */
+    void advance(long millis) {
+        now += millis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) {
+        advance(millis);
+    }
+
+    @Override
+    public void wakeAt(long deadline) {
+    }
+
+    @Override
+    public long realTimeout(long deadline) {
+        return 0;
+    }
+}
@@ -0,0 +1,136 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static FireEvent fire(int fireID, Severity severity) {
+        return new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.now(), severity, FaultType.NOZZLE_JAM, fireID);
+    }
+
+    private static DroneState drone(int droneId, DroneStatus status) throws Exception {
+        return new DroneState(droneId, status, 12.5, 40, 9, InetAddress.getLoopbackAddress(), 6000 + droneId);
+    }
+
+    /**
+     * Tests that the state recorded in a journal is rebuilt when the
+     * journal is opened again, with every field of fires and drones.
+     * @throws Exception if the journal cannot be opened
+     */
+    @Test
+    void testRecoverAfterReopen() throws Exception {
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            assertTrue(journal.getRecoveredState().isEmpty());
+            journal.droneUpdated(drone(3, DroneStatus.IDLE));
+            journal.fireBuffered(fire(1, Severity.HIGH));
+            journal.fireBuffered(fire(2, Severity.LOW));
+            FireEvent share = new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.of(13, 0, 5), Severity.HIGH,
+                    FaultType.NOZZLE_JAM, 1);
+            share.setRequiredWater(7);
+            share.setEnqueuedAt(42_000);
+            journal.fireAssigned(3, share);
+            journal.droneUpdated(drone(3, DroneStatus.EN_ROUTE));
+            journal.fireRemoved(2);
+            journal.allTasksSent();
+        }
+
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            SchedulerState state = journal.getRecoveredState();
+            assertTrue(state.getBuffered().isEmpty());
+            FireEvent assigned = state.getAssignments().get(3);
+            assertEquals(1, assigned.getFireID());
+            assertEquals(2, assigned.getZoneID());
+            assertEquals(Severity.HIGH, assigned.getSeverity());
+            assertEquals(FaultType.NOZZLE_JAM, assigned.getFault());
+            assertEquals(7, assigned.getRequiredWater());
+            assertEquals(LocalTime.of(13, 0, 5), assigned.getTimestamp());
+            assertEquals(42_000, assigned.getEnqueuedAt());
+            DroneState recovered = state.getDrones().get(3);
+            assertEquals(DroneStatus.EN_ROUTE, recovered.getStatus());
+            assertEquals(12.5, recovered.getPosX(), 1e-9);
+            assertEquals(9, recovered.getWaterTank());
+            assertEquals(InetAddress.getLoopbackAddress(), recovered.getAddress());
+            assertEquals(6003, recovered.getPort());
+            assertTrue(state.isAllTasksSent());
+        }
+    }
+
+    /**
+     * Tests that after a compaction the state comes from the snapshot plus
+     * the records appended since, and the journal from before is ignored.
+     * @throws Exception if the journal cannot be opened or compacted
+     */
+    @Test
+    void testCompactionThenMoreRecords() throws Exception {
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            for (int fireID = 1; fireID <= 3; fireID++) {
+                journal.fireBuffered(fire(fireID, Severity.MODERATE));
+            }
+            SchedulerState current = new SchedulerState();
+            current.fireBuffered(fire(2, Severity.MODERATE));
+            journal.compact(current::replayTo);
+            assertEquals(1, journal.getGeneration());
+            assertFalse(journal.needsCompaction());
+
+            journal.assignmentCleared(5);
+            journal.fireBuffered(fire(4, Severity.LOW));
+        }
+
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            assertEquals(1, journal.getGeneration());
+            SchedulerState state = journal.getRecoveredState();
+            assertEquals(2, state.getBuffered().size());
+            assertTrue(state.getBuffered().containsKey(2));
+            assertTrue(state.getBuffered().containsKey(4));
+        }
+    }
+
+    /**
+     * Tests that a record damaged by a crash mid-write ends the replay, and
+     * that records appended after reopening replace it.
+     * @throws Exception if the journal cannot be opened or changed
+     */
+    @Test
+    void testCorruptRecordEndsReplay() throws Exception {
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            journal.fireBuffered(fire(1, Severity.LOW));
+            journal.fireBuffered(fire(2, Severity.LOW));
+        }
+        // flip a byte in the body of the second record
+        int recordLength = 1 + 32;
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("scheduler.journal").toFile(), "rw")) {
+            long position = 12 + (8 + recordLength) + 8 + 3;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            assertEquals(1, journal.getRecoveredState().getBuffered().size());
+            journal.fireBuffered(fire(3, Severity.LOW));
+        }
+        try (SchedulerJournal journal = new SchedulerJournal(directory)) {
+            SchedulerState state = journal.getRecoveredState();
+            assertEquals(2, state.getBuffered().size());
+            assertTrue(state.getBuffered().containsKey(1));
+            assertTrue(state.getBuffered().containsKey(3));
+        }
+    }
+}
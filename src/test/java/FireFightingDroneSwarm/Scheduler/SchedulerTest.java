@@ -6,14 +6,26 @@ import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
 import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
 import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
 import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import FireFightingDroneSwarm.Protocol.FailoverFrame;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
+import FireFightingDroneSwarm.Transport.LoopbackNetwork;
+import FireFightingDroneSwarm.Transport.LoopbackTransport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
@@ -86,6 +98,37 @@ class SchedulerTest {
         assertTrue(scheduler.getAllTasksProcessed());
     }
 
+    /**
+     * Tests that a thread blocked in get() is woken by put() from another
+     * thread, and by the incident reporter being done.
+     * @throws Exception if the consumer thread is interrupted
+     */
+    @Test
+    void testGetWokenByPut() throws Exception {
+        Scheduler scheduler = new Scheduler(5);
+        List<FireEvent> taken = new CopyOnWriteArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                for (FireEvent event = scheduler.get(); event != null; event = scheduler.get()) {
+                    taken.add(event);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        consumer.start();
+
+        Thread.sleep(50);
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+        Thread.sleep(50);
+        scheduler.setAllTasksSent(true);
+        consumer.join(1000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(1, taken.size());
+        assertEquals(1, taken.get(0).getFireID());
+    }
+
     /**
      * Tests that setAllTasksSent(true) correctly updates the internal flag.
      */
@@ -159,9 +202,12 @@ class SchedulerTest {
 
         // Verify packet contents
         assertNotNull(packet);
-        assertEquals(3, packet.getData()[0]); // message type 3 = assignment
-        assertEquals(1, packet.getData()[1]); // zoneID
-        assertEquals(Severity.HIGH.ordinal(), packet.getData()[2]);
+        FireEventFrame frame = new FireEventFrame();
+        assertTrue(frame.decode(packet.getData(), packet.getLength()));
+        assertEquals(FireEventFrame.ASSIGNMENT, frame.getType());
+        assertEquals(1, frame.getZoneID());
+        assertEquals(Severity.HIGH, frame.getSeverity());
+        assertEquals(100, frame.getEndX());
 
         testDroneSocket.close();
     }
@@ -214,4 +260,511 @@ class SchedulerTest {
         assertEquals(1, scheduler.getActiveAssignmentForDrone(1).getFireID());
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that batch mode dispatches every buffered event in one call,
+     * pairing each fire with a distinct idle drone.
+     * @throws Exception if the drone sockets cannot be created
+     */
+    @Test
+    void testBatchAssignmentDispatchesAllEvents() throws Exception {
+        Scheduler scheduler = new Scheduler(10);
+        scheduler.setBatchAssignment(true);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        zones.put(2, new Zone(2, new int[]{900, 900}, new int[]{1000, 1000}));
+        scheduler.setZoneIDs(zones);
+
+        DatagramSocket socket1 = new DatagramSocket(0);
+        DatagramSocket socket2 = new DatagramSocket(0);
+        scheduler.addDroneState(1, new DroneState(1, DroneStatus.IDLE, 0, 0, 15,
+                InetAddress.getLocalHost(), socket1.getLocalPort()));
+        scheduler.addDroneState(2, new DroneState(2, DroneStatus.IDLE, 950, 950, 15,
+                InetAddress.getLocalHost(), socket2.getLocalPort()));
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+        scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE, 2));
+        scheduler.assignDroneEvent();
+
+        assertEquals(1, scheduler.getActiveAssignmentForDrone(1).getFireID());
+        assertEquals(2, scheduler.getActiveAssignmentForDrone(2).getFireID());
+
+        socket1.close();
+        socket2.close();
+    }
+
+    /**
+     * Tests that with the SHED_LOW overflow policy a full buffer drops a LOW
+     * event to make room for a HIGH one, and drops new LOW events.
+     * @throws Exception if an unexpected error occurs during the test
+     */
+    @Test
+    void testShedLowWhenBufferFull() throws Exception {
+        Scheduler scheduler = new Scheduler(2);
+        scheduler.setOverflowPolicy(OverflowPolicy.SHED_LOW);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{10, 10}));
+        scheduler.setZoneIDs(zones);
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 2));
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE, 3));
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 4));
+        scheduler.setAllTasksSent(true);
+
+        assertEquals(3, scheduler.get().getFireID());
+        assertEquals(1, scheduler.get().getFireID());
+        assertNull(scheduler.get());
+    }
+
+    /**
+     * Tests that a fire going back to the buffer after a drone fault is
+     * kept even when the buffer is full and the policy rejects new events.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testRequeueBypassesOverflowPolicy() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler scheduler = new Scheduler(1, network.bind(UdpTransport.SCHEDULER_PORT));
+        scheduler.setOverflowPolicy(OverflowPolicy.REJECT);
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        LoopbackTransport drone = network.bind(0);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        scheduler.setZoneIDs(zones);
+        InetSocketAddress address = drone.getLocalAddress();
+        scheduler.addDroneState(7, new DroneState(7, DroneStatus.IDLE, 0, 0, 15, address.getAddress(), address.getPort()));
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+        scheduler.assignDroneEvent();
+        assertEquals(1, scheduler.getActiveAssignmentForDrone(7).getFireID());
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 2));
+        // no drone is free, this only fills the buffer
+        scheduler.assignDroneEvent();
+
+        byte[] data = new byte[Telemetry.FRAME_LENGTH];
+        int length = new Telemetry().set(Telemetry.STATUS, 7, DroneStatus.FAULTED, 20, 20, 10, 90, 1, 1).encode(data);
+        drone.send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+
+        SchedulerState state = new SchedulerState();
+        scheduler.reportState(state);
+        assertEquals(2, state.getBuffered().size());
+        assertTrue(state.getBuffered().containsKey(1));
+
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests a drone registering and being assigned a fire reported by the
+     * incident subsystem, with every endpoint on an in-memory loopback
+     * network instead of UDP sockets.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testAssignmentOverLoopbackTransport() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler scheduler = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        LoopbackTransport reporter = network.bind(0);
+        LoopbackTransport drone = network.bind(0);
+
+        Zone zone = new Zone(1, new int[]{0, 0}, new int[]{100, 100});
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, zone);
+        scheduler.setZoneIDs(zones);
+
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new Telemetry().set(Telemetry.STATUS, 7, DroneStatus.IDLE, 0, 0, 15, 100, 0, 1).encode(data);
+        drone.send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+
+        FireEvent event = new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.MODERATE, FaultType.NONE, 4);
+        length = new FireEventFrame().set(FireEventFrame.FIRE_EVENT, event, zone).encode(data);
+        reporter.send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+
+        FireEventFrame assignment = new FireEventFrame();
+        assertEquals(1, drone.receive(1000, (buf, len, source) -> assertTrue(assignment.decode(buf, len))));
+        assertEquals(FireEventFrame.ASSIGNMENT, assignment.getType());
+        assertEquals(4, assignment.getFireID());
+        assertEquals(7, assignment.getDroneId());
+        assertEquals(4, scheduler.getActiveAssignmentForDrone(7).getFireID());
+
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that a far LOW fire is not starved by a stream of nearer HIGH
+     * fires: once it has waited HIGH's head start it is served first.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testLowFireNotStarvedByNearerHighFires() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        ManualClock clock = new ManualClock();
+        Scheduler scheduler = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT), clock);
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        LoopbackTransport drone = network.bind(0);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{900, 900}, new int[]{1000, 1000}));
+        zones.put(2, new Zone(2, new int[]{0, 0}, new int[]{100, 100}));
+        scheduler.setZoneIDs(zones);
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+
+        // every 10 seconds a new HIGH fire next to the one drone that comes free
+        Telemetry telemetry = new Telemetry();
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int lowServedBy = -1;
+        for (int round = 1; round <= 5 && lowServedBy == -1; round++) {
+            clock.advance(10_000);
+            int length = telemetry.set(Telemetry.STATUS, round, DroneStatus.IDLE, 50, 50, 15, 100, 0, 1).encode(data);
+            drone.send(data, length, schedulerAddress);
+            scheduler.pollPackets(100);
+            scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE,
+                    100 + round));
+            scheduler.assignDroneEvent();
+
+            if (scheduler.getActiveAssignmentForDrone(round).getFireID() == 1) lowServedBy = round;
+        }
+
+        // queued by the first pass at 10 s, overdue 30 s later
+        assertEquals(4, lowServedBy);
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that with task chaining a drone is done with its fire once it
+     * heads back after dropping its agent, and is then sent to a fire its
+     * remaining water covers but not to one it does not.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testTaskChainingToReturningDrone() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler scheduler = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        scheduler.setTaskChaining(true);
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        LoopbackTransport drone = network.bind(0);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        zones.put(2, new Zone(2, new int[]{100, 0}, new int[]{200, 100}));
+        scheduler.setZoneIDs(zones);
+
+        Telemetry telemetry = new Telemetry();
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = telemetry.set(Telemetry.STATUS, 7, DroneStatus.IDLE, 0, 0, 15, 100, 0, 1).encode(data);
+        drone.send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 1));
+        scheduler.assignDroneEvent();
+        assertEquals(1, scheduler.getActiveAssignmentForDrone(7).getFireID());
+
+        length = telemetry.set(Telemetry.STATUS, 7, DroneStatus.DROPPING_AGENT, 50, 50, 15, 99, 1, 2).encode(data);
+        drone.send(data, length, schedulerAddress);
+        length = telemetry.set(Telemetry.STATUS, 7, DroneStatus.RETURNING, 50, 50, 10, 99, 1, 3).encode(data);
+        drone.send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+        assertNull(scheduler.getActiveAssignmentForDrone(7));
+
+        scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE, 2));
+        scheduler.assignDroneEvent();
+        assertNull(scheduler.getActiveAssignmentForDrone(7));
+
+        scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.MODERATE, FaultType.NONE, 3));
+        scheduler.assignDroneEvent();
+        assertEquals(3, scheduler.getActiveAssignmentForDrone(7).getFireID());
+
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that with cooperative dispatch a fire no single drone has the
+     * water for is split across two drones, and that only the share of a
+     * drone that faults goes back to the buffer.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testCooperativeDispatchSplitsFire() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler scheduler = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        scheduler.setCooperativeDispatch(true);
+        InetSocketAddress schedulerAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        scheduler.setZoneIDs(zones);
+
+        LoopbackTransport[] drones = new LoopbackTransport[3];
+        for (int id = 1; id <= 2; id++) {
+            drones[id] = network.bind(0);
+            InetSocketAddress address = drones[id].getLocalAddress();
+            scheduler.addDroneState(id, new DroneState(id, DroneStatus.IDLE, 10 * id, 10 * id, 10,
+                    address.getAddress(), address.getPort()));
+        }
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE, 6));
+        scheduler.assignDroneEvent();
+
+        FireEventFrame assignment = new FireEventFrame();
+        int total = 0;
+        for (int id = 1; id <= 2; id++) {
+            assertEquals(1, drones[id].receive(1000, (buf, len, source) -> assertTrue(assignment.decode(buf, len))));
+            assertEquals(6, assignment.getFireID());
+            assertEquals(scheduler.getActiveAssignmentForDrone(id).getRequiredWater(), assignment.getRequiredWater());
+            total += assignment.getRequiredWater();
+        }
+        assertEquals(15, total);
+
+        int share = scheduler.getActiveAssignmentForDrone(2).getRequiredWater();
+        byte[] data = new byte[Telemetry.FRAME_LENGTH];
+        int length = new Telemetry().set(Telemetry.STATUS, 2, DroneStatus.FAULTED, 20, 20, 10, 90, 6, 1).encode(data);
+        drones[2].send(data, length, schedulerAddress);
+        scheduler.pollPackets(100);
+
+        assertNull(scheduler.getActiveAssignmentForDrone(2));
+        assertEquals(6, scheduler.getActiveAssignmentForDrone(1).getFireID());
+        FireEvent retry = scheduler.get();
+        assertEquals(6, retry.getFireID());
+        assertEquals(share, retry.getRequiredWater());
+
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that a scheduler started on the journal of one that stopped
+     * takes over its drones, its active assignment and its buffered fire,
+     * and dispatches the buffered fire to the drone it already knows.
+     * @param directory Path of a temporary journal directory
+     * @throws Exception if the journal cannot be opened or a send fails
+     */
+    @Test
+    void testRecoverStateFromJournal(@TempDir Path directory) throws Exception {
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+
+        LoopbackNetwork network = new LoopbackNetwork();
+        LoopbackTransport[] drones = {network.bind(0), network.bind(0)};
+        Scheduler first = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        first.setZoneIDs(zones);
+        first.setJournal(new SchedulerJournal(directory));
+        for (int id = 0; id < 2; id++) {
+            InetSocketAddress address = drones[id].getLocalAddress();
+            first.addDroneState(id, new DroneState(id, DroneStatus.IDLE, 0, 0, 15, address.getAddress(), address.getPort()));
+        }
+        first.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.MODERATE, FaultType.NONE, 1));
+        first.assignDroneEvent();
+        int busy = first.getActiveAssignmentForDrone(0) != null ? 0 : 1;
+        first.addDroneState(1 - busy, new DroneState(1 - busy, DroneStatus.FAULTED, 0, 0, 15,
+                drones[1 - busy].getLocalAddress().getAddress(), drones[1 - busy].getLocalAddress().getPort()));
+        first.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 2));
+        first.assignDroneEvent();
+        first.shutdown();
+
+        network = new LoopbackNetwork();
+        Scheduler second = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        second.setZoneIDs(zones);
+        second.setJournal(new SchedulerJournal(directory));
+        assertEquals(1, second.getActiveAssignmentForDrone(busy).getFireID());
+        assertNull(second.getActiveAssignmentForDrone(1 - busy));
+        assertEquals(2, second.get().getFireID());
+
+        second.shutdown();
+    }
+
+    /**
+     * Tests that a standby scheduler syncs the state of its primary, and
+     * once the primary stops takes over its assignment and tells the drone
+     * to send to it from now on.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testStandbyTakesOverFromPrimary() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler primary = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        Scheduler standby = new Scheduler(10, network.bind(UdpTransport.STANDBY_PORT));
+        InetSocketAddress primaryAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        InetSocketAddress standbyAddress = LoopbackNetwork.address(UdpTransport.STANDBY_PORT);
+        primary.setStandby(standbyAddress);
+        standby.setPrimary(primaryAddress, 200);
+        LoopbackTransport reporter = network.bind(0);
+        LoopbackTransport drone = network.bind(0);
+
+        Zone zone = new Zone(1, new int[]{0, 0}, new int[]{100, 100});
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, zone);
+        primary.setZoneIDs(zones);
+        standby.setZoneIDs(zones);
+
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new Telemetry().set(Telemetry.STATUS, 7, DroneStatus.IDLE, 0, 0, 15, 100, 0, 1).encode(data);
+        drone.send(data, length, primaryAddress);
+        primary.pollPackets(100);
+
+        // the standby missed the registration and asks for a sync
+        standby.pollPackets(100);
+        assertFalse(standby.checkFailover());
+        primary.pollPackets(100);
+
+        FireEvent event = new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.MODERATE, FaultType.NONE, 4);
+        length = new FireEventFrame().set(FireEventFrame.FIRE_EVENT, event, zone).encode(data);
+        reporter.send(data, length, primaryAddress);
+        primary.pollPackets(100);
+        assertEquals(1, drone.receive(1000, (buf, len, source) -> {}));
+        standby.pollPackets(100);
+        assertTrue(standby.isStandby());
+        assertNull(standby.getActiveAssignmentForDrone(7));
+
+        primary.shutdown();
+        Thread.sleep(250);
+        assertTrue(standby.checkFailover());
+        assertFalse(standby.isStandby());
+        assertEquals(4, standby.getActiveAssignmentForDrone(7).getFireID());
+
+        FailoverFrame failover = new FailoverFrame();
+        assertEquals(1, drone.receive(1000, (buf, len, source) -> {
+            assertTrue(failover.decode(buf, len));
+            assertEquals(standbyAddress, source);
+        }));
+        assertEquals(7, failover.getDroneId());
+        assertEquals(4, failover.getLastFireID());
+
+        standby.shutdown();
+    }
+
+    /**
+     * Tests that a shard takes over a drone handed to it and tells the
+     * drone to send to it, and that it lends an idle drone to another
+     * shard when the coordinator asks, ignoring the drone from then on.
+     * @throws Exception if a shard cannot be bound
+     */
+    @Test
+    void testShardAdoptsAndLendsDrone() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler lender = new Scheduler(10, network.bind(SchedulerCluster.SHARD_BASE_PORT));
+        Scheduler borrower = new Scheduler(10, network.bind(SchedulerCluster.SHARD_BASE_PORT + 1));
+        LoopbackTransport coordinator = network.bind(UdpTransport.SCHEDULER_PORT);
+        LoopbackTransport drone = network.bind(0);
+        lender.setShard(coordinator.getLocalAddress(), 0);
+        borrower.setShard(coordinator.getLocalAddress(), 1);
+
+        ByteBuffer message = ByteBuffer.allocate(ShardCoordinator.MAX_MESSAGE);
+        message.put(ShardCoordinator.HANDOFF);
+        StateRecordCodec.writeDroneUpdated(message, new DroneState(7, DroneStatus.IDLE, 0, 0, 15,
+                drone.getLocalAddress().getAddress(), drone.getLocalAddress().getPort()));
+        coordinator.send(message.array(), message.position(), LoopbackNetwork.address(SchedulerCluster.SHARD_BASE_PORT));
+        lender.pollPackets(100);
+        FailoverFrame failover = new FailoverFrame();
+        assertEquals(1, drone.receive(1000, (buf, len, source) -> {
+            assertTrue(failover.decode(buf, len));
+            assertEquals(SchedulerCluster.SHARD_BASE_PORT, source.getPort());
+        }));
+        assertEquals(7, failover.getDroneId());
+
+        InetSocketAddress borrowerAddress = LoopbackNetwork.address(SchedulerCluster.SHARD_BASE_PORT + 1);
+        byte[] ip = borrowerAddress.getAddress().getAddress();
+        message.clear().put(ShardCoordinator.LEND).putDouble(300).putDouble(50)
+                .putInt(borrowerAddress.getPort()).put((byte) ip.length).put(ip);
+        coordinator.send(message.array(), message.position(), LoopbackNetwork.address(SchedulerCluster.SHARD_BASE_PORT));
+        lender.pollPackets(100);
+        borrower.pollPackets(100);
+        assertEquals(1, drone.receive(1000, (buf, len, source) -> {
+            assertTrue(failover.decode(buf, len));
+            assertEquals(borrowerAddress, source);
+        }));
+
+        // telemetry still arriving at the lender does not bring the drone back
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new Telemetry().set(Telemetry.STATUS, 7, DroneStatus.IDLE, 0, 0, 15, 100, 0, 1).encode(data);
+        drone.send(data, length, LoopbackNetwork.address(SchedulerCluster.SHARD_BASE_PORT));
+        lender.pollPackets(100);
+        SchedulerState lenderState = new SchedulerState();
+        lender.reportState(lenderState);
+        assertTrue(lenderState.getDrones().isEmpty());
+        SchedulerState borrowerState = new SchedulerState();
+        borrower.reportState(borrowerState);
+        assertTrue(borrowerState.getDrones().containsKey(7));
+
+        lender.shutdown();
+        borrower.shutdown();
+    }
+
+    /**
+     * Tests that with coalescing, a repeated report of a waiting fire is
+     * merged into it, and a report of a fire a drone is already on is
+     * absorbed, unless it is more severe, then only the extra water is
+     * left to dispatch. Every report is within the coalescing window.
+     * @throws Exception if the scheduler is interrupted
+     */
+    @Test
+    void testCoalesceReportsPerZone() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Scheduler scheduler = new Scheduler(10, network.bind(UdpTransport.SCHEDULER_PORT));
+        scheduler.setCoalescing(true);
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        zones.put(2, new Zone(2, new int[]{100, 0}, new int[]{200, 100}));
+        scheduler.setZoneIDs(zones);
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.of(13, 0, 0), Severity.LOW, FaultType.NONE, 1));
+        scheduler.put(new FireEvent(1, TaskType.DRONE_REQUESTED, LocalTime.of(13, 0, 5), Severity.MODERATE, FaultType.NONE, 2));
+        scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.of(13, 0, 6), Severity.LOW, FaultType.NONE, 3));
+        scheduler.assignDroneEvent();
+        SchedulerState state = new SchedulerState();
+        scheduler.reportState(state);
+        assertEquals(2, state.getBuffered().size());
+
+        LoopbackTransport drone = network.bind(0);
+        InetSocketAddress address = drone.getLocalAddress();
+        scheduler.addDroneState(5, new DroneState(5, DroneStatus.IDLE, 0, 0, 15, address.getAddress(), address.getPort()));
+        scheduler.assignDroneEvent();
+        FireEvent assigned = scheduler.getActiveAssignmentForDrone(5);
+        assertEquals(1, assigned.getFireID());
+        assertEquals(Severity.MODERATE, assigned.getSeverity());
+        assertEquals(LocalTime.of(13, 0, 0), assigned.getTimestamp());
+
+        scheduler.put(new FireEvent(1, TaskType.DRONE_REQUESTED, LocalTime.of(13, 0, 8), Severity.LOW, FaultType.NONE, 4));
+        scheduler.put(new FireEvent(2, TaskType.FIRE_DETECTED, LocalTime.of(13, 0, 9), Severity.HIGH, FaultType.NONE, 5));
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.of(13, 0, 10), Severity.HIGH, FaultType.NONE, 6));
+        scheduler.setAllTasksSent(true);
+        Map<Integer, FireEvent> left = new HashMap<>();
+        for (FireEvent next = scheduler.get(); next != null; next = scheduler.get()) {
+            left.put(next.getFireID(), next);
+        }
+        assertEquals(2, left.size());
+        assertEquals(Severity.HIGH, left.get(3).getSeverity());
+        assertEquals(5, left.get(6).getRequiredWater());
+
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that with coalescing, a report of a zone made well after the
+     * waiting fire of that zone was reported is a new fire, queued on its
+     * own with its own severity, not merged into the first one.
+     */
+    @Test
+    void testCoalesceOnlyWithinWindow() {
+        Scheduler scheduler = new Scheduler(10);
+        scheduler.setCoalescing(true);
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{100, 100}));
+        scheduler.setZoneIDs(zones);
+
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.of(13, 0), Severity.LOW, FaultType.NONE, 1));
+        scheduler.put(new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.of(13, 5), Severity.HIGH, FaultType.NONE, 2));
+        scheduler.assignDroneEvent();
+
+        SchedulerState state = new SchedulerState();
+        scheduler.reportState(state);
+        assertEquals(2, state.getBuffered().size());
+        assertEquals(Severity.LOW, state.getBuffered().get(1).getSeverity());
+        assertEquals(Severity.HIGH, state.getBuffered().get(2).getSeverity());
+        assertEquals(0, scheduler.getMetrics().snapshot().getCounters().get("scheduler.fires.coalesced"));
+    }
+}
@@ -0,0 +1,149 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.DroneSubsystem.DroneStatus;
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
+import FireFightingDroneSwarm.Transport.LoopbackNetwork;
+import FireFightingDroneSwarm.Transport.LoopbackTransport;
+import FireFightingDroneSwarm.Transport.UdpTransport;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+
+    private static Map<Integer, Zone> zonesInARow(int count) {
+        Map<Integer, Zone> zones = new HashMap<>();
+        for (int id = 1; id <= count; id++) {
+            zones.put(id, new Zone(id, new int[]{(id - 1) * 100, 0}, new int[]{id * 100, 100}));
+        }
+        return zones;
+    }
+
+    /**
+     * Tests that partition() splits the zones into regions of neighbouring
+     * zones of about the same size, and rejects more regions than zones.
+     */
+    @Test
+    void testPartitionKeepsNeighboursTogether() {
+        List<Map<Integer, Zone>> regions = ShardCoordinator.partition(zonesInARow(5), 2);
+        assertEquals(2, regions.size());
+        assertEquals(Set.of(1, 2), regions.get(0).keySet());
+        assertEquals(3, regions.get(1).size());
+        assertTrue(regions.get(1).keySet().containsAll(List.of(3, 4, 5)));
+
+        assertEquals(5, ShardCoordinator.partition(zonesInARow(5), 5).size());
+        assertThrows(IllegalArgumentException.class, () -> ShardCoordinator.partition(zonesInARow(2), 3));
+    }
+
+    /**
+     * Tests that the coordinator forwards a fire event to the shard owning
+     * its zone, hands a new drone to a shard, and asks an idle shard to
+     * lend a drone to a shard with fires waiting.
+     * @throws Exception if the coordinator thread is interrupted
+     */
+    @Test
+    void testRoutesEventsAndBalancesDrones() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        LoopbackTransport first = network.bind(SchedulerCluster.SHARD_BASE_PORT);
+        LoopbackTransport second = network.bind(SchedulerCluster.SHARD_BASE_PORT + 1);
+        LoopbackTransport sender = network.bind(0);
+        InetSocketAddress coordinatorAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        Map<Integer, Zone> zones = zonesInARow(4);
+        ShardCoordinator coordinator = new ShardCoordinator(network.bind(UdpTransport.SCHEDULER_PORT),
+                ShardCoordinator.partition(zones, 2),
+                List.of(first.getLocalAddress(), second.getLocalAddress()));
+        Thread thread = new Thread(coordinator);
+        thread.start();
+
+        byte[] data = new byte[ShardCoordinator.MAX_MESSAGE];
+        FireEvent event = new FireEvent(4, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.HIGH, FaultType.NONE, 1);
+        int length = new FireEventFrame().set(FireEventFrame.FIRE_EVENT, event, zones.get(4)).encode(data);
+        sender.send(data, length, coordinatorAddress);
+        assertEquals(1, second.receive(1000, (buf, len, source) -> assertEquals(FireEventFrame.FIRE_EVENT, buf[0])));
+
+        length = new Telemetry().set(Telemetry.STATUS, 9, DroneStatus.IDLE, 0, 0, 15, 100, 0, 0).encode(data);
+        sender.send(data, length, coordinatorAddress);
+        SchedulerState handoff = new SchedulerState();
+        assertEquals(1, first.receive(1000, (buf, len, source) -> {
+            assertEquals(ShardCoordinator.HANDOFF, buf[0]);
+            assertTrue(StateRecordCodec.read(ByteBuffer.wrap(buf, 1, len - 1), handoff));
+        }));
+        assertEquals(sender.getLocalAddress().getPort(), handoff.getDrones().get(9).getPort());
+
+        ByteBuffer report = ByteBuffer.wrap(data);
+        report.put(ShardCoordinator.LOAD_REPORT).putInt(0).putInt(0).putInt(1).putInt(1).putInt(1);
+        first.send(data, report.position(), coordinatorAddress);
+        report.clear();
+        report.put(ShardCoordinator.LOAD_REPORT).putInt(1).putInt(3).putInt(0).putInt(0).putInt(0);
+        second.send(data, report.position(), coordinatorAddress);
+        assertEquals(1, first.receive(1000, (buf, len, source) -> {
+            ByteBuffer lend = ByteBuffer.wrap(buf, 0, len);
+            assertEquals(ShardCoordinator.LEND, lend.get());
+            assertEquals(300, lend.getDouble(), 1e-9);
+            assertEquals(50, lend.getDouble(), 1e-9);
+            assertEquals(second.getLocalAddress().getPort(), lend.getInt());
+        }));
+
+        coordinator.close();
+        thread.join(1000);
+    }
+
+    /**
+     * Tests that the drone count of a shard follows its reports down as
+     * well as up, so a shard that lost its drones gets the next new one.
+     * @throws Exception if the coordinator thread is interrupted
+     */
+    @Test
+    void testDroneCountFollowsReports() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        LoopbackTransport[] shards = {network.bind(SchedulerCluster.SHARD_BASE_PORT),
+                network.bind(SchedulerCluster.SHARD_BASE_PORT + 1)};
+        LoopbackTransport sender = network.bind(0);
+        InetSocketAddress coordinatorAddress = LoopbackNetwork.address(UdpTransport.SCHEDULER_PORT);
+        ShardCoordinator coordinator = new ShardCoordinator(network.bind(UdpTransport.SCHEDULER_PORT),
+                ShardCoordinator.partition(zonesInARow(4), 2),
+                List.of(shards[0].getLocalAddress(), shards[1].getLocalAddress()));
+        Thread thread = new Thread(coordinator);
+        thread.start();
+
+        // drones 1 and 3 go to shard 0, drone 2 to shard 1
+        byte[] data = new byte[ShardCoordinator.MAX_MESSAGE];
+        int[] expectedShards = {0, 1, 0};
+        for (int droneId = 1; droneId <= 3; droneId++) {
+            int length = new Telemetry().set(Telemetry.STATUS, droneId, DroneStatus.IDLE, 0, 0, 15, 100, 0, 0)
+                    .encode(data);
+            sender.send(data, length, coordinatorAddress);
+            assertEquals(1, shards[expectedShards[droneId - 1]].receive(1000,
+                    (buf, len, source) -> assertEquals(ShardCoordinator.HANDOFF, buf[0])));
+        }
+
+        // shard 0 has lost both its drones, shard 1 still has its one
+        ByteBuffer report = ByteBuffer.wrap(data);
+        report.put(ShardCoordinator.LOAD_REPORT).putInt(0).putInt(0).putInt(0).putInt(0).putInt(2);
+        shards[0].send(data, report.position(), coordinatorAddress);
+        report.clear();
+        report.put(ShardCoordinator.LOAD_REPORT).putInt(1).putInt(0).putInt(1).putInt(1).putInt(1);
+        shards[1].send(data, report.position(), coordinatorAddress);
+
+        int length = new Telemetry().set(Telemetry.STATUS, 4, DroneStatus.IDLE, 0, 0, 15, 100, 0, 0).encode(data);
+        sender.send(data, length, coordinatorAddress);
+        assertEquals(1, shards[0].receive(1000, (buf, len, source) -> assertEquals(ShardCoordinator.HANDOFF, buf[0])));
+
+        coordinator.close();
+        thread.join(1000);
+    }
+}
@@ -0,0 +1,55 @@
+package FireFightingDroneSwarm.Scheduler;
+
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneGeometryTest {
+
+    /**
+     * Tests the centers and distances of a small map, where the distance
+     * matrix is precomputed.
+     */
+    @Test
+    void testCentersAndDistances() {
+        Map<Integer, Zone> zones = new HashMap<>();
+        zones.put(1, new Zone(1, new int[]{0, 0}, new int[]{6, 8}));
+        zones.put(2, new Zone(2, new int[]{6, 8}, new int[]{12, 16}));
+        ZoneGeometry geometry = new ZoneGeometry(zones);
+
+        int first = geometry.indexOf(1);
+        int second = geometry.indexOf(2);
+        assertEquals(-1, geometry.indexOf(3));
+        assertEquals(2, geometry.idAt(second));
+        assertEquals(3.0, geometry.centerX(first), 1e-9);
+        assertEquals(4.0, geometry.centerY(first), 1e-9);
+        assertEquals(10.0, geometry.distance(first, second), 1e-9);
+        assertEquals(5.0, geometry.distanceTo(first, 0, 0), 1e-9);
+    }
+
+    /**
+     * Tests a map too big for a distance matrix whose zone IDs are too
+     * sparse to be looked up directly.
+     */
+    @Test
+    void testLargeSparseMap() {
+        Map<Integer, Zone> zones = new HashMap<>();
+        int count = ZoneGeometry.MATRIX_MAX_ZONES + 1;
+        for (int i = 0; i < count; i++) {
+            int id = i * 1000 + 7;
+            zones.put(id, new Zone(id, new int[]{i * 10, 0}, new int[]{i * 10 + 10, 10}));
+        }
+        ZoneGeometry geometry = new ZoneGeometry(zones);
+
+        assertEquals(count, geometry.size());
+        assertEquals(-1, geometry.indexOf(8));
+        int first = geometry.indexOf(7);
+        int last = geometry.indexOf((count - 1) * 1000 + 7);
+        assertEquals((count - 1) * 10.0, geometry.distance(first, last), 1e-9);
+        assertEquals((count - 1) * 10 + 10, geometry.endX(last));
+    }
+}
@@ -0,0 +1,94 @@
+package FireFightingDroneSwarm.Simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscreteEventClockTest {
+
+    /**
+     * Tests that sleepers wake in order of their wake up time, at exactly
+     * that clock time, and far faster than in real time.
+     */
+    @Test
+    void testSleepersWakeInOrder() throws InterruptedException {
+        // long enough a settle period for every sleeper to start before the first jump
+        try (DiscreteEventClock clock = new DiscreteEventClock(0, 200)) {
+            List<Long> woken = new CopyOnWriteArrayList<>();
+            Thread[] sleepers = new Thread[3];
+            long[] durations = {60_000, 10_000, 3_600_000};
+            for (int i = 0; i < sleepers.length; i++) {
+                long duration = durations[i];
+                sleepers[i] = new Thread(() -> {
+                    try {
+                        clock.sleep(duration);
+                        woken.add(clock.currentTimeMillis());
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                });
+                sleepers[i].start();
+            }
+
+            long realStart = System.currentTimeMillis();
+            for (Thread sleeper : sleepers) {
+                sleeper.join(10_000);
+            }
+
+            assertEquals(List.of(10_000L, 60_000L, 3_600_000L), woken);
+            assertTrue(System.currentTimeMillis() - realStart < 10_000);
+        }
+    }
+
+    /**
+     * Tests that the clock does not jump before the settle period has passed.
+     */
+    @Test
+    void testWaitsForSettlePeriod() {
+        try (DiscreteEventClock clock = new DiscreteEventClock(0, 60_000)) {
+            clock.wakeAt(500);
+            assertFalse(clock.advance());
+            assertEquals(0, clock.currentTimeMillis());
+            assertEquals(60_000, clock.realTimeout(500));
+            assertEquals(0, clock.realTimeout(0));
+        }
+    }
+
+    /**
+     * Tests that a thread released by a jump holds the clock until it comes
+     * back to it, even when it takes far longer than the settle period.
+     */
+    @Test
+    void testSlowThreadHoldsClock() throws InterruptedException {
+        try (DiscreteEventClock clock = new DiscreteEventClock(0, 1)) {
+            List<Long> woken = new CopyOnWriteArrayList<>();
+            Thread slow = new Thread(() -> {
+                try {
+                    clock.sleep(100);
+                    Thread.sleep(50); // real work, many settle periods long
+                    clock.sleep(10);
+                    woken.add(clock.currentTimeMillis());
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            });
+            Thread other = new Thread(() -> {
+                try {
+                    clock.sleep(1000);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            });
+            slow.start();
+            other.start();
+
+            slow.join(10_000);
+            other.join(10_000);
+
+            assertEquals(List.of(110L), woken);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package FireFightingDroneSwarm.Simulation;
+
+import FireFightingDroneSwarm.DroneSubsystem.FaultType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.FireEvent;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Severity;
+import FireFightingDroneSwarm.FireIncidentSubsystem.TaskType;
+import FireFightingDroneSwarm.FireIncidentSubsystem.Zone;
+import FireFightingDroneSwarm.Protocol.FireEventFrame;
+import FireFightingDroneSwarm.Protocol.Telemetry;
+import FireFightingDroneSwarm.Transport.LoopbackNetwork;
+import FireFightingDroneSwarm.Transport.LoopbackTransport;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSimulatorTest {
+
+    /**
+     * Tests that many drones share one endpoint, every drone reports in
+     * from the same address, and an assignment reaches only the drone it
+     * names.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testDronesShareOneEndpoint() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork(8192);
+        LoopbackTransport scheduler = network.bind(50000);
+        LoopbackTransport fleetEndpoint = network.bind(0);
+        int count = 200;
+
+        FleetSimulator fleet = new FleetSimulator(fleetEndpoint, scheduler.getLocalAddress(), null);
+        fleet.start(1, count);
+        assertEquals(count, fleet.size());
+
+        Set<Integer> reported = new HashSet<>();
+        Set<InetSocketAddress> sources = new HashSet<>();
+        Telemetry telemetry = new Telemetry();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reported.size() < count && System.currentTimeMillis() < deadline) {
+            scheduler.receive(100, (data, length, source) -> {
+                if (telemetry.decode(data, length)) {
+                    reported.add(telemetry.getDroneId());
+                    sources.add(source);
+                }
+            });
+        }
+        assertEquals(count, reported.size());
+        assertEquals(Set.of(fleetEndpoint.getLocalAddress()), sources);
+
+        // an assignment for a drone that does not exist is dropped, one for drone 42 is taken
+        FireEvent event = new FireEvent(1, TaskType.FIRE_DETECTED, LocalTime.now(), Severity.LOW, FaultType.NONE, 9);
+        Zone zone = new Zone(1, new int[]{0, 0}, new int[]{0, 0});
+        byte[] data = new byte[FireEventFrame.MAX_LENGTH];
+        int length = new FireEventFrame().set(FireEventFrame.ASSIGNMENT, event, zone, count + 1).encode(data);
+        scheduler.send(data, length, fleetEndpoint.getLocalAddress());
+        length = new FireEventFrame().set(FireEventFrame.ASSIGNMENT, event, zone, 42).encode(data);
+        scheduler.send(data, length, fleetEndpoint.getLocalAddress());
+
+        deadline = System.currentTimeMillis() + 5000;
+        while (fleet.getDrones().get(41).currentTask == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(9, fleet.getDrones().get(41).currentTask.getFireID());
+        assertNull(fleet.getDrones().get(40).currentTask);
+
+        fleet.close();
+    }
+}
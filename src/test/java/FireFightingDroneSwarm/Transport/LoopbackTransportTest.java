@@ -0,0 +1,65 @@
+package FireFightingDroneSwarm.Transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoopbackTransportTest {
+
+    /**
+     * Tests that a datagram reaches the bound endpoint with the sender's
+     * address, and that the sender may reuse its array right after sending.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testSendAndReceive() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork();
+        LoopbackTransport server = network.bind(50000);
+        LoopbackTransport client = network.bind(0);
+
+        byte[] data = {1, 2, 3};
+        client.send(data, 2, server.getLocalAddress());
+        data[0] = 9;
+
+        List<String> received = new ArrayList<>();
+        List<InetSocketAddress> sources = new ArrayList<>();
+        int handled = server.receive(100, (buf, length, source) -> {
+            received.add(buf[0] + ":" + length);
+            sources.add(source);
+        });
+
+        assertEquals(1, handled);
+        assertEquals(List.of("1:2"), received);
+        assertEquals(client.getLocalAddress(), sources.get(0));
+        assertEquals(0, server.receive(1, (buf, length, source) -> fail("nothing left to receive")));
+    }
+
+    /**
+     * Tests that datagrams for unbound ports and for a full endpoint are
+     * dropped like UDP, and that a port can only be bound once per network.
+     * @throws Exception if a send or receive fails
+     */
+    @Test
+    void testDropsLikeUdp() throws Exception {
+        LoopbackNetwork network = new LoopbackNetwork(2);
+        LoopbackTransport server = network.bind(50000);
+        LoopbackTransport client = network.bind(0);
+
+        client.send(new byte[]{1}, 1, LoopbackNetwork.address(60000));
+        for (int i = 0; i < 5; i++) {
+            client.send(new byte[]{(byte) i}, 1, server.getLocalAddress());
+        }
+        assertEquals(2, server.receive(100, (buf, length, source) -> { }));
+
+        assertThrows(IllegalStateException.class, () -> network.bind(50000));
+        assertNotNull(new LoopbackNetwork().bind(50000), "ports are per network");
+
+        server.close();
+        client.send(new byte[]{1}, 1, server.getLocalAddress());
+        assertNotNull(network.bind(50000), "port is free again after close");
+    }
+}